@@ -0,0 +1,31 @@
+package com.example.reservation;
+
+import java.time.LocalDate;
+
+//A free stay found by the availability search: the room is free every night from check-in for the given nights.
+public class AvailableStay {
+    private final int roomNumber;
+    private final LocalDate checkIn;
+    private final int nights;
+
+    public AvailableStay(int roomNumber, LocalDate checkIn, int nights) {
+        this.roomNumber = roomNumber;
+        this.checkIn = checkIn;
+        this.nights = nights;
+    }
+
+    //Return functions
+    public int getRoomNumber() { return roomNumber; }
+    public LocalDate getCheckIn() { return checkIn; }
+    public int getNights() { return nights; }
+    public LocalDate getLastNight() { return checkIn.plusDays(nights - 1); }
+
+    @Override
+    public String toString() {
+        return ("AvailableStay {" +
+                "roomNumber='" + roomNumber + '\'' +
+                ", checkIn="    + checkIn +
+                ", nights='"    + nights + '\'' +
+                "}");
+    }
+}
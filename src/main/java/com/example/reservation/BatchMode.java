@@ -0,0 +1,7 @@
+package com.example.reservation;
+
+//How addReservations treats a batch with items that cannot be booked.
+public enum BatchMode {
+    ALL_OR_NOTHING,     //Any rejected item rejects the whole batch.
+    BEST_EFFORT         //Every item is booked or rejected on its own.
+}
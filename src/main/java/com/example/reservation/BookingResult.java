@@ -0,0 +1,14 @@
+package com.example.reservation;
+
+//Outcome of ReservationService.tryAddReservation, in the order the checks run.
+public enum BookingResult {
+    OK,             //Booked.
+    NULL_FIELD,     //Name, date, room or guest count missing.
+    PAST_DATE,      //Before the first bookable day.
+    TOO_FAR,        //After the last bookable day.
+    BAD_ROOM,       //Room not bookable under the current rules.
+    BAD_GUESTS,     //Guest count not allowed for the room.
+    CONFLICT;       //Slot already booked or held.
+
+    public boolean isBooked() { return this == OK; }
+}
@@ -0,0 +1,75 @@
+package com.example.reservation;
+
+import java.time.Clock;
+import java.time.LocalDate;
+
+//Today and the last bookable day as epoch-days, read from an injectable Clock and cached until the next midnight
+//of the clock's zone. A booking date is checked with two int comparisons against one consistent pair of bounds,
+//so a request arriving at midnight never mixes yesterday's and today's dates.
+//The cache is refreshed by the first caller after midnight; the rest only compare clock.millis() to the rollover.
+public class BookingWindow {
+    private final Clock clock;
+    private volatile Bounds bounds;
+
+    //One day's bounds, replaced as a whole.
+    public static final class Bounds {
+        private final long today;
+        private final long lastBookableDay;
+        private final long rolloverMillis;   //Start of the next day in the clock's zone.
+
+        private Bounds(long today, long lastBookableDay, long rolloverMillis) {
+            this.today = today;
+            this.lastBookableDay = lastBookableDay;
+            this.rolloverMillis = rolloverMillis;
+        }
+
+        public long getToday() { return today; }
+        public long getLastBookableDay() { return lastBookableDay; }
+
+        //Reservations for past dates cannot be made.
+        public boolean isPast(long epochDay) { return epochDay < today; }
+
+        //Reservations can be made up to 1 year later.
+        public boolean isTooFar(long epochDay) { return epochDay > lastBookableDay; }
+
+        public boolean isBookable(long epochDay) { return epochDay >= today && epochDay <= lastBookableDay; }
+    }
+
+    public BookingWindow(Clock clock) {
+        this.clock = clock;
+        this.bounds = compute();
+    }
+
+    //Bounds of the current day.
+    public Bounds current() {
+        Bounds current = bounds;
+        if (clock.millis() >= current.rolloverMillis) {
+            current = compute();
+            bounds = current;
+        }
+        return current;
+    }
+
+    public long today() {
+        return current().today;
+    }
+
+    public LocalDate todayDate() {
+        return LocalDate.ofEpochDay(current().today);
+    }
+
+    private Bounds compute() {
+        LocalDate today = LocalDate.now(clock);
+        long rollover = today.plusDays(1).atStartOfDay(clock.getZone()).toInstant().toEpochMilli();
+        return new Bounds(today.toEpochDay(), lastBookableDay(today).toEpochDay(), rollover);
+    }
+
+    //Last date for which date.minusYears(1) is not after today (handles 29 February).
+    static LocalDate lastBookableDay(LocalDate today) {
+        LocalDate last = today.plusYears(1);
+        if (!last.plusDays(1).minusYears(1).isAfter(today)) {
+            last = last.plusDays(1);
+        }
+        return last;
+    }
+}
@@ -0,0 +1,99 @@
+package com.example.reservation;
+
+import java.time.LocalDate;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Consumer;
+
+//Bounded ring of the latest ReservationEvents, Disruptor-style: a publisher claims the next sequence number with
+//one atomic increment and stores the event in slot (sequence & mask). Publishers never wait for subscribers;
+//once the ring is full the oldest events are overwritten. A subscriber is just a cursor: it reads slots until it
+//meets one that is not published yet, and notices it was lapped when a slot already holds a later sequence.
+//Each event carries its own sequence number, so a reader never needs a lock to tell which event a slot holds.
+public class ChangeFeed {
+    public static final int DEFAULT_CAPACITY = 1 << 16;
+
+    private final AtomicReferenceArray<ReservationEvent> ring;
+    private final int mask;
+    private final AtomicLong nextSequence = new AtomicLong();
+
+    //capacity is rounded up to a power of two.
+    public ChangeFeed(int capacity) {
+        if (capacity < 1 || capacity > 1 << 30) {
+            throw new IllegalArgumentException("Capacity must be between 1 and 2^30 events.");
+        }
+        int size = capacity == 1 ? 1 : Integer.highestOneBit(capacity - 1) << 1;
+        this.ring = new AtomicReferenceArray<>(size);
+        this.mask = size - 1;
+    }
+
+    public int getCapacity() { return mask + 1; }
+
+    //Sequence number the next event will get.
+    public long getNextSequence() { return nextSequence.get(); }
+
+    //Oldest sequence number still in the ring (events before it were overwritten).
+    public long getOldestSequence() { return Math.max(0, nextSequence.get() - getCapacity()); }
+
+    //Publishes the event and returns its sequence number. Never blocks.
+    long publish(ReservationEvent.Type type, String customerName, LocalDate checkIn, int nights, int roomNumber,
+                 int guestCount) {
+        long sequence = nextSequence.getAndIncrement();
+        ReservationEvent event = new ReservationEvent(sequence, type, customerName, checkIn, nights, roomNumber, guestCount);
+        int slot = (int) (sequence & mask);
+        //A publisher stalled for a whole lap must not overwrite the newer event that took its slot meanwhile.
+        for (ReservationEvent current = ring.get(slot); current == null || current.getSequence() < sequence;
+             current = ring.get(slot)) {
+            if (ring.compareAndSet(slot, current, event)) {break;}
+        }
+        return sequence;
+    }
+
+    //Subscription starting at the given sequence number (0 for everything still in the ring, getNextSequence()
+    //for new events only). A sequence older than getOldestSequence() is reported as lost on the first poll.
+    public Subscription subscribe(long fromSequence) {
+        if (fromSequence < 0 || fromSequence > nextSequence.get()) {
+            throw new IllegalArgumentException("Sequence " + fromSequence + " has not been published.");
+        }
+        return new Subscription(fromSequence);
+    }
+
+    //A subscriber's cursor, for a single consumer thread. Polling never blocks and never delays publishers.
+    public class Subscription {
+        private long next;
+
+        private Subscription(long next) {
+            this.next = next;
+        }
+
+        //Sequence number of the next event to read; subscribe(getNextSequence()) resumes here later.
+        public long getNextSequence() { return next; }
+
+        //The next event, or null if it is not published yet. Throws IllegalStateException if the subscriber fell
+        //more than a ring behind and events were lost; resubscribe from getOldestSequence() after a resync.
+        public ReservationEvent poll() {
+            ReservationEvent event = ring.get((int) (next & mask));
+            if (event == null || event.getSequence() < next) {
+                if (next < getOldestSequence()) {lost();}
+                return null;
+            }
+            if (event.getSequence() > next) {lost();}
+            next++;
+            return event;
+        }
+
+        //Hands up to max published events to the consumer in order and returns how many there were.
+        public int drainTo(Consumer<? super ReservationEvent> consumer, int max) {
+            int count = 0;
+            for (ReservationEvent event; count < max && (event = poll()) != null; count++) {
+                consumer.accept(event);
+            }
+            return count;
+        }
+
+        private void lost() {
+            throw new IllegalStateException("Events from sequence " + next + " were overwritten; oldest available is " +
+                    getOldestSequence() + ".");
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package com.example.reservation;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+//Dictionary encoding of customer names: every distinct name gets a dense int id the first time it is booked,
+//and the room tables and the customer index store only the id. A name is looked up once per call at the API
+//edge, after that comparing customers is comparing ints. The name of an id is one array read, and is the
+//same String instance for every booking of the customer.
+//Safe for concurrent use; lookups take no lock and do not allocate. Ids are never reused, the dictionary only
+//grows (by one map entry and one array slot per distinct customer ever booked).
+public class CustomerDictionary {
+    public static final int UNKNOWN = -1;
+
+    private final Map<String, Integer> ids = new ConcurrentHashMap<>();
+    private final IdArray<String> names = new IdArray<>();
+    private final AtomicInteger nextId = new AtomicInteger();
+
+    //Id of the name, assigning the next one to a new name.
+    public int intern(String name) {
+        Integer id = ids.get(name);
+        return id != null ? id : ids.computeIfAbsent(name, this::assign);
+    }
+
+    //The name is stored before the id is handed out, so whoever sees the id can resolve it.
+    private Integer assign(String name) {
+        int id = nextId.getAndIncrement();
+        names.set(id, name);
+        return id;
+    }
+
+    //Id of the name, or UNKNOWN if it was never booked.
+    public int idOf(String name) {
+        Integer id = ids.get(name);
+        return id != null ? id : UNKNOWN;
+    }
+
+    //Name of the id, or null for an id this dictionary did not hand out.
+    public String nameOf(int id) {
+        return id < 0 ? null : names.get(id);
+    }
+
+    //Number of distinct names.
+    public int size() {
+        return nextId.get();
+    }
+}
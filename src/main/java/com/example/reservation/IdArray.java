@@ -0,0 +1,55 @@
+package com.example.reservation;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.IntFunction;
+
+//Grow-only array indexed by dense int ids, for the CustomerDictionary and the indexes keyed by its ids.
+//Slots live in pages of PAGE that are added as ids grow and never copied, so reads take no lock and a slot
+//never moves. Only adding a page is synchronized.
+class IdArray<T> {
+    private static final int PAGE_BITS = 10;
+    private static final int PAGE = 1 << PAGE_BITS;
+
+    @SuppressWarnings({"unchecked", "rawtypes"})   //Generic array creation
+    private volatile AtomicReferenceArray<T>[] pages = new AtomicReferenceArray[0];
+
+    //Value of the id, or null if none was set.
+    T get(int id) {
+        AtomicReferenceArray<T>[] current = pages;
+        int page = id >>> PAGE_BITS;
+        return page < current.length ? current[page].get(id & (PAGE - 1)) : null;
+    }
+
+    void set(int id, T value) {
+        page(id).set(id & (PAGE - 1), value);
+    }
+
+    //Value of the id, created once if none was set. Racing creators agree on one value.
+    T computeIfAbsent(int id, IntFunction<T> create) {
+        T value = get(id);
+        if (value != null) {return value;}
+        AtomicReferenceArray<T> page = page(id);
+        value = create.apply(id);
+        return page.compareAndSet(id & (PAGE - 1), null, value) ? value : page.get(id & (PAGE - 1));
+    }
+
+    private AtomicReferenceArray<T> page(int id) {
+        AtomicReferenceArray<T>[] current = pages;
+        int page = id >>> PAGE_BITS;
+        return page < current.length ? current[page] : grow(page);
+    }
+
+    private synchronized AtomicReferenceArray<T> grow(int page) {
+        AtomicReferenceArray<T>[] current = pages;
+        if (page >= current.length) {
+            AtomicReferenceArray<T>[] next = Arrays.copyOf(current, Math.max(page + 1, current.length * 2));
+            for (int i = current.length; i < next.length; i++) {
+                next[i] = new AtomicReferenceArray<>(PAGE);
+            }
+            pages = next;
+            current = next;
+        }
+        return current[page];
+    }
+}
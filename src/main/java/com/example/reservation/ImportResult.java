@@ -0,0 +1,46 @@
+package com.example.reservation;
+
+//Outcome of one ReservationImporter run: how many rows were read, stored and rejected, and why.
+public class ImportResult {
+    //Why a row went to the reject file.
+    public enum Reject {
+        MALFORMED,      //Missing or unparsable field, or a line longer than ReservationImporter.MAX_LINE_BYTES
+        BAD_ROOM,       //Room closed or unknown under the service's validation rules
+        BAD_GUESTS,     //Guest count not allowed in the room
+        CONFLICT,       //Overlaps a stored stay, a hold or an earlier row of the import
+        TOO_FAR         //Has a night after the occupancy calendar's window (today + 383 days), which never tracks it
+    }
+
+    private long rows;
+    private long imported;
+    private final long[] rejected = new long[Reject.values().length];
+    private long elapsedNanos;
+
+    void addRows(long count) { rows += count; }
+    void addImported(long count) { imported += count; }
+    void addRejected(Reject reason) { rejected[reason.ordinal()]++; }
+    void setElapsedNanos(long nanos) { elapsedNanos = nanos; }
+
+    //Return functions
+    public long getRows() { return rows; }
+    public long getImported() { return imported; }
+    public long getRejected(Reject reason) { return rejected[reason.ordinal()]; }
+    public long getElapsedNanos() { return elapsedNanos; }
+
+    public long getRejected() {
+        long total = 0;
+        for (long count : rejected) {
+            total += count;
+        }
+        return total;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder out = new StringBuilder("ImportResult {rows=").append(rows).append(", imported=").append(imported);
+        for (Reject reason : Reject.values()) {
+            out.append(", ").append(reason).append('=').append(rejected[reason.ordinal()]);
+        }
+        return out.append(", elapsedMillis=").append(elapsedNanos / 1_000_000).append('}').toString();
+    }
+}
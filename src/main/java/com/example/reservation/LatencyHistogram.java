@@ -0,0 +1,85 @@
+package com.example.reservation;
+
+import java.util.concurrent.atomic.LongAdder;
+
+//Log-linear latency histogram in the style of HdrHistogram: values are bucketed by power of two, each power
+//split into 16 linear sub-buckets, so any recorded value is reported within 1/16 (6.25%) of itself.
+//Covers 0 ns up to 2^44 ns (about 4.9 hours); larger values land in the last bucket.
+//Each bucket is a LongAdder, so recording threads do not contend and record allocates nothing.
+public class LatencyHistogram {
+    private static final int SUB_BUCKET_BITS = 4;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int MAX_EXPONENT = 44;
+    private static final int BUCKET_COUNT = (MAX_EXPONENT - SUB_BUCKET_BITS + 2) * SUB_BUCKETS;
+
+    private final LongAdder[] buckets = new LongAdder[BUCKET_COUNT];
+    private final LongAdder totalNanos = new LongAdder();
+
+    public LatencyHistogram() {
+        for (int i = 0; i < buckets.length; i++) {
+            buckets[i] = new LongAdder();
+        }
+    }
+
+    public void record(long nanos) {
+        buckets[bucketIndex(Math.max(nanos, 0))].increment();
+        totalNanos.add(nanos);
+    }
+
+    //Values below 16 get one bucket each; above, the 4 bits after the highest one pick the sub-bucket.
+    static int bucketIndex(long value) {
+        int exponent = Long.SIZE - 1 - Long.numberOfLeadingZeros(value);
+        if (exponent < SUB_BUCKET_BITS) {return (int) value;}
+        if (exponent > MAX_EXPONENT) {return BUCKET_COUNT - 1;}
+        int subBucket = (int) (value >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+        return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + subBucket;
+    }
+
+    //Largest value that falls into the bucket.
+    static long bucketUpperBound(int index) {
+        if (index < SUB_BUCKETS) {return index;}
+        int exponent = index / SUB_BUCKETS + SUB_BUCKET_BITS - 1;
+        int subBucket = index % SUB_BUCKETS;
+        long lower = (1L << exponent) | ((long) subBucket << (exponent - SUB_BUCKET_BITS));
+        return lower + (1L << (exponent - SUB_BUCKET_BITS)) - 1;
+    }
+
+    public long getCount() {
+        long count = 0;
+        for (LongAdder bucket : buckets) {
+            count += bucket.sum();
+        }
+        return count;
+    }
+
+    public long getMeanNanos() {
+        long count = getCount();
+        return count == 0 ? 0 : totalNanos.sum() / count;
+    }
+
+    //Value at the percentile (0-100], rounded up to its bucket's upper bound. 0 if nothing was recorded.
+    //Reads are not atomic across buckets; while threads record, the result may lag by the values in flight.
+    public long getValueAtPercentile(double percentile) {
+        long[] counts = new long[BUCKET_COUNT];
+        long count = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            counts[i] = buckets[i].sum();
+            count += counts[i];
+        }
+        if (count == 0) {return 0;}
+        long rank = Math.max(1, (long) Math.ceil(percentile / 100 * count));
+        long seen = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            seen += counts[i];
+            if (seen >= rank) {return bucketUpperBound(i);}
+        }
+        return bucketUpperBound(BUCKET_COUNT - 1);
+    }
+
+    public void reset() {
+        for (LongAdder bucket : buckets) {
+            bucket.reset();
+        }
+        totalNanos.reset();
+    }
+}
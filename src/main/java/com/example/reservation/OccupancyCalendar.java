@@ -0,0 +1,211 @@
+package com.example.reservation;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+//Bitset calendar of occupied days for rooms 101-199.
+//Each room has one bitset row used as a ring indexed by epoch-day, so rolling forward a day
+//only clears the bits of the days that left the window. No boxing and no allocation on lookups.
+//Bits are flipped with compare-and-set, so rolling the window never loses a concurrent booking.
+public class OccupancyCalendar {
+    public static final int FIRST_ROOM = 101;
+    public static final int LAST_ROOM = 199;
+    public static final int ROOM_COUNT = LAST_ROOM - FIRST_ROOM + 1;
+
+    static final int WORDS_PER_ROOM = 6;
+    static final int RING_DAYS = WORDS_PER_ROOM * Long.SIZE;   //384 days, covers today + one (leap) year.
+
+    private final AtomicLongArray[] rows = new AtomicLongArray[ROOM_COUNT];
+    private volatile long todayEpochDay;
+
+    public OccupancyCalendar(long todayEpochDay) {
+        this.todayEpochDay = todayEpochDay;
+        for (int i = 0; i < ROOM_COUNT; i++) {
+            rows[i] = new AtomicLongArray(WORDS_PER_ROOM);
+        }
+    }
+
+    public long getTodayEpochDay() { return todayEpochDay; }
+
+    //True if the calendar tracks this room and day.
+    public boolean covers(int roomNumber, long epochDay) {
+        long today = todayEpochDay;
+        return roomNumber >= FIRST_ROOM && roomNumber <= LAST_ROOM &&
+                epochDay >= today && epochDay < today + RING_DAYS;
+    }
+
+    public boolean isOccupied(int roomNumber, long epochDay) {
+        if (!covers(roomNumber, epochDay)) {return false;}
+        int bit = ringIndex(epochDay);
+        return (rows[roomNumber - FIRST_ROOM].get(bit >>> 6) & (1L << bit)) != 0;
+    }
+
+    //Free means tracked by the calendar and not occupied.
+    public boolean isFree(int roomNumber, long epochDay) {
+        return covers(roomNumber, epochDay) && !isOccupied(roomNumber, epochDay);
+    }
+
+    //Sets the day's bit. Returns false if the day is not tracked or was already occupied.
+    public boolean occupy(int roomNumber, long epochDay) {
+        if (!covers(roomNumber, epochDay)) {return false;}
+        AtomicLongArray row = rows[roomNumber - FIRST_ROOM];
+        int bit = ringIndex(epochDay);
+        long mask = 1L << bit;
+        long word;
+        do {
+            word = row.get(bit >>> 6);
+            if ((word & mask) != 0) {return false;}
+        } while (!row.compareAndSet(bit >>> 6, word, word | mask));
+
+        //The window rolled past the day while we were setting it, drop the stale bit again.
+        if (epochDay < todayEpochDay) {
+            clearBit(row, bit);
+            return false;
+        }
+        return true;
+    }
+
+    public void release(int roomNumber, long epochDay) {
+        if (!covers(roomNumber, epochDay)) {return;}
+        clearBit(rows[roomNumber - FIRST_ROOM], ringIndex(epochDay));
+    }
+
+    //Writes the free room numbers for the day into out (length >= ROOM_COUNT) and returns how many there are.
+    public int freeRooms(long epochDay, int[] out) {
+        return freeRooms(epochDay, FIRST_ROOM, LAST_ROOM, out);
+    }
+
+    //Same among the rooms from firstRoom to lastRoom (both included).
+    public int freeRooms(long epochDay, int firstRoom, int lastRoom, int[] out) {
+        long today = todayEpochDay;
+        if (epochDay < today || epochDay >= today + RING_DAYS) {return 0;}
+        int bit = ringIndex(epochDay);
+        int word = bit >>> 6;
+        long mask = 1L << bit;
+        int count = 0;
+        for (int i = Math.max(firstRoom, FIRST_ROOM) - FIRST_ROOM; i <= Math.min(lastRoom, LAST_ROOM) - FIRST_ROOM; i++) {
+            if ((rows[i].get(word) & mask) == 0) {
+                out[count++] = FIRST_ROOM + i;
+            }
+        }
+        return count;
+    }
+
+    //Writes the rooms free on every day from fromDay to toDay (both included) into out and returns how many there are.
+    //Each room checks its occupied words over the range, so a 30-day range costs one or two word reads per room.
+    public int freeRooms(long fromDay, long toDay, int[] out) {
+        return freeRooms(fromDay, toDay, FIRST_ROOM, LAST_ROOM, out);
+    }
+
+    //Same among the rooms from firstRoom to lastRoom (both included).
+    public int freeRooms(long fromDay, long toDay, int firstRoom, int lastRoom, int[] out) {
+        long today = todayEpochDay;
+        if (fromDay > toDay || fromDay < today || toDay >= today + RING_DAYS) {return 0;}
+        int start = ringIndex(fromDay);
+        int days = (int) (toDay - fromDay + 1);
+        int count = 0;
+        for (int i = Math.max(firstRoom, FIRST_ROOM) - FIRST_ROOM; i <= Math.min(lastRoom, LAST_ROOM) - FIRST_ROOM; i++) {
+            if (!anyOccupied(rows[i], start, days)) {
+                out[count++] = FIRST_ROOM + i;
+            }
+        }
+        return count;
+    }
+
+    //Free on every day from fromDay to toDay (both included), all of them tracked by the calendar.
+    public boolean isFree(int roomNumber, long fromDay, long toDay) {
+        if (fromDay > toDay || !covers(roomNumber, fromDay) || !covers(roomNumber, toDay)) {return false;}
+        return !anyOccupied(rows[roomNumber - FIRST_ROOM], ringIndex(fromDay), (int) (toDay - fromDay + 1));
+    }
+
+    //ORs the occupied words of days ring positions from start on.
+    private static boolean anyOccupied(AtomicLongArray row, int start, int days) {
+        for (int offset = 0; offset < days; offset += Long.SIZE) {
+            if ((ringWord(row, (start + offset) % RING_DAYS) & lowMask(days - offset)) != 0) {return true;}
+        }
+        return false;
+    }
+
+    //Sets bit i of out when the room is free for nights days in a row starting at fromDay + i, all of them
+    //on or before toDay. out needs (toDay - fromDay) / 64 + 1 words. Returns the number of words written,
+    //0 if the range is not inside the window.
+    public int freeStarts(int roomNumber, long fromDay, long toDay, int nights, long[] out) {
+        long today = todayEpochDay;
+        if (nights < 1 || fromDay > toDay || fromDay < today || toDay >= today + RING_DAYS ||
+                roomNumber < FIRST_ROOM || roomNumber > LAST_ROOM) {
+            return 0;
+        }
+        AtomicLongArray row = rows[roomNumber - FIRST_ROOM];
+        int start = ringIndex(fromDay);
+        int days = (int) (toDay - fromDay + 1);
+        int words = (days + Long.SIZE - 1) / Long.SIZE;
+        for (int w = 0; w < words; w++) {
+            out[w] = ~ringWord(row, (start + w * Long.SIZE) % RING_DAYS) & lowMask(days - w * Long.SIZE);
+        }
+        //Runs of free days double in length with each shift-and, so a stay of n nights takes about log2(n) passes.
+        for (int run = 1; run < nights; ) {
+            int step = Math.min(run, nights - run);
+            andShifted(out, words, step);
+            run += step;
+        }
+        return words;
+    }
+
+    //64 ring bits starting at the given ring position, bit 0 = that position. Wraps around the ring.
+    private static long ringWord(AtomicLongArray row, int bit) {
+        int word = bit >>> 6;
+        int offset = bit & 63;
+        long low = row.get(word) >>> offset;
+        if (offset == 0) {return low;}
+        return low | row.get((word + 1) % WORDS_PER_ROOM) << (Long.SIZE - offset);
+    }
+
+    //Mask of the lowest n bits, all bits for n >= 64.
+    private static long lowMask(int n) {
+        return n >= Long.SIZE ? -1L : (1L << n) - 1;
+    }
+
+    //bits &= bits >> shift, across words (bit i takes bit i + shift).
+    private static void andShifted(long[] bits, int words, int shift) {
+        int wordShift = shift >>> 6;
+        int bitShift = shift & 63;
+        for (int w = 0; w < words; w++) {
+            int source = w + wordShift;
+            long shifted = 0;
+            if (source < words) {
+                shifted = bits[source] >>> bitShift;
+                if (bitShift != 0 && source + 1 < words) {
+                    shifted |= bits[source + 1] << (Long.SIZE - bitShift);
+                }
+            }
+            bits[w] &= shifted;
+        }
+    }
+
+    //Moves the window forward to the new day, clearing the ring slots of the days that are now past.
+    public synchronized void rollTo(long newTodayEpochDay) {
+        long oldToday = todayEpochDay;
+        if (newTodayEpochDay <= oldToday) {return;}
+        todayEpochDay = newTodayEpochDay;
+
+        long end = Math.min(newTodayEpochDay, oldToday + RING_DAYS);
+        for (long day = oldToday; day < end; day++) {
+            int bit = ringIndex(day);
+            for (AtomicLongArray row : rows) {
+                clearBit(row, bit);
+            }
+        }
+    }
+
+    private static void clearBit(AtomicLongArray row, int bit) {
+        long mask = 1L << bit;
+        long word;
+        do {
+            word = row.get(bit >>> 6);
+            if ((word & mask) == 0) {return;}
+        } while (!row.compareAndSet(bit >>> 6, word, word & ~mask));
+    }
+
+    private static int ringIndex(long epochDay) {
+        return (int) Math.floorMod(epochDay, (long) RING_DAYS);
+    }
+}
@@ -5,13 +5,20 @@ import java.util.Objects;
 
 public class Reservation {
     private String customerName;
-    private LocalDate date;
+    private LocalDate date;       //Check-in, the first night of the stay.
+    private LocalDate checkOut;   //Day of departure, the stay's nights are date .. checkOut - 1.
     private Integer roomNumber;
     private Integer guestCount;
 
+    //A one-night stay.
     public Reservation(String customerName, LocalDate date, Integer roomNumber, Integer guestCount) {
+        this(customerName, date, date == null ? null : date.plusDays(1), roomNumber, guestCount);
+    }
+
+    public Reservation(String customerName, LocalDate checkIn, LocalDate checkOut, Integer roomNumber, Integer guestCount) {
         this.customerName = customerName;
-        this.date = date;
+        this.date = checkIn;
+        this.checkOut = checkOut;
         this.roomNumber = roomNumber;
         this.guestCount = guestCount;
     }
@@ -19,15 +26,37 @@ public class Reservation {
     //Return functions
     public String getCustomerName() { return customerName; }
     public LocalDate getDateTime() { return date; }
+    public LocalDate getCheckOut() { return checkOut; }
+    public int getNights() { return (int) (checkOut.toEpochDay() - date.toEpochDay()); }
     public Integer getRoomNumber() { return roomNumber; }
     public Integer getGuestCount() { return guestCount; }
 
-    //toString func to print reservations as we want.
+    //Value-based: two reservations are equal if all fields are equal.
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof Reservation)) return false;
+        Reservation that = (Reservation) o;
+        return Objects.equals(customerName, that.customerName) &&
+                Objects.equals(date, that.date) &&
+                Objects.equals(checkOut, that.checkOut) &&
+                Objects.equals(roomNumber, that.roomNumber) &&
+                Objects.equals(guestCount, that.guestCount);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(customerName, date, checkOut, roomNumber, guestCount);
+    }
+
+    //toString func to print reservations as we want. One-night stays print as before.
     @Override
     public String toString() {
+        boolean oneNight = date == null || checkOut == null || checkOut.equals(date.plusDays(1));
         return ("Reservation {" +
                 "customerName='" + customerName + '\'' +
                 ", date="        + date +
+                (oneNight ? "" : ", checkOut=" + checkOut) +
                 ", roomNumber='" + roomNumber + '\'' +
                 ", guestCount='" + guestCount + '\'' +
                 "}");
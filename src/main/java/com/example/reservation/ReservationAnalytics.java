@@ -0,0 +1,224 @@
+package com.example.reservation;
+
+import java.time.YearMonth;
+import java.time.temporal.ChronoUnit;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.BiConsumer;
+import java.util.function.Supplier;
+import java.util.stream.IntStream;
+
+//Reports over one ReservationView: occupancy per room and month, the guest-count distribution and the number of
+//bookings per customer. Each report is one parallel pass over the primitive columns of the room tables: the
+//chunks of all rooms are cut into one range per thread of the pool, every range fills its own int or long array
+//and the ranges are merged by adding the arrays, so a report holds parallelism arrays whatever the number of
+//chunks. No Reservation, LocalDate or boxed count is built per stay.
+//The view never changes, so a report is consistent however long it runs, and bookings go on meanwhile.
+public class ReservationAnalytics {
+    private final CustomerDictionary dictionary;
+    private final ForkJoinPool pool;             //Runs the parallel streams
+    private final RoomTable[] tables;            //Room 101 + i at i
+    private final int[] firstChunk;              //Index of room i's first chunk among the chunks of all rooms
+
+    //Adds one chunk of a room's stays to an accumulator.
+    private interface ChunkScan<A> {
+        void accept(A accumulator, int roomIndex, RoomTable.Chunk chunk);
+    }
+
+    ReservationAnalytics(ReservationView view, CustomerDictionary dictionary, ForkJoinPool pool) {
+        this.dictionary = dictionary;
+        this.pool = pool;
+        this.tables = new RoomTable[OccupancyCalendar.ROOM_COUNT];
+        this.firstChunk = new int[OccupancyCalendar.ROOM_COUNT + 1];
+        for (int i = 0; i < tables.length; i++) {
+            tables[i] = view.room(i);
+            firstChunk[i + 1] = firstChunk[i] + tables[i].chunkCount();
+        }
+    }
+
+    //Occupied nights per room and month, for the months from one to another (both included).
+    public Occupancy occupancy(YearMonth from, YearMonth to) {
+        int months = (int) from.until(to, ChronoUnit.MONTHS) + 1;
+        if (months < 1) {
+            throw new IllegalArgumentException("The first month must not be after the last.");
+        }
+        long[] monthStarts = new long[months + 1];
+        for (int m = 0; m <= months; m++) {
+            monthStarts[m] = from.plusMonths(m).atDay(1).toEpochDay();
+        }
+        long rangeStart = monthStarts[0];
+        long rangeEnd = monthStarts[months];
+        int[] nights = aggregate(() -> new int[OccupancyCalendar.ROOM_COUNT * months], (counts, room, chunk) -> {
+            int last = chunk.length() - 1;
+            if (chunk.days[0] >= rangeEnd || (long) chunk.days[last] + chunk.nights[last] <= rangeStart) {return;}
+            //Stays are in check-in order, so the month only moves forward within the chunk.
+            int month = monthOf(monthStarts, Math.max(chunk.days[0], rangeStart));
+            for (int i = 0; i <= last; i++) {
+                long start = Math.max(chunk.days[i], rangeStart);
+                long end = Math.min((long) chunk.days[i] + chunk.nights[i], rangeEnd);
+                while (month < months && monthStarts[month + 1] <= start) {month++;}
+                //A stay over the end of a month adds its nights to both months.
+                for (int m = month; start < end; m++) {
+                    long monthEnd = Math.min(monthStarts[m + 1], end);
+                    counts[room * months + m] += (int) (monthEnd - start);
+                    start = monthEnd;
+                }
+            }
+        }, ReservationAnalytics::add);
+        return new Occupancy(from, months, nights);
+    }
+
+    //Number of stays by guest count: index g holds the stays of g guests (0 .. ValidationRules.MAX_GUESTS).
+    public long[] guestCountDistribution() {
+        return aggregate(() -> new long[ValidationRules.MAX_GUESTS + 1], (counts, room, chunk) -> {
+            for (int i = 0; i < chunk.length(); i++) {
+                counts[chunk.guests[i]]++;
+            }
+        }, ReservationAnalytics::add);
+    }
+
+    //Number of stays of every customer.
+    public CustomerCounts bookingsPerCustomer() {
+        //Read after the view was taken, so every customer id in it is below.
+        int customers = dictionary.size();
+        int[] counts = aggregate(() -> new int[customers], (accumulator, room, chunk) -> {
+            for (int i = 0; i < chunk.length(); i++) {
+                accumulator[chunk.customers[i]]++;
+            }
+        }, ReservationAnalytics::add);
+        return new CustomerCounts(dictionary, counts);
+    }
+
+    //One parallel pass over the chunks of all rooms, with one accumulator per range of chunks.
+    private <A> A aggregate(Supplier<A> accumulator, ChunkScan<A> scan, BiConsumer<A, A> merge) {
+        int chunks = firstChunk[OccupancyCalendar.ROOM_COUNT];
+        int ranges = Math.max(1, Math.min(pool.getParallelism(), chunks));
+        return pool.submit(() -> IntStream.range(0, ranges).parallel().mapToObj(range -> {
+            A into = accumulator.get();
+            int end = (int) ((long) chunks * (range + 1) / ranges);
+            int chunk = (int) ((long) chunks * range / ranges);
+            for (int room = chunk < end ? roomOf(chunk) : 0; chunk < end; chunk++) {
+                while (firstChunk[room + 1] <= chunk) {room++;}
+                scan.accept(into, room, tables[room].chunk(chunk - firstChunk[room]));
+            }
+            return into;
+        }).reduce((into, from) -> {
+            merge.accept(into, from);
+            return into;
+        }).orElseThrow()).join();
+    }
+
+    //Room index of the chunk: the last room whose first chunk is at or before it (rooms without chunks share it).
+    private int roomOf(int chunk) {
+        int low = 0;
+        int high = OccupancyCalendar.ROOM_COUNT - 1;
+        while (low < high) {
+            int middle = (low + high + 1) >>> 1;
+            if (firstChunk[middle] <= chunk) {
+                low = middle;
+            } else {
+                high = middle - 1;
+            }
+        }
+        return low;
+    }
+
+    private static int monthOf(long[] monthStarts, long day) {
+        int index = Arrays.binarySearch(monthStarts, day);
+        return index >= 0 ? index : -index - 2;
+    }
+
+    private static void add(int[] into, int[] from) {
+        for (int i = 0; i < into.length; i++) {
+            into[i] += from[i];
+        }
+    }
+
+    private static void add(long[] into, long[] from) {
+        for (int i = 0; i < into.length; i++) {
+            into[i] += from[i];
+        }
+    }
+
+    //Occupied nights of rooms 101-199 in consecutive months.
+    public static class Occupancy {
+        private final YearMonth firstMonth;
+        private final int months;
+        private final int[] nights;   //Room 101 + i, month m at i * months + m
+
+        Occupancy(YearMonth firstMonth, int months, int[] nights) {
+            this.firstMonth = firstMonth;
+            this.months = months;
+            this.nights = nights;
+        }
+
+        public int getOccupiedNights(int roomNumber, YearMonth month) {
+            return nights[(roomNumber - OccupancyCalendar.FIRST_ROOM) * months + monthIndex(month)];
+        }
+
+        //Occupied share of the room's nights in the month, 0 to 1.
+        public double getRate(int roomNumber, YearMonth month) {
+            return (double) getOccupiedNights(roomNumber, month) / month.lengthOfMonth();
+        }
+
+        //Occupied share of all rooms' nights in the month.
+        public double getRate(YearMonth month) {
+            long occupied = 0;
+            for (int i = 0; i < OccupancyCalendar.ROOM_COUNT; i++) {
+                occupied += nights[i * months + monthIndex(month)];
+            }
+            return (double) occupied / ((long) OccupancyCalendar.ROOM_COUNT * month.lengthOfMonth());
+        }
+
+        private int monthIndex(YearMonth month) {
+            long index = firstMonth.until(month, ChronoUnit.MONTHS);
+            if (index < 0 || index >= months) {
+                throw new IllegalArgumentException(month + " is outside the report.");
+            }
+            return (int) index;
+        }
+    }
+
+    //Stays per customer, by CustomerDictionary id.
+    public static class CustomerCounts {
+        private final CustomerDictionary dictionary;
+        private final int[] counts;
+
+        CustomerCounts(CustomerDictionary dictionary, int[] counts) {
+            this.dictionary = dictionary;
+            this.counts = counts;
+        }
+
+        public int getCount(String customerName) {
+            int id = dictionary.idOf(customerName);
+            return id >= 0 && id < counts.length ? counts[id] : 0;
+        }
+
+        //Number of customers with at least one stay.
+        public int getCustomerCount() {
+            int customers = 0;
+            for (int count : counts) {
+                if (count > 0) {customers++;}
+            }
+            return customers;
+        }
+
+        //Up to limit customers with the most stays and their counts, most first (ties by first booking).
+        public Map<String, Integer> top(int limit) {
+            //(count, reversed id) keys: sorting primitives puts the most stays, then the lowest id, last.
+            long[] keys = new long[counts.length];
+            int size = 0;
+            for (int id = 0; id < counts.length; id++) {
+                if (counts[id] > 0) {keys[size++] = (long) counts[id] << 32 | (Integer.MAX_VALUE - id);}
+            }
+            Arrays.sort(keys, 0, size);
+            Map<String, Integer> top = new LinkedHashMap<>();
+            for (int i = size - 1; i >= Math.max(0, size - limit); i--) {
+                top.put(dictionary.nameOf(Integer.MAX_VALUE - (int) keys[i]), (int) (keys[i] >>> 32));
+            }
+            return top;
+        }
+    }
+}
@@ -2,12 +2,385 @@ package com.example.reservation;
 
 import java.time.LocalDate;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Stream;
 
 public class ReservationConflictChecker {
 
+    //Primary store: one packed, date-sorted table per room 101-199. Tables are immutable; a writer builds the
+    //room's next table here (under the room's lock in ReservationService), then publishes it in a new view.
+    private final RoomTable[] rooms = new RoomTable[OccupancyCalendar.ROOM_COUNT];
+
+    //What readers see. Swapped as a whole, so a reader never sees half of a batch.
+    private final AtomicReference<ReservationView> view;
+
+    //Customer names by id; the tables store ids.
+    private final CustomerDictionary dictionary;
+
+    //Bitset view of the bookable window, answers conflict checks without touching the tables.
+    //Writer side: a night is taken here before its stay is published and freed only after its removal is.
+    private final OccupancyCalendar calendar;
+
+    //Nights of tentative holds only. Holds are never published in a view, so availability reads combine the view
+    //with this calendar instead of reading the writer calendar, which also has the staged nights of a batch.
+    private final OccupancyCalendar holds;
+
+    //Batches in flight. While no room has staged, unpublished stays, the writer calendar holds exactly the
+    //published nights and the holds, and availability reads use it directly; stages tells a reader whether a
+    //batch began staging during its read. Single bookings are not counted: one stay seen a moment before its
+    //publication reads the same as just after it.
+    private final boolean[] staged = new boolean[OccupancyCalendar.ROOM_COUNT];   //Under the room's lock
+    private final AtomicInteger stagedRooms = new AtomicInteger();
+    private final AtomicLong stages = new AtomicLong();
+
+    public ReservationConflictChecker() {
+        this(LocalDate.now().toEpochDay());
+    }
+
+    //Checker whose calendar window starts at the given day.
+    public ReservationConflictChecker(long todayEpochDay) {
+        this(todayEpochDay, new CustomerDictionary());
+    }
+
+    //Checker storing customers as ids of the given dictionary, shared with the caller's indexes.
+    public ReservationConflictChecker(long todayEpochDay, CustomerDictionary dictionary) {
+        this.dictionary = dictionary;
+        calendar = new OccupancyCalendar(todayEpochDay);
+        holds = new OccupancyCalendar(todayEpochDay);
+        for (int i = 0; i < rooms.length; i++) {
+            rooms[i] = new RoomTable(OccupancyCalendar.FIRST_ROOM + i, dictionary);
+        }
+        view = new AtomicReference<>(new ReservationView(rooms));
+    }
+
+    //The latest published state of all rooms, for lock-free reads.
+    public ReservationView view() {
+        return view.get();
+    }
+
+    //Packs room number and epoch-day into one sortable key, used for cursors and the customer index.
+    static long slotKey(int roomNumber, LocalDate date) {
+        return slotKey(roomNumber, date.toEpochDay());
+    }
+
+    static long slotKey(int roomNumber, long epochDay) {
+        return ((long) roomNumber << 32) | (epochDay & 0xFFFFFFFFL);
+    }
+
+    static int slotRoom(long slotKey) {
+        return (int) (slotKey >>> 32);
+    }
+
+    static int slotDay(long slotKey) {
+        return (int) slotKey;
+    }
+
+    //Table of the room, or null for rooms outside 101-199 and days outside the int range (nothing is stored there).
+    private RoomTable table(int roomNumber, long epochDay) {
+        if (roomNumber < OccupancyCalendar.FIRST_ROOM || roomNumber > OccupancyCalendar.LAST_ROOM ||
+                epochDay != (int) epochDay) {
+            return null;
+        }
+        return rooms[roomNumber - OccupancyCalendar.FIRST_ROOM];
+    }
+
+    //Conflict check: the calendar answers inside the bookable window, a binary search in the room's table outside it.
+    public boolean hasConflict(int roomNumber, LocalDate date) {
+        return hasConflict(roomNumber, date.toEpochDay(), 1);
+    }
+
+    //True if any night of the stay is taken, staged and held nights included: the check a writer makes under the
+    //room's lock. Stays inside the window are a few word reads of the calendar.
+    public boolean hasConflict(int roomNumber, long checkIn, int nights) {
+        long lastNight = checkIn + nights - 1;
+        if (calendar.covers(roomNumber, checkIn) && calendar.covers(roomNumber, lastNight)) {
+            return !calendar.isFree(roomNumber, checkIn, lastNight);
+        }
+        RoomTable table = table(roomNumber, checkIn);
+        return table != null && lastNight == (int) lastNight && table.overlaps((int) checkIn, nights);
+    }
+
+    //Availability reads below answer from the published view and the holds, never from staged nights: a batch
+    //shows up as available until it is published, then as taken in all of its rooms at once. Days outside the
+    //calendar window are never available.
+
+    //Allocation-free availability check for a single room and day.
+    public boolean isFree(int roomNumber, long epochDay) {
+        long stamp = calendarStamp();
+        if (stamp >= 0) {
+            boolean free = calendar.isFree(roomNumber, epochDay);
+            if (stages.get() == stamp) {return free;}
+        }
+        return holds.isFree(roomNumber, epochDay) && !view.get().hasConflict(roomNumber, epochDay, 1);
+    }
+
+    //Fills out with the free rooms of the day and returns their count.
+    public int freeRooms(long epochDay, int[] out) {
+        return freeRooms(epochDay, epochDay, out);
+    }
+
+    //Same among the rooms from firstRoom to lastRoom (both included).
+    public int freeRooms(long epochDay, int firstRoom, int lastRoom, int[] out) {
+        return freeRooms(epochDay, epochDay, firstRoom, lastRoom, out);
+    }
+
+    //Fills out with the rooms free on every day of the range and returns their count.
+    public int freeRooms(long fromDay, long toDay, int[] out) {
+        return freeRooms(fromDay, toDay, OccupancyCalendar.FIRST_ROOM, OccupancyCalendar.LAST_ROOM, out);
+    }
+
+    //Same among the rooms from firstRoom to lastRoom (both included). While a batch is staged: the rooms
+    //without holds, then one search per room in its table of one view.
+    public int freeRooms(long fromDay, long toDay, int firstRoom, int lastRoom, int[] out) {
+        long stamp = calendarStamp();
+        if (stamp >= 0) {
+            int free = calendar.freeRooms(fromDay, toDay, firstRoom, lastRoom, out);
+            if (stages.get() == stamp) {return free;}
+        }
+        ReservationView current = view.get();
+        int candidates = holds.freeRooms(fromDay, toDay, firstRoom, lastRoom, out);
+        int nights = (int) (toDay - fromDay + 1);
+        int count = 0;
+        for (int i = 0; i < candidates; i++) {
+            if (!current.hasConflict(out[i], fromDay, nights)) {
+                out[count++] = out[i];
+            }
+        }
+        return count;
+    }
+
+    //Bitmap of the days a stay of the given nights can start in the room, see OccupancyCalendar.freeStarts.
+    public int freeStarts(int roomNumber, long fromDay, long toDay, int nights, long[] out) {
+        long stamp = calendarStamp();
+        if (stamp >= 0) {
+            int words = calendar.freeStarts(roomNumber, fromDay, toDay, nights, out);
+            if (stages.get() == stamp) {return words;}
+        }
+        return freeStarts(view.get(), roomNumber, fromDay, toDay, nights, out);
+    }
+
+    //Same for the rooms firstRoom + i into out[i], all of them as of one moment: a batch is in all or none.
+    public void freeStarts(int firstRoom, long fromDay, long toDay, int nights, long[][] out) {
+        long stamp = calendarStamp();
+        if (stamp >= 0) {
+            for (int i = 0; i < out.length; i++) {
+                calendar.freeStarts(firstRoom + i, fromDay, toDay, nights, out[i]);
+            }
+            if (stages.get() == stamp) {return;}
+        }
+        ReservationView current = view.get();
+        for (int i = 0; i < out.length; i++) {
+            freeStarts(current, firstRoom + i, fromDay, toDay, nights, out[i]);
+        }
+    }
+
+    private int freeStarts(ReservationView current, int roomNumber, long fromDay, long toDay, int nights, long[] out) {
+        int words = holds.freeStarts(roomNumber, fromDay, toDay, nights, out);
+        if (words > 0) {current.clearTakenStarts(roomNumber, fromDay, toDay, nights, out);}
+        return words;
+    }
+
+    //Stamp to check after reading the writer calendar (unchanged = no staged night was read), or -1 while a batch
+    //is staged and the calendar cannot be used. Staging counts stages before it takes the first night.
+    private long calendarStamp() {
+        long stamp = stages.get();
+        return stagedRooms.get() == 0 ? stamp : -1;
+    }
+
+    //Rolls the calendar window forward to the given day.
+    public void rollTo(LocalDate today) {
+        rollTo(today.toEpochDay());
+    }
+
+    public void rollTo(long todayEpochDay) {
+        if (todayEpochDay > calendar.getTodayEpochDay()) {
+            calendar.rollTo(todayEpochDay);
+            holds.rollTo(todayEpochDay);
+        }
+    }
+
+    //True if the day is after the calendar window. Stays are only stored up to its end: the window moves forward,
+    //so a night inside it stays tracked until it is past, while a later night would never be.
+    public boolean isBeyondWindow(long epochDay) {
+        return epochDay >= calendar.getTodayEpochDay() + OccupancyCalendar.RING_DAYS;
+    }
+
+    //Linear scan over an arbitrary list, kept for callers that do not use the index.
     public boolean hasConflict(List<Reservation> reservations, int roomNumber, LocalDate date) {
         return reservations.stream()
                 .anyMatch(res -> res.getRoomNumber().equals(roomNumber) &&
                         res.getDateTime().equals(date));
     }
+
+    //Returns the stay covering the slot, or null if the slot is free.
+    public Reservation getOccupant(int roomNumber, LocalDate date) {
+        return getOccupant(roomNumber, date.toEpochDay());
+    }
+
+    //Same by epoch-day, from the published view; a free calendar bit answers without touching the table.
+    public Reservation getOccupant(int roomNumber, long epochDay) {
+        if (calendar.isFree(roomNumber, epochDay)) {return null;}
+        return view.get().getOccupant(roomNumber, epochDay);
+    }
+
+    //True if the customer's stay for the guest count checks in on the day, from the published view.
+    public boolean matches(int roomNumber, long checkIn, int customerId, int guestCount) {
+        return view.get().matches(roomNumber, checkIn, customerId, guestCount);
+    }
+
+    //Marks the nights of the reservation as taken.
+    public void occupy(Reservation reservation) {
+        occupy(reservation.getRoomNumber(), reservation.getDateTime().toEpochDay(), reservation.getNights(),
+                reservation.getCustomerName(), reservation.getGuestCount());
+    }
+
+    //Stores a one-night booking for a free slot.
+    public void occupy(int roomNumber, long epochDay, String customerName, int guestCount) {
+        occupy(roomNumber, epochDay, 1, customerName, guestCount);
+    }
+
+    //Stores and publishes a stay whose nights are all free.
+    public void occupy(int roomNumber, long checkIn, int nights, String customerName, int guestCount) {
+        occupy(roomNumber, checkIn, nights, dictionary.intern(customerName), guestCount);
+    }
+
+    //Same for a customer already encoded by the dictionary.
+    public void occupy(int roomNumber, long checkIn, int nights, int customerId, int guestCount) {
+        insert(roomNumber, checkIn, nights, customerId, guestCount, false);
+        publish(roomNumber);
+    }
+
+    //Stores a stay without publishing it: readers do not see it until publish(...) is called for its room.
+    //Writers still do, through hasConflict. Used to make a batch visible all at once.
+    public void stage(int roomNumber, long checkIn, int nights, int customerId, int guestCount) {
+        insert(roomNumber, checkIn, nights, customerId, guestCount, true);
+    }
+
+    private void insert(int roomNumber, long checkIn, int nights, int customerId, int guestCount, boolean batch) {
+        RoomTable table = table(roomNumber, checkIn);
+        if (table == null) {
+            throw new IndexOutOfBoundsException("Room number must be selected between 101-199 (101 and 199 included).");
+        }
+        if (nights < 1 || nights > Short.MAX_VALUE || checkIn + nights - 1 != (int) (checkIn + nights - 1)) {
+            throw new IllegalArgumentException("A stay must be between 1 and " + Short.MAX_VALUE + " nights.");
+        }
+        if (batch) {markStaged(roomNumber);}
+        rooms[roomNumber - OccupancyCalendar.FIRST_ROOM] = table.insert((int) checkIn, nights, customerId, guestCount);
+        for (long day = checkIn; day < checkIn + nights; day++) {
+            calendar.occupy(roomNumber, day);
+        }
+    }
+
+    //Stages the stays from..to-1 of the columns in one room at once, for bulk imports. They must be sorted by
+    //check-in, fit the int day range, end inside the calendar window (see isBeyondWindow) and overlap neither
+    //each other nor anything taken in the room.
+    public void stageAll(int roomNumber, int[] checkIns, short[] nights, byte[] guestCounts, int[] customerIds,
+                         int from, int to) {
+        RoomTable table = table(roomNumber, 0);
+        if (table == null) {
+            throw new IndexOutOfBoundsException("Room number must be selected between 101-199 (101 and 199 included).");
+        }
+        markStaged(roomNumber);
+        rooms[roomNumber - OccupancyCalendar.FIRST_ROOM] = table.insertAll(checkIns, nights, guestCounts, customerIds, from, to);
+        long today = calendar.getTodayEpochDay();
+        for (int i = from; i < to; i++) {
+            long checkIn = checkIns[i];
+            if (checkIn + nights[i] <= today) {continue;}   //Historical stays are outside the calendar.
+            for (long day = checkIn; day < checkIn + nights[i]; day++) {
+                calendar.occupy(roomNumber, day);
+            }
+        }
+    }
+
+    //Publishes the latest tables of the rooms in one new view. The caller holds the locks of these rooms;
+    //publishers of other rooms may race, each retries on top of the other's view.
+    public void publish(int... roomNumbers) {
+        ReservationView current;
+        do {
+            current = view.get();
+        } while (!view.compareAndSet(current, current.with(rooms, roomNumbers)));
+        for (int roomNumber : roomNumbers) {
+            int i = roomNumber - OccupancyCalendar.FIRST_ROOM;
+            if (staged[i]) {
+                staged[i] = false;
+                stagedRooms.decrementAndGet();
+            }
+        }
+    }
+
+    //Counts the room as staged before its first night is taken, see calendarStamp.
+    private void markStaged(int roomNumber) {
+        int i = roomNumber - OccupancyCalendar.FIRST_ROOM;
+        if (!staged[i]) {
+            staged[i] = true;
+            stagedRooms.incrementAndGet();
+        }
+        stages.incrementAndGet();
+    }
+
+    //Takes the nights of a tentative hold in the calendars only; nothing is stored until the hold is confirmed.
+    //Holds are limited to the bookable window, which the calendars always cover, so hasConflict sees them.
+    //Returns false, taking nothing, if a night is outside the window or already taken.
+    public boolean hold(int roomNumber, long checkIn, int nights) {
+        for (long day = checkIn; day < checkIn + nights; day++) {
+            if (!calendar.occupy(roomNumber, day)) {
+                releaseHold(roomNumber, checkIn, (int) (day - checkIn));
+                return false;
+            }
+            holds.occupy(roomNumber, day);
+        }
+        return true;
+    }
+
+    //Gives the nights of an unconfirmed hold back.
+    public void releaseHold(int roomNumber, long checkIn, int nights) {
+        for (long day = checkIn; day < checkIn + nights; day++) {
+            holds.release(roomNumber, day);
+            calendar.release(roomNumber, day);
+        }
+    }
+
+    //Ends a hold whose stay has been stored and published: its nights stay taken, as nights of the stay.
+    public void confirmHold(int roomNumber, long checkIn, int nights) {
+        for (long day = checkIn; day < checkIn + nights; day++) {
+            holds.release(roomNumber, day);
+        }
+    }
+
+    //Frees every night of the stay checking in on the date.
+    public void release(int roomNumber, LocalDate checkIn) {
+        long epochDay = checkIn.toEpochDay();
+        RoomTable table = table(roomNumber, epochDay);
+        int nights = table == null ? 0 : table.nightsOf((int) epochDay);
+        if (nights == 0) {return;}
+        rooms[roomNumber - OccupancyCalendar.FIRST_ROOM] = table.remove((int) epochDay);
+        publish(roomNumber);
+        for (long day = epochDay; day < epochDay + nights; day++) {
+            calendar.release(roomNumber, day);
+        }
+    }
+
+    //Reads below answer from the published view at the time of the call.
+
+    //All reservations in (room, date) order, built lazily one at a time.
+    public Stream<Reservation> all() {
+        return view.get().all();
+    }
+
+    //Stays of the room with a night between the two epoch-days (both included), by date.
+    public Stream<Reservation> roomRange(int roomNumber, long fromDay, long toDay) {
+        return view.get().roomRange(roomNumber, fromDay, toDay);
+    }
+
+    //Up to limit reservations following the cursor (a slot key) in (room, date) order.
+    public ReservationPage page(long cursor, int limit) {
+        return view.get().page(cursor, limit);
+    }
+
+    //Number of published stays.
+    public int size() {
+        return view.get().size();
+    }
 }
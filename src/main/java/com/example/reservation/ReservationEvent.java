@@ -0,0 +1,58 @@
+package com.example.reservation;
+
+import java.time.LocalDate;
+
+//One change of a ReservationService, as published on its ChangeFeed. Immutable; the sequence number orders
+//all changes of the service and is what a subscriber resumes from.
+public class ReservationEvent {
+    public enum Type {
+        ADDED,          //A reservation or stay was booked (also a confirmed hold).
+        CANCELLED       //It was cancelled.
+    }
+
+    private final long sequence;
+    private final Type type;
+    private final String customerName;
+    private final LocalDate checkIn;
+    private final int nights;
+    private final int roomNumber;
+    private final int guestCount;
+
+    ReservationEvent(long sequence, Type type, String customerName, LocalDate checkIn, int nights, int roomNumber,
+                     int guestCount) {
+        this.sequence = sequence;
+        this.type = type;
+        this.customerName = customerName;
+        this.checkIn = checkIn;
+        this.nights = nights;
+        this.roomNumber = roomNumber;
+        this.guestCount = guestCount;
+    }
+
+    //Return functions
+    public long getSequence() { return sequence; }
+    public Type getType() { return type; }
+    public String getCustomerName() { return customerName; }
+    public LocalDate getCheckIn() { return checkIn; }
+    public int getNights() { return nights; }
+    public int getRoomNumber() { return roomNumber; }
+    public int getGuestCount() { return guestCount; }
+
+    //The reservation added or cancelled.
+    public Reservation getReservation() {
+        return new Reservation(customerName, checkIn, checkIn.plusDays(nights), roomNumber, guestCount);
+    }
+
+    @Override
+    public String toString() {
+        return ("ReservationEvent {" +
+                "sequence="        + sequence +
+                ", type="          + type +
+                ", customerName='" + customerName + '\'' +
+                ", checkIn="       + checkIn +
+                ", nights="        + nights +
+                ", roomNumber="    + roomNumber +
+                ", guestCount="    + guestCount +
+                "}");
+    }
+}
@@ -0,0 +1,198 @@
+package com.example.reservation;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.Month;
+import java.time.Year;
+import java.time.format.DateTimeParseException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+
+//JDK-only HTTP front end for a ReservationService. Every request runs on its own virtual thread, so a blocked
+//request costs a few hundred bytes instead of a platform thread.
+//  POST   /reservations?name=..&date=yyyy-mm-dd&room=..&guests=..   201 booked, 409 slot taken or date not bookable
+//  DELETE /reservations?name=..&date=..&room=..&guests=..           200 cancelled, 404 no such reservation
+//  GET    /reservations?name=..&room=..                             200 reservation, 404 none
+//  GET    /metrics                                                  200 text snapshot of ReservationMetrics
+//Invalid input is 400, any other failure 500. Admission control: at most maxInFlight requests run at once,
+//anything beyond that is answered 503 with Retry-After right away instead of queueing behind the others.
+public class ReservationHttpServer implements Closeable {
+    private final ReservationService reservationService;
+    private final HttpServer server;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    final Semaphore admission;   //Package-private so tests can simulate overload.
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger peakInFlight = new AtomicInteger();
+    private final AtomicInteger rejected = new AtomicInteger();
+
+    //Binds to the port (0 picks a free one). backlog is the accept queue length of the socket, 0 for the default.
+    public ReservationHttpServer(ReservationService reservationService, InetSocketAddress address, int backlog,
+                                 int maxInFlight) throws IOException {
+        if (maxInFlight < 1) {
+            throw new IllegalArgumentException("At least one request must be allowed in flight.");
+        }
+        this.reservationService = reservationService;
+        this.admission = new Semaphore(maxInFlight);
+        this.server = HttpServer.create(address, backlog);
+        server.setExecutor(executor);
+        server.createContext("/reservations", this::handle);
+        server.createContext("/metrics", this::metrics);
+    }
+
+    public void start() {
+        server.start();
+    }
+
+    public int getPort() { return server.getAddress().getPort(); }
+    public int getInFlight() { return inFlight.get(); }
+    public int getPeakInFlight() { return peakInFlight.get(); }
+    public int getRejected() { return rejected.get(); }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        if (!admission.tryAcquire()) {
+            rejected.incrementAndGet();
+            exchange.getResponseHeaders().set("Retry-After", "1");
+            respond(exchange, 503, "overloaded");
+            return;
+        }
+        int running = inFlight.incrementAndGet();
+        peakInFlight.accumulateAndGet(running, Math::max);
+        try {
+            dispatch(exchange);
+        } finally {
+            inFlight.decrementAndGet();
+            admission.release();
+        }
+    }
+
+    //Not behind admission control, so metrics can still be scraped while the server is overloaded.
+    private void metrics(HttpExchange exchange) throws IOException {
+        if (!exchange.getRequestMethod().equals("GET")) {
+            exchange.getResponseHeaders().set("Allow", "GET");
+            respond(exchange, 405, "method not allowed");
+            return;
+        }
+        respond(exchange, 200, reservationService.getMetrics().getSnapshot());
+    }
+
+    private void dispatch(HttpExchange exchange) throws IOException {
+        try {
+            //A malformed % escape is an IllegalArgumentException from URLDecoder, a bad request like the rest.
+            Map<String, String> query = parseQuery(exchange.getRequestURI().getRawQuery());
+            switch (exchange.getRequestMethod()) {
+                case "POST" -> {
+                    //The result path: junk input from bots, malformed values included, is answered without
+                    //creating exceptions.
+                    String name = query.get("name");
+                    LocalDate date = parseDate(query.get("date"));
+                    int room = parseNumber(query.get("room"));
+                    int guests = parseNumber(query.get("guests"));
+                    if (name == null || date == null || room < 0 || guests < 0) {
+                        respond(exchange, 400, "name, date (yyyy-mm-dd), room and guests (numbers) must be given");
+                        return;
+                    }
+                    switch (reservationService.tryAddReservation(name, date, room, guests)) {
+                        case OK -> respond(exchange, 201, "booked");
+                        case PAST_DATE, TOO_FAR, CONFLICT -> respond(exchange, 409, "not available");
+                        case NULL_FIELD -> respond(exchange, 400, "name, date, room and guests must be given");
+                        case BAD_ROOM -> respond(exchange, 400, reservationService.getValidationRules().getRoomMessage());
+                        case BAD_GUESTS -> respond(exchange, 400, reservationService.getValidationRules().getGuestMessage());
+                    }
+                }
+                case "DELETE" -> {
+                    boolean cancelled = reservationService.cancelReservation(query.get("name"), date(query),
+                            integer(query, "room"), integer(query, "guests"));
+                    respond(exchange, cancelled ? 200 : 404, cancelled ? "cancelled" : "not found");
+                }
+                case "GET" -> {
+                    Reservation reservation = reservationService.findReservation(query.get("name"), integer(query, "room"));
+                    respond(exchange, reservation != null ? 200 : 404, reservation != null ? reservation.toString() : "not found");
+                }
+                default -> {
+                    exchange.getResponseHeaders().set("Allow", "GET, POST, DELETE");
+                    respond(exchange, 405, "method not allowed");
+                }
+            }
+        } catch (IllegalArgumentException | IndexOutOfBoundsException | DateTimeParseException e) {
+            respond(exchange, 400, e.getMessage());
+        } catch (RuntimeException e) {
+            //Any other failure, e.g. an UncheckedIOException from the log, still gets an answer.
+            respond(exchange, 500, "internal error");
+        }
+    }
+
+    private static LocalDate date(Map<String, String> query) {
+        String date = query.get("date");
+        return date == null ? null : LocalDate.parse(date);
+    }
+
+    //NumberFormatException is an IllegalArgumentException, so bad numbers end up as 400.
+    private static Integer integer(Map<String, String> query, String name) {
+        String value = query.get(name);
+        return value == null ? null : Integer.valueOf(value);
+    }
+
+    //The yyyy-mm-dd date, or null if it is missing or malformed.
+    private static LocalDate parseDate(String value) {
+        if (value == null || value.length() != 10 || value.charAt(4) != '-' || value.charAt(7) != '-') {return null;}
+        int year = parseNumber(value.substring(0, 4));
+        int month = parseNumber(value.substring(5, 7));
+        int day = parseNumber(value.substring(8, 10));
+        if (year < 0 || month < 1 || month > 12 || day < 1 || day > Month.of(month).length(Year.isLeap(year))) {
+            return null;
+        }
+        return LocalDate.of(year, month, day);
+    }
+
+    //Non-negative decimal of at most 9 digits, or -1 if the value is missing or malformed.
+    private static int parseNumber(String value) {
+        if (value == null || value.isEmpty() || value.length() > 9) {return -1;}
+        int number = 0;
+        for (int i = 0; i < value.length(); i++) {
+            int digit = value.charAt(i) - '0';
+            if (digit < 0 || digit > 9) {return -1;}
+            number = number * 10 + digit;
+        }
+        return number;
+    }
+
+    private static Map<String, String> parseQuery(String rawQuery) {
+        Map<String, String> query = new HashMap<>();
+        if (rawQuery == null) {return query;}
+        for (String pair : rawQuery.split("&")) {
+            int equals = pair.indexOf('=');
+            if (equals <= 0) {continue;}
+            query.put(URLDecoder.decode(pair.substring(0, equals), StandardCharsets.UTF_8),
+                    URLDecoder.decode(pair.substring(equals + 1), StandardCharsets.UTF_8));
+        }
+        return query;
+    }
+
+    private static void respond(HttpExchange exchange, int status, String body) throws IOException {
+        byte[] bytes = (body + "\n").getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "text/plain; charset=utf-8");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    //Stops accepting, gives running requests up to a second to finish, then stops the virtual threads.
+    @Override
+    public void close() {
+        server.stop(1);
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,407 @@
+package com.example.reservation;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+//Bulk load of existing bookings into a ReservationService, e.g. the history of a property being migrated.
+//A pipeline of three stages:
+//  parse   the file is memory-mapped in chunks of CHUNK_BYTES split at line starts; parser threads turn each chunk
+//          into primitive columns, check every row against the service's ValidationRules and look the names up
+//  apply   the calling thread is the single writer: it hands the parsed chunks to the service in file order, which
+//          checks conflicts and merges each chunk room by room into one new view (ReservationService.importBatch);
+//          names new to the dictionary are interned here, for the rows that are stored only
+//  reject  rows that are malformed, break the rules or conflict are written to the reject file as
+//          "line,reason,row"; the rest of the file still loads
+//At most two chunks per parser thread are in flight, so memory stays flat whatever the file size.
+//Dates are not checked against the booking window, history is the point. Future stays must still end inside the
+//occupancy calendar's window: the calendar only clears days as it rolls forward, it never loads the days that
+//enter it, so a later night would be free to every conflict check. Imported stays are logged when the service
+//is durable and published on its change feed like any other booking.
+//CSV rows: customerName,checkIn (yyyy-MM-dd),roomNumber,guestCount[,nights]. Names cannot contain commas;
+//a first line starting with "customerName" is a header.
+public class ReservationImporter {
+    public static final int CHUNK_BYTES = 4 << 20;
+    public static final int MAX_LINE_BYTES = 64 << 10;
+    static final int SNAPSHOT_BATCH_ROWS = 1 << 16;
+    private static final byte[] HEADER = "customerName".getBytes(StandardCharsets.US_ASCII);
+    private static final AtomicInteger NEXT_POOL = new AtomicInteger();
+
+    private final ReservationService service;
+    private final int parserThreads;
+
+    public ReservationImporter(ReservationService service) {
+        this(service, Runtime.getRuntime().availableProcessors());
+    }
+
+    public ReservationImporter(ReservationService service, int parserThreads) {
+        if (service == null || parserThreads < 1) {
+            throw new IllegalArgumentException("A service and at least one parser thread must be given.");
+        }
+        this.service = service;
+        this.parserThreads = parserThreads;
+    }
+
+    //Rows of one chunk as primitive columns. Parser threads fill it, the writer marks conflicts and stores the rest.
+    static final class Batch {
+        static final byte OK = -1;
+
+        final ByteBuffer source;   //Mapped chunk holding the raw lines, null for rows that did not come from text
+        final long firstLine;      //Line number of line 0 of the chunk, set by the writer; 0 until then
+        int lines;                 //Lines of the chunk, blank and header lines included
+        int size;
+        int[] line = new int[1024];          //Line index inside the chunk
+        int[] start = new int[1024];         //Raw row in source
+        int[] length = new int[1024];
+        byte[] status = new byte[1024];      //OK or a Reject ordinal
+        int[] days = new int[1024];
+        short[] rooms = new short[1024];
+        byte[] guests = new byte[1024];
+        short[] nights = new short[1024];
+        int[] customers = new int[1024];     //CustomerDictionary ids, UNKNOWN for malformed rows and new names
+        String[] names = new String[1024];   //Names not in the dictionary yet, interned if the row is stored
+        final Map<Integer, String> text = new HashMap<>();   //Invalid rows without a source, as reject file rows
+
+        Batch(ByteBuffer source, long firstLine) {
+            this.source = source;
+            this.firstLine = firstLine;
+        }
+
+        //Appends a row and returns its index.
+        int add(int lineIndex, int rowStart, int rowLength) {
+            if (size == line.length) {
+                int capacity = size * 2;
+                line = Arrays.copyOf(line, capacity);
+                start = Arrays.copyOf(start, capacity);
+                length = Arrays.copyOf(length, capacity);
+                status = Arrays.copyOf(status, capacity);
+                days = Arrays.copyOf(days, capacity);
+                rooms = Arrays.copyOf(rooms, capacity);
+                guests = Arrays.copyOf(guests, capacity);
+                nights = Arrays.copyOf(nights, capacity);
+                customers = Arrays.copyOf(customers, capacity);
+                names = Arrays.copyOf(names, capacity);
+            }
+            line[size] = lineIndex;
+            start[size] = rowStart;
+            length[size] = rowLength;
+            status[size] = (byte) ImportResult.Reject.MALFORMED.ordinal();
+            customers[size] = CustomerDictionary.UNKNOWN;
+            return size++;
+        }
+
+        void reject(int row, ImportResult.Reject reason) {
+            status[row] = (byte) reason.ordinal();
+        }
+
+        //Sets the customer of a valid row: its id if the name is known, else the name itself, so a row that is
+        //rejected later as a conflict never adds its name to the dictionary.
+        void setCustomer(int row, String name, CustomerDictionary dictionary) {
+            customers[row] = dictionary.idOf(name);
+            if (customers[row] == CustomerDictionary.UNKNOWN) {names[row] = name;}
+        }
+
+        //Id of the customer of a row being stored, interning a new name. Writer only.
+        int internCustomer(int row, CustomerDictionary dictionary) {
+            if (customers[row] == CustomerDictionary.UNKNOWN) {
+                customers[row] = dictionary.intern(names[row]);
+                names[row] = null;
+            }
+            return customers[row];
+        }
+
+        String customerName(int row, CustomerDictionary dictionary) {
+            return customers[row] == CustomerDictionary.UNKNOWN ? names[row] : dictionary.nameOf(customers[row]);
+        }
+    }
+
+    //Loads a CSV file. rejectFile receives the rows that were not stored (replaced if it exists).
+    public ImportResult importCsv(Path csv, Path rejectFile) throws IOException {
+        long started = System.nanoTime();
+        ImportResult result = new ImportResult();
+        ValidationRules rules = service.getValidationRules();
+        CustomerDictionary dictionary = service.customerDictionary();
+        ExecutorService parsers = newParserPool();
+        try (FileChannel channel = FileChannel.open(csv, StandardOpenOption.READ);
+             RejectWriter rejects = new RejectWriter(rejectFile)) {
+            long size = channel.size();
+            Deque<Future<Batch>> inFlight = new ArrayDeque<>();
+            long nextChunk = 0;
+            long linesBefore = 0;
+            while (nextChunk < size || !inFlight.isEmpty()) {
+                while (nextChunk < size && inFlight.size() < 2 * parserThreads) {
+                    long from = nextChunk;
+                    long to = Math.min(size, from + CHUNK_BYTES);
+                    inFlight.add(parsers.submit(() -> parse(channel, size, from, to, rules, dictionary)));
+                    nextChunk = to;
+                }
+                Batch batch = await(inFlight.poll());
+                apply(batch, linesBefore, result, rejects);
+                linesBefore += batch.lines;
+            }
+        } finally {
+            parsers.shutdownNow();
+        }
+        result.setElapsedNanos(System.nanoTime() - started);
+        return result;
+    }
+
+    //Loads a ReservationSnapshot file, e.g. one written by another property's service. Reading the columnar
+    //snapshot is sequential, so rows are validated on this thread and applied in batches of SNAPSHOT_BATCH_ROWS.
+    public ImportResult importSnapshot(Path snapshot, Path rejectFile) throws IOException {
+        long started = System.nanoTime();
+        ImportResult result = new ImportResult();
+        ValidationRules rules = service.getValidationRules();
+        CustomerDictionary dictionary = service.customerDictionary();
+        try (RejectWriter rejects = new RejectWriter(rejectFile)) {
+            Batch[] batch = {new Batch(null, 1)};
+            long[] rowsBefore = {0};
+            ReservationSnapshot.load(snapshot, new ReservationLog.Handler() {
+                @Override
+                public void add(String customerName, LocalDate date, int roomNumber, int guestCount) {
+                    addStay(customerName, date, 1, roomNumber, guestCount);
+                }
+
+                @Override
+                public void addStay(String customerName, LocalDate checkIn, int nights, int roomNumber, int guestCount) {
+                    Batch current = batch[0];
+                    int row = current.add(current.lines++, 0, 0);
+                    //Invalid rows are not looked up, the writer interns the names of the rows it stores.
+                    if (validate(current, row, checkIn.toEpochDay(), nights, roomNumber, guestCount, rules)) {
+                        current.setCustomer(row, customerName, dictionary);
+                    } else {
+                        current.text.put(row, customerName + "," + checkIn + "," + roomNumber + "," + guestCount + "," + nights);
+                    }
+                    if (current.size == SNAPSHOT_BATCH_ROWS) {
+                        try {
+                            apply(current, 0, result, rejects);
+                        } catch (IOException e) {
+                            throw new UncheckedIOException(e);
+                        }
+                        rowsBefore[0] += current.lines;
+                        batch[0] = new Batch(null, rowsBefore[0] + 1);
+                    }
+                }
+
+                @Override
+                public void cancel(String customerName, LocalDate date, int roomNumber, int guestCount) {
+                    //ReservationSnapshot.write never writes one, so the file is not a snapshot or it is damaged.
+                    throw new IllegalStateException("Snapshot " + snapshot + " is corrupt: it holds a cancellation.");
+                }
+            });
+            apply(batch[0], 0, result, rejects);
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        result.setElapsedNanos(System.nanoTime() - started);
+        return result;
+    }
+
+    private ExecutorService newParserPool() {
+        int pool = NEXT_POOL.incrementAndGet();
+        AtomicInteger nextThread = new AtomicInteger();
+        return Executors.newFixedThreadPool(parserThreads, task -> {
+            Thread thread = new Thread(task, "reservation-import-" + pool + "-" + nextThread.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    private static Batch await(Future<Batch> parsed) throws IOException {
+        try {
+            return parsed.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Import was interrupted.", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException io) {throw io;}
+            if (e.getCause() instanceof UncheckedIOException io) {throw io.getCause();}
+            throw new IllegalStateException("Import parser failed.", e.getCause());
+        }
+    }
+
+    //Single-writer stage: stores the batch, then counts it and writes its rejects in file order.
+    private void apply(Batch batch, long linesBefore, ImportResult result, RejectWriter rejects) throws IOException {
+        result.addImported(service.importBatch(batch));
+        result.addRows(batch.size);
+        ImportResult.Reject[] reasons = ImportResult.Reject.values();
+        for (int row = 0; row < batch.size; row++) {
+            if (batch.status[row] != Batch.OK) {
+                ImportResult.Reject reason = reasons[batch.status[row]];
+                result.addRejected(reason);
+                rejects.write(linesBefore + batch.firstLine + batch.line[row], reason, batch, row,
+                        service.customerDictionary());
+            }
+        }
+    }
+
+    //Parse stage for the lines starting in [from, to) of the file. A line starting before to is read to its end.
+    static Batch parse(FileChannel channel, long fileSize, long from, long to, ValidationRules rules,
+                       CustomerDictionary dictionary) throws IOException {
+        long mapFrom = Math.max(0, from - 1);
+        long mapTo = Math.min(fileSize, to + MAX_LINE_BYTES);
+        MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, mapFrom, mapTo - mapFrom);
+        Batch batch = new Batch(buffer, 1);
+        int end = (int) (to - mapFrom);
+        int position = (int) (from - mapFrom);
+        if (from > 0 && buffer.get(0) != '\n') {
+            //The first line started in the previous chunk, which reads it.
+            while (position < buffer.limit() && buffer.get(position) != '\n') {position++;}
+            position++;
+        }
+        while (position < end) {
+            int lineEnd = position;
+            while (lineEnd < buffer.limit() && buffer.get(lineEnd) != '\n') {lineEnd++;}
+            int lineIndex = batch.lines++;
+            boolean complete = lineEnd < buffer.limit() || mapTo == fileSize;
+            int contentEnd = lineEnd > position && buffer.get(lineEnd - 1) == '\r' ? lineEnd - 1 : lineEnd;
+            if (!complete || contentEnd - position > MAX_LINE_BYTES) {
+                batch.add(lineIndex, position, Math.min(contentEnd - position, 256));   //MALFORMED, cut short
+                if (!complete) {break;}   //No other line starts in this chunk, the next chunk skips the rest.
+            } else if (contentEnd > position && !(from == 0 && lineIndex == 0 && startsWith(buffer, position, HEADER))) {
+                parseRow(batch, lineIndex, buffer, position, contentEnd, rules, dictionary);
+            }
+            position = lineEnd + 1;
+        }
+        return batch;
+    }
+
+    private static void parseRow(Batch batch, int lineIndex, ByteBuffer buffer, int from, int to, ValidationRules rules,
+                                 CustomerDictionary dictionary) {
+        int row = batch.add(lineIndex, from, to - from);
+        int nameEnd = indexOf(buffer, from, to, (byte) ',');
+        int dateEnd = indexOf(buffer, nameEnd + 1, to, (byte) ',');
+        int roomEnd = indexOf(buffer, dateEnd + 1, to, (byte) ',');
+        int guestsEnd = indexOf(buffer, roomEnd + 1, to, (byte) ',');
+        if (nameEnd == from || roomEnd >= to || dateEnd - nameEnd != 11) {return;}
+        long day = parseDate(buffer, nameEnd + 1);
+        int room = parseInt(buffer, dateEnd + 1, roomEnd);
+        int guests = parseInt(buffer, roomEnd + 1, guestsEnd);
+        int nights = guestsEnd < to ? parseInt(buffer, guestsEnd + 1, to) : 1;
+        if (day == Long.MIN_VALUE || room < 0 || guests < 0 || nights < 0) {return;}
+
+        byte[] name = new byte[nameEnd - from];
+        buffer.get(from, name);
+        if (validate(batch, row, day, nights, room, guests, rules)) {
+            batch.setCustomer(row, new String(name, StandardCharsets.UTF_8), dictionary);
+        }
+    }
+
+    //Checks the row against the rules and fills its columns. Returns false and leaves the reason if it is invalid.
+    private static boolean validate(Batch batch, int row, long day, int nights, int room, int guests,
+                                    ValidationRules rules) {
+        if (nights < 1 || nights > Short.MAX_VALUE || day < Integer.MIN_VALUE || day + nights - 1 > Integer.MAX_VALUE) {
+            batch.reject(row, ImportResult.Reject.MALFORMED);
+            return false;
+        }
+        if (!rules.isValidRoom(room)) {
+            batch.reject(row, ImportResult.Reject.BAD_ROOM);
+            return false;
+        }
+        if (!rules.isValidGuestCount(room, guests)) {
+            batch.reject(row, ImportResult.Reject.BAD_GUESTS);
+            return false;
+        }
+        batch.days[row] = (int) day;
+        batch.rooms[row] = (short) room;
+        batch.guests[row] = (byte) guests;
+        batch.nights[row] = (short) nights;
+        batch.status[row] = Batch.OK;
+        return true;
+    }
+
+    private static int indexOf(ByteBuffer buffer, int from, int to, byte value) {
+        for (int i = from; i < to; i++) {
+            if (buffer.get(i) == value) {return i;}
+        }
+        return to;
+    }
+
+    private static boolean startsWith(ByteBuffer buffer, int from, byte[] prefix) {
+        if (buffer.limit() - from < prefix.length) {return false;}
+        for (int i = 0; i < prefix.length; i++) {
+            if (buffer.get(from + i) != prefix[i]) {return false;}
+        }
+        return true;
+    }
+
+    //Non-negative decimal of at most 9 digits, or -1.
+    private static int parseInt(ByteBuffer buffer, int from, int to) {
+        if (from >= to || to - from > 9) {return -1;}
+        int value = 0;
+        for (int i = from; i < to; i++) {
+            int digit = buffer.get(i) - '0';
+            if (digit < 0 || digit > 9) {return -1;}
+            value = value * 10 + digit;
+        }
+        return value;
+    }
+
+    //Epoch-day of a yyyy-MM-dd date at the position, or Long.MIN_VALUE.
+    private static long parseDate(ByteBuffer buffer, int from) {
+        int year = parseInt(buffer, from, from + 4);
+        int month = parseInt(buffer, from + 5, from + 7);
+        int day = parseInt(buffer, from + 8, from + 10);
+        if (year < 0 || month < 0 || day < 0 || buffer.get(from + 4) != '-' || buffer.get(from + 7) != '-') {
+            return Long.MIN_VALUE;
+        }
+        try {
+            return LocalDate.of(year, month, day).toEpochDay();
+        } catch (DateTimeException e) {
+            return Long.MIN_VALUE;
+        }
+    }
+
+    //Reject file: "line,reason,row" per rejected row, in file order.
+    private static final class RejectWriter implements Closeable {
+        private final OutputStream out;
+
+        RejectWriter(Path file) throws IOException {
+            out = new BufferedOutputStream(Files.newOutputStream(file), 1 << 16);
+            out.write("line,reason,row\n".getBytes(StandardCharsets.US_ASCII));
+        }
+
+        void write(long lineNumber, ImportResult.Reject reason, Batch batch, int row, CustomerDictionary dictionary)
+                throws IOException {
+            out.write((lineNumber + "," + reason + ",").getBytes(StandardCharsets.US_ASCII));
+            if (batch.source != null) {
+                byte[] raw = new byte[batch.length[row]];
+                batch.source.get(batch.start[row], raw);
+                out.write(raw);
+            } else if (batch.text.containsKey(row)) {
+                out.write(batch.text.get(row).getBytes(StandardCharsets.UTF_8));
+            } else {
+                out.write((batch.customerName(row, dictionary) + "," + LocalDate.ofEpochDay(batch.days[row]) + "," +
+                        batch.rooms[row] + "," + batch.guests[row] + "," + batch.nights[row])
+                        .getBytes(StandardCharsets.UTF_8));
+            }
+            out.write('\n');
+        }
+
+        @Override
+        public void close() throws IOException {
+            out.close();
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package com.example.reservation;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.StampedLock;
+
+//Secondary index next to the per-room tables of ReservationConflictChecker: the bookings of each customer
+//as a sorted long[] of slot keys (room, date), so "first booking of this customer in this room" is one
+//binary search. Customers are CustomerDictionary ids, so an entry is found by array index instead of hashing
+//and comparing names. An emptied entry stays and is reused if the customer books again.
+//Writers for one room are serialized by ReservationService; the index itself is safe for concurrent use,
+//and lookups take no lock.
+public class ReservationIndexes {
+    private final IdArray<CustomerBookings> byCustomer = new IdArray<>();
+    private final AtomicInteger customersWithBookings = new AtomicInteger();
+
+    //Slot keys of one customer, sorted. Writers take the entry's write lock; readers never lock, they read
+    //optimistically and retry if a writer got in between.
+    private static class CustomerBookings {
+        private final StampedLock lock = new StampedLock();
+        private long[] slots = new long[4];
+        private int size;
+
+        //Returns the number of slots before the add.
+        int add(long slot) {
+            long stamp = lock.writeLock();
+            try {
+                int before = size;
+                int index = Arrays.binarySearch(slots, 0, size, slot);
+                if (index >= 0) {return before;}
+                index = -index - 1;
+                if (size == slots.length) {slots = Arrays.copyOf(slots, size * 2);}
+                System.arraycopy(slots, index, slots, index + 1, size - index);
+                slots[index] = slot;
+                size++;
+                return before;
+            } finally {
+                lock.unlockWrite(stamp);
+            }
+        }
+
+        //Returns true if the slot was the last one.
+        boolean remove(long slot) {
+            long stamp = lock.writeLock();
+            try {
+                int index = Arrays.binarySearch(slots, 0, size, slot);
+                if (index < 0) {return false;}
+                System.arraycopy(slots, index + 1, slots, index, size - index - 1);
+                size--;
+                return size == 0;
+            } finally {
+                lock.unlockWrite(stamp);
+            }
+        }
+        //First slot at or after the key, or -1.
+        long ceiling(long slot) {
+            while (true) {
+                long stamp = lock.tryOptimisticRead();
+                long[] current = slots;
+                int count = Math.min(size, current.length);
+                int index = Arrays.binarySearch(current, 0, count, slot);
+                if (index < 0) {index = -index - 1;}
+                long found = index < count ? current[index] : -1;
+                if (lock.validate(stamp)) {return found;}
+                Thread.onSpinWait();
+            }
+        }
+
+        long[] toArray() {
+            while (true) {
+                long stamp = lock.tryOptimisticRead();
+                long[] current = slots;
+                long[] copy = Arrays.copyOf(current, Math.min(size, current.length));
+                if (lock.validate(stamp)) {return copy;}
+                Thread.onSpinWait();
+            }
+        }
+    }
+
+    //Indexes a booking of the customer.
+    public void add(int customerId, int roomNumber, long epochDay) {
+        CustomerBookings bookings = byCustomer.computeIfAbsent(customerId, id -> new CustomerBookings());
+        if (bookings.add(ReservationConflictChecker.slotKey(roomNumber, epochDay)) == 0) {
+            customersWithBookings.incrementAndGet();
+        }
+    }
+
+    public void remove(int customerId, int roomNumber, long epochDay) {
+        CustomerBookings bookings = byCustomer.get(customerId);
+        if (bookings != null && bookings.remove(ReservationConflictChecker.slotKey(roomNumber, epochDay))) {
+            customersWithBookings.decrementAndGet();
+        }
+    }
+
+    //Slot key of the customer's earliest booking in the room, or -1.
+    public long firstSlot(int customerId, int roomNumber) {
+        return ceilingSlot(customerId, roomNumber, (long) roomNumber << 32);
+    }
+
+    //Slot key of the customer's next booking in the same room after the given slot key, or -1.
+    public long nextSlot(int customerId, long slot) {
+        return ceilingSlot(customerId, ReservationConflictChecker.slotRoom(slot), slot + 1);
+    }
+
+    private long ceilingSlot(int customerId, int roomNumber, long fromSlot) {
+        CustomerBookings bookings = customerId < 0 ? null : byCustomer.get(customerId);
+        if (bookings == null) {return -1;}
+        long slot = bookings.ceiling(fromSlot);
+        return slot >= 0 && ReservationConflictChecker.slotRoom(slot) == roomNumber ? slot : -1;
+    }
+
+    //Slot keys of all bookings of the customer, sorted by room and date.
+    public long[] slots(int customerId) {
+        CustomerBookings bookings = customerId < 0 ? null : byCustomer.get(customerId);
+        return bookings == null ? new long[0] : bookings.toArray();
+    }
+
+    //Number of distinct customers with at least one reservation.
+    public int customerCount() {
+        return customersWithBookings.get();
+    }
+}
@@ -0,0 +1,247 @@
+package com.example.reservation;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.CRC32C;
+
+//Append-only binary write-ahead log of reservation adds and cancels.
+//Record: int payloadLength | int crc32c(payload) | byte type | short room | int epochDay | byte guests | short nameLength | name (UTF-8)
+//ADD_STAY records (stays of more than one night) carry a short nights between guests and nameLength.
+//Appends are buffered and fsynced in groups of groupCommitSize records (1 = every record is durable on return).
+//A group that does not fill up is forced anyway once its first record has waited maxDelay, so a quiet log
+//still reaches the disk without the caller calling sync().
+//Replay reads with large direct buffers and truncates a torn or corrupt tail left by a crash.
+public class ReservationLog implements Closeable {
+    public static final byte ADD = 1;
+    public static final byte CANCEL = 2;
+    public static final byte ADD_STAY = 3;
+
+    static final int HEADER_BYTES = 8;
+    static final int FIXED_PAYLOAD_BYTES = 1 + 2 + 4 + 1 + 2;
+    static final int MAX_NAME_BYTES = Short.MAX_VALUE;
+    private static final int BUFFER_BYTES = 8 << 20;
+
+    //Longest a record waits in a partly filled group by default.
+    public static final Duration DEFAULT_MAX_DELAY = Duration.ofMillis(10);
+
+    //Forces the due groups of every open log, on one daemon thread.
+    private static final ScheduledExecutorService FLUSHER = Executors.newSingleThreadScheduledExecutor(task -> {
+        Thread thread = new Thread(task, "reservation-log-flush");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    //Receives replayed records in log order. Cancels name the stay by its check-in date.
+    public interface Handler {
+        void add(String customerName, LocalDate date, int roomNumber, int guestCount);
+        void cancel(String customerName, LocalDate date, int roomNumber, int guestCount);
+
+        //A stay of the given nights. One-night stays go to add, handlers that keep stays override this.
+        default void addStay(String customerName, LocalDate checkIn, int nights, int roomNumber, int guestCount) {
+            if (nights != 1) {
+                throw new UnsupportedOperationException("Handler does not accept stays of more than one night.");
+            }
+            add(customerName, checkIn, roomNumber, guestCount);
+        }
+    }
+
+    private final FileChannel channel;
+    private final int groupCommitSize;
+    private final ByteBuffer writeBuffer = ByteBuffer.allocateDirect(BUFFER_BYTES);
+    private final long maxDelayNanos;
+    private final CRC32C crc = new CRC32C();
+    private int pendingRecords;
+    private long syncs;                  //Groups forced so far: a due flush finds its group forced already.
+    private IOException flushFailure;    //From a due flush, reported to the next append or sync.
+
+    public ReservationLog(Path file, int groupCommitSize) throws IOException {
+        this(file, groupCommitSize, DEFAULT_MAX_DELAY);
+    }
+
+    public ReservationLog(Path file, int groupCommitSize, Duration maxDelay) throws IOException {
+        if (groupCommitSize < 1) {
+            throw new IllegalArgumentException("Group commit size must be at least 1.");
+        }
+        if (maxDelay == null || maxDelay.isNegative() || maxDelay.isZero()) {
+            throw new IllegalArgumentException("Max delay must be positive.");
+        }
+        this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        this.groupCommitSize = groupCommitSize;
+        this.maxDelayNanos = maxDelay.toNanos();
+        channel.position(channel.size());
+    }
+
+    //Replays every intact record, truncates anything after the last intact one and positions for appending.
+    //Returns the number of replayed records.
+    public synchronized long replay(Handler handler) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_BYTES);
+        byte[] nameBytes = new byte[256];
+        long filePosition = 0;      //Start of the data currently in the buffer.
+        long goodPosition = 0;      //End of the last intact record.
+        long records = 0;
+
+        channel.position(0);
+        while (true) {
+            int read = channel.read(buffer);
+            buffer.flip();
+            while (buffer.remaining() >= HEADER_BYTES) {
+                int start = buffer.position();
+                int length = buffer.getInt(start);
+                if (length < FIXED_PAYLOAD_BYTES || length > FIXED_PAYLOAD_BYTES + 2 + MAX_NAME_BYTES) {
+                    return truncate(goodPosition, records);
+                }
+                if (buffer.remaining() < HEADER_BYTES + length) {break;}
+
+                int expectedCrc = buffer.getInt(start + 4);
+                crc.reset();
+                ByteBuffer payload = buffer.slice(start + HEADER_BYTES, length);
+                crc.update(payload);
+                if ((int) crc.getValue() != expectedCrc) {
+                    return truncate(goodPosition, records);
+                }
+
+                buffer.position(start + HEADER_BYTES);
+                byte type = buffer.get();
+                int room = buffer.getShort();
+                LocalDate date = LocalDate.ofEpochDay(buffer.getInt());
+                int guests = buffer.get();
+                int nights = type == ADD_STAY ? buffer.getShort() : 1;
+                int nameLength = buffer.getShort() & 0xFFFF;
+                if (nameLength != length - FIXED_PAYLOAD_BYTES - (type == ADD_STAY ? 2 : 0) || nights < 1) {
+                    return truncate(goodPosition, records);
+                }
+                if (nameBytes.length < nameLength) {nameBytes = new byte[nameLength];}
+                buffer.get(nameBytes, 0, nameLength);
+                String name = new String(nameBytes, 0, nameLength, StandardCharsets.UTF_8);
+
+                if (type == ADD) {
+                    handler.add(name, date, room, guests);
+                } else if (type == ADD_STAY) {
+                    handler.addStay(name, date, nights, room, guests);
+                } else if (type == CANCEL) {
+                    handler.cancel(name, date, room, guests);
+                } else {
+                    return truncate(goodPosition, records);
+                }
+                records++;
+                goodPosition = filePosition + buffer.position();
+            }
+
+            if (read < 0) {break;}
+            filePosition += buffer.position();
+            buffer.compact();
+            if (!buffer.hasRemaining()) {
+                return truncate(goodPosition, records);   //A record larger than the buffer can only be garbage.
+            }
+        }
+        return truncate(goodPosition, records);
+    }
+
+    private long truncate(long goodPosition, long records) throws IOException {
+        if (channel.size() > goodPosition) {
+            channel.truncate(goodPosition);
+            channel.force(true);
+        }
+        channel.position(goodPosition);
+        return records;
+    }
+
+    public void appendAdd(Reservation reservation) {
+        append(reservation.getNights() == 1 ? ADD : ADD_STAY, reservation);
+    }
+
+    public void appendCancel(Reservation reservation) {
+        append(CANCEL, reservation);
+    }
+
+    private synchronized void append(byte type, Reservation reservation) {
+        byte[] name = reservation.getCustomerName().getBytes(StandardCharsets.UTF_8);
+        if (name.length > MAX_NAME_BYTES) {
+            throw new IllegalArgumentException("Customer name is too long to be logged.");
+        }
+        int length = FIXED_PAYLOAD_BYTES + (type == ADD_STAY ? 2 : 0) + name.length;
+        if (flushFailure != null) {
+            throw new UncheckedIOException("Reservation log flush failed.", flushFailure);
+        }
+        try {
+            if (writeBuffer.remaining() < HEADER_BYTES + length) {
+                writeOut();
+            }
+            int start = writeBuffer.position();
+            writeBuffer.position(start + HEADER_BYTES);
+            writeBuffer.put(type);
+            writeBuffer.putShort((short) reservation.getRoomNumber().intValue());
+            writeBuffer.putInt((int) reservation.getDateTime().toEpochDay());
+            writeBuffer.put((byte) reservation.getGuestCount().intValue());
+            if (type == ADD_STAY) {writeBuffer.putShort((short) reservation.getNights());}
+            writeBuffer.putShort((short) name.length);
+            writeBuffer.put(name);
+
+            crc.reset();
+            crc.update(writeBuffer.slice(start + HEADER_BYTES, length));
+            writeBuffer.putInt(start, length);
+            writeBuffer.putInt(start + 4, (int) crc.getValue());
+
+            if (++pendingRecords >= groupCommitSize) {
+                sync();
+            } else if (pendingRecords == 1) {
+                long group = syncs;
+                FLUSHER.schedule(() -> flushDue(group), maxDelayNanos, TimeUnit.NANOSECONDS);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Reservation log append failed.", e);
+        }
+    }
+
+    //Writes buffered records and forces them to disk.
+    public synchronized void sync() throws IOException {
+        if (flushFailure != null) {
+            throw new IOException("Reservation log flush failed.", flushFailure);
+        }
+        writeOut();
+        channel.force(false);
+        pendingRecords = 0;
+        syncs++;
+    }
+
+    //Forces the group whose first record was appended after the given number of syncs, unless it was already.
+    private synchronized void flushDue(long group) {
+        if (group != syncs || pendingRecords == 0 || !channel.isOpen()) {return;}
+        try {
+            sync();
+        } catch (IOException e) {
+            flushFailure = e;
+        }
+    }
+
+    private void writeOut() throws IOException {
+        writeBuffer.flip();
+        while (writeBuffer.hasRemaining()) {
+            channel.write(writeBuffer);
+        }
+        writeBuffer.clear();
+    }
+
+    public synchronized long size() throws IOException {
+        return channel.size() + writeBuffer.position();
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (channel.isOpen()) {
+            sync();
+            channel.close();
+        }
+    }
+}
@@ -0,0 +1,209 @@
+package com.example.reservation;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+//Counters, outcome breakdowns and latency histograms of a ReservationService, plus gauges read from the service
+//on demand. Counting is a LongAdder increment, so threads on different cores do not contend.
+//Every call is counted; latency is timed for one call in latencySampleInterval (default 64), which keeps two
+//System.nanoTime() reads off most calls. Exposed through JMX (registerMBean) and as text (getSnapshot).
+public class ReservationMetrics implements ReservationMetricsMBean {
+    static final long OFF = Long.MIN_VALUE;             //Metrics disabled, nothing is recorded.
+    static final long NOT_TIMED = Long.MIN_VALUE + 1;   //Counted, but not sampled for latency.
+
+    private volatile boolean enabled = true;
+    private volatile int sampleMask = 63;
+
+    private final LongAdder[] addOutcomes = new LongAdder[BookingResult.values().length];
+    private final LongAdder cancelled = new LongAdder();
+    private final LongAdder cancelNotFound = new LongAdder();
+    private final LongAdder findHit = new LongAdder();
+    private final LongAdder findMiss = new LongAdder();
+    private final LatencyHistogram addLatency = new LatencyHistogram();
+    private final LatencyHistogram cancelLatency = new LatencyHistogram();
+    private final LatencyHistogram findLatency = new LatencyHistogram();
+
+    private final Gauges gauges;
+    private ObjectName registeredName;
+
+    //Sizes of the store, read when metrics are pulled.
+    public interface Gauges {
+        int reservationCount();
+        int customerCount();
+        int holdCount();
+    }
+
+    public ReservationMetrics(Gauges gauges) {
+        this.gauges = gauges;
+        for (int i = 0; i < addOutcomes.length; i++) {
+            addOutcomes[i] = new LongAdder();
+        }
+    }
+
+    @Override public boolean isEnabled() { return enabled; }
+    @Override public void setEnabled(boolean enabled) { this.enabled = enabled; }
+
+    //Times one call in interval (a power of two); 1 times every call.
+    public void setLatencySampleInterval(int interval) {
+        if (interval < 1 || Integer.bitCount(interval) != 1) {
+            throw new IllegalArgumentException("Sample interval must be a power of two.");
+        }
+        sampleMask = interval - 1;
+    }
+
+    public int getLatencySampleInterval() { return sampleMask + 1; }
+
+    //Start of an operation: OFF, NOT_TIMED or a System.nanoTime() value to pass to the matching record call.
+    long start() {
+        if (!enabled) {return OFF;}
+        return (ThreadLocalRandom.current().nextInt() & sampleMask) == 0 ? System.nanoTime() : NOT_TIMED;
+    }
+
+    void recordAdd(BookingResult result, long start) {
+        if (start == OFF) {return;}
+        addOutcomes[result.ordinal()].increment();
+        if (start != NOT_TIMED) {addLatency.record(System.nanoTime() - start);}
+    }
+
+    void recordCancel(boolean cancelledOne, long start) {
+        if (start == OFF) {return;}
+        (cancelledOne ? cancelled : cancelNotFound).increment();
+        if (start != NOT_TIMED) {cancelLatency.record(System.nanoTime() - start);}
+    }
+
+    void recordFind(boolean found, long start) {
+        if (start == OFF) {return;}
+        (found ? findHit : findMiss).increment();
+        if (start != NOT_TIMED) {findLatency.record(System.nanoTime() - start);}
+    }
+
+    public long getAddCount(BookingResult result) { return addOutcomes[result.ordinal()].sum(); }
+
+    public LatencyHistogram getAddLatency() { return addLatency; }
+    public LatencyHistogram getCancelLatency() { return cancelLatency; }
+    public LatencyHistogram getFindLatency() { return findLatency; }
+
+    @Override
+    public long getAddCount() {
+        long count = 0;
+        for (LongAdder outcome : addOutcomes) {
+            count += outcome.sum();
+        }
+        return count;
+    }
+
+    @Override public long getAddBooked() { return getAddCount(BookingResult.OK); }
+    @Override public long getAddConflict() { return getAddCount(BookingResult.CONFLICT); }
+    @Override public long getAddPastDate() { return getAddCount(BookingResult.PAST_DATE); }
+    @Override public long getAddTooFar() { return getAddCount(BookingResult.TOO_FAR); }
+
+    //Missing fields, bad rooms and bad guest counts.
+    @Override
+    public long getAddInvalid() {
+        return getAddCount(BookingResult.NULL_FIELD) + getAddCount(BookingResult.BAD_ROOM) +
+                getAddCount(BookingResult.BAD_GUESTS);
+    }
+
+    @Override public double getAddLatencyP50Micros() { return micros(addLatency, 50); }
+    @Override public double getAddLatencyP99Micros() { return micros(addLatency, 99); }
+    @Override public double getAddLatencyP999Micros() { return micros(addLatency, 99.9); }
+
+    @Override public long getCancelCount() { return cancelled.sum() + cancelNotFound.sum(); }
+    @Override public long getCancelCancelled() { return cancelled.sum(); }
+    @Override public long getCancelNotFound() { return cancelNotFound.sum(); }
+    @Override public double getCancelLatencyP50Micros() { return micros(cancelLatency, 50); }
+    @Override public double getCancelLatencyP99Micros() { return micros(cancelLatency, 99); }
+
+    @Override public long getFindCount() { return findHit.sum() + findMiss.sum(); }
+    @Override public long getFindHit() { return findHit.sum(); }
+    @Override public long getFindMiss() { return findMiss.sum(); }
+    @Override public double getFindLatencyP50Micros() { return micros(findLatency, 50); }
+    @Override public double getFindLatencyP99Micros() { return micros(findLatency, 99); }
+
+    @Override public int getReservationCount() { return gauges.reservationCount(); }
+    @Override public int getCustomerCount() { return gauges.customerCount(); }
+    @Override public int getHoldCount() { return gauges.holdCount(); }
+
+    private static double micros(LatencyHistogram histogram, double percentile) {
+        return histogram.getValueAtPercentile(percentile) / 1000.0;
+    }
+
+    //Plain-text snapshot, one "name{labels} value" line per series (Prometheus text format without HELP/TYPE).
+    @Override
+    public String getSnapshot() {
+        StringBuilder text = new StringBuilder();
+        for (BookingResult result : BookingResult.values()) {
+            line(text, "reservation_add_total{outcome=\"" + result.name().toLowerCase() + "\"}", getAddCount(result));
+        }
+        line(text, "reservation_cancel_total{outcome=\"cancelled\"}", cancelled.sum());
+        line(text, "reservation_cancel_total{outcome=\"not_found\"}", cancelNotFound.sum());
+        line(text, "reservation_find_total{outcome=\"hit\"}", findHit.sum());
+        line(text, "reservation_find_total{outcome=\"miss\"}", findMiss.sum());
+        latency(text, "add", addLatency);
+        latency(text, "cancel", cancelLatency);
+        latency(text, "find", findLatency);
+        line(text, "reservation_reservations", getReservationCount());
+        line(text, "reservation_customers", getCustomerCount());
+        line(text, "reservation_holds", getHoldCount());
+        return text.toString();
+    }
+
+    private static void latency(StringBuilder text, String operation, LatencyHistogram histogram) {
+        String name = "reservation_" + operation + "_latency_nanos";
+        for (double quantile : new double[] {0.5, 0.9, 0.99, 0.999}) {
+            line(text, name + "{quantile=\"" + quantile + "\"}", histogram.getValueAtPercentile(quantile * 100));
+        }
+        line(text, name + "_count", histogram.getCount());
+        line(text, name + "_mean", histogram.getMeanNanos());
+    }
+
+    private static void line(StringBuilder text, String series, long value) {
+        text.append(series).append(' ').append(value).append('\n');
+    }
+
+    @Override
+    public void reset() {
+        for (LongAdder outcome : addOutcomes) {
+            outcome.reset();
+        }
+        cancelled.reset();
+        cancelNotFound.reset();
+        findHit.reset();
+        findMiss.reset();
+        addLatency.reset();
+        cancelLatency.reset();
+        findLatency.reset();
+    }
+
+    //Registers with the platform MBean server as com.example.reservation:type=ReservationService,name=<name>.
+    public synchronized ObjectName registerMBean(String name) {
+        if (registeredName != null) {
+            throw new IllegalStateException("Already registered as " + registeredName + ".");
+        }
+        try {
+            ObjectName objectName = new ObjectName("com.example.reservation", "type", "ReservationService");
+            objectName = new ObjectName(objectName + ",name=" + ObjectName.quote(name));
+            ManagementFactory.getPlatformMBeanServer().registerMBean(this, objectName);
+            registeredName = objectName;
+            return objectName;
+        } catch (JMException e) {
+            throw new IllegalStateException("Metrics could not be registered as " + name + ".", e);
+        }
+    }
+
+    public synchronized void unregisterMBean() {
+        if (registeredName == null) {return;}
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        try {
+            if (server.isRegistered(registeredName)) {server.unregisterMBean(registeredName);}
+        } catch (JMException e) {
+            throw new IllegalStateException("Metrics could not be unregistered.", e);
+        } finally {
+            registeredName = null;
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.example.reservation;
+
+//JMX view of ReservationMetrics. Latencies are in microseconds.
+public interface ReservationMetricsMBean {
+    boolean isEnabled();
+    void setEnabled(boolean enabled);
+
+    long getAddCount();
+    long getAddBooked();
+    long getAddConflict();
+    long getAddPastDate();
+    long getAddTooFar();
+    long getAddInvalid();
+    double getAddLatencyP50Micros();
+    double getAddLatencyP99Micros();
+    double getAddLatencyP999Micros();
+
+    long getCancelCount();
+    long getCancelCancelled();
+    long getCancelNotFound();
+    double getCancelLatencyP50Micros();
+    double getCancelLatencyP99Micros();
+
+    long getFindCount();
+    long getFindHit();
+    long getFindMiss();
+    double getFindLatencyP50Micros();
+    double getFindLatencyP99Micros();
+
+    int getReservationCount();
+    int getCustomerCount();
+    int getHoldCount();
+
+    String getSnapshot();
+    void reset();
+}
@@ -0,0 +1,22 @@
+package com.example.reservation;
+
+import java.util.List;
+
+//One page of reservations in (room, date) order plus the cursor to pass for the next page.
+public class ReservationPage {
+    public static final long FIRST = 0;    //Cursor of the first page.
+    public static final long END = -1;     //Cursor returned with the last page.
+
+    private final List<Reservation> reservations;
+    private final long nextCursor;
+
+    public ReservationPage(List<Reservation> reservations, long nextCursor) {
+        this.reservations = reservations;
+        this.nextCursor = nextCursor;
+    }
+
+    //Return functions
+    public List<Reservation> getReservations() { return reservations; }
+    public long getNextCursor() { return nextCursor; }
+    public boolean hasNext() { return nextCursor != END; }
+}
@@ -0,0 +1,34 @@
+package com.example.reservation;
+
+import java.time.LocalDate;
+
+//One booking request inside a batch, same fields as addReservation.
+public class ReservationRequest {
+    private final String customerName;
+    private final LocalDate date;
+    private final Integer roomNumber;
+    private final Integer guestCount;
+
+    public ReservationRequest(String customerName, LocalDate date, Integer roomNumber, Integer guestCount) {
+        this.customerName = customerName;
+        this.date = date;
+        this.roomNumber = roomNumber;
+        this.guestCount = guestCount;
+    }
+
+    //Return functions
+    public String getCustomerName() { return customerName; }
+    public LocalDate getDateTime() { return date; }
+    public Integer getRoomNumber() { return roomNumber; }
+    public Integer getGuestCount() { return guestCount; }
+
+    @Override
+    public String toString() {
+        return ("ReservationRequest {" +
+                "customerName='" + customerName + '\'' +
+                ", date="        + date +
+                ", roomNumber='" + roomNumber + '\'' +
+                ", guestCount='" + guestCount + '\'' +
+                "}");
+    }
+}
@@ -1,73 +1,953 @@
 package com.example.reservation;
 
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Duration;
 import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Objects;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
-public class ReservationService {
-    private final List<Reservation> reservations = new ArrayList<>();       //List of reservations
-
+//Thread-safe: bookings for the same room are serialized by that room's lock, different rooms never contend.
+//In-memory by default; open(...) gives a durable service backed by a write-ahead log and snapshots.
+public class ReservationService implements Closeable {
     private final RoomValidatorService validatorService = new RoomValidatorService();
-    private final ReservationConflictChecker conflictChecker = new ReservationConflictChecker();
+    private final BookingWindow window;   //Today and the last bookable day, from the service's clock
+    private final ReservationConflictChecker conflictChecker;   //Holds all reservations
+    private final CustomerDictionary customers = new CustomerDictionary();   //Customer names as int ids
+    private final ReservationIndexes indexes = new ReservationIndexes();   //Lookups by customer and by room
+    private final ReservationMetrics metrics;   //Counters and latencies of add, cancel and find
+    private volatile ChangeFeed changeFeed;      //Add and cancel events, null until opened
+
+    //Lock striping keyed on room number, one lock per room 101-199.
+    private final ReentrantLock[] roomLocks = new ReentrantLock[OccupancyCalendar.ROOM_COUNT];
+
+    //Write-ahead log and snapshots, null when running in memory only.
+    private final ReservationStorage storage;
+    private ScheduledExecutorService snapshotScheduler;
+
+    public static final long NO_HOLD = -1;
+    private final Map<Long, Hold> holds = new ConcurrentHashMap<>();
+    private final AtomicLong nextHoldId = new AtomicLong();
+    private final TimerWheel holdWheel = new TimerWheel(TimeUnit.MILLISECONDS.toNanos(100), 512, System.nanoTime());
+    private ScheduledExecutorService holdTicker;
+
+    //A slot taken for a while before it becomes a reservation.
+    private static class Hold {
+        final long id;
+        final Reservation stay;
+        final long deadlineNanos;
+        TimerWheel.Timeout timeout;
+
+        Hold(long id, Reservation stay, long deadlineNanos) {
+            this.id = id;
+            this.stay = stay;
+            this.deadlineNanos = deadlineNanos;
+        }
+    }
+
+    public ReservationService() {
+        this(Clock.systemDefaultZone());
+    }
+
+    //Service whose dates are validated against the given clock.
+    public ReservationService(Clock clock) {
+        this(null, clock);
+    }
+
+    private ReservationService(ReservationStorage storage, Clock clock) {
+        for (int i = 0; i < roomLocks.length; i++) {
+            roomLocks[i] = new ReentrantLock();
+        }
+        this.storage = storage;
+        this.window = new BookingWindow(clock);
+        this.conflictChecker = new ReservationConflictChecker(window.today(), customers);
+        this.metrics = new ReservationMetrics(new Gauges());
+    }
+
+    //Opens a durable service on a data directory: loads the newest snapshot, replays the log written after it,
+    //then appends every add and cancel to the log.
+    //groupCommitSize is the number of records fsynced together (1 = every change is durable on return); a group
+    //that does not fill up is fsynced ReservationLog.DEFAULT_MAX_DELAY after its first record.
+    public static ReservationService open(Path dataDirectory, int groupCommitSize) throws IOException {
+        return open(dataDirectory, groupCommitSize, Clock.systemDefaultZone());
+    }
+
+    public static ReservationService open(Path dataDirectory, int groupCommitSize, Clock clock) throws IOException {
+        ReservationStorage storage = new ReservationStorage(dataDirectory, groupCommitSize);
+        ReservationService service = new ReservationService(storage, clock);
+        storage.recover(service.new Replay());
+        return service;
+    }
+
+    private class Gauges implements ReservationMetrics.Gauges {
+        @Override public int reservationCount() { return conflictChecker.size(); }
+        @Override public int customerCount() { return indexes.customerCount(); }
+        @Override public int holdCount() { return holds.size(); }
+    }
+
+    //Applies recovered records without date validation, they were valid when they were logged.
+    //Records logged while a snapshot was taken may already be part of it, so both directions are idempotent.
+    private class Replay implements ReservationLog.Handler {
+        @Override
+        public void add(String customerName, LocalDate date, int roomNumber, int guestCount) {
+            addStay(customerName, date, 1, roomNumber, guestCount);
+        }
+
+        @Override
+        public void addStay(String customerName, LocalDate checkIn, int nights, int roomNumber, int guestCount) {
+            if (!conflictChecker.hasConflict(roomNumber, checkIn.toEpochDay(), nights)) {
+                restore(new Reservation(customerName, checkIn, checkIn.plusDays(nights), roomNumber, guestCount));
+            }
+        }
+
+        @Override
+        public void cancel(String customerName, LocalDate date, int roomNumber, int guestCount) {
+            int customerId = customers.idOf(customerName);
+            if (conflictChecker.matches(roomNumber, date.toEpochDay(), customerId, guestCount)) {
+                unstore(conflictChecker.getOccupant(roomNumber, date), customerId);
+            }
+        }
+    }
+
+    //Writes a snapshot of the live reservations and compacts the log. Bookings continue while it runs.
+    public void snapshot() throws IOException {
+        if (storage == null) {
+            throw new IllegalStateException("Snapshots need a service opened on a data directory.");
+        }
+        storage.snapshot(() -> conflictChecker.all()::iterator);
+    }
+
+    //Takes a snapshot every period on a background thread until the service is closed.
+    public synchronized void scheduleSnapshots(long period, TimeUnit unit) {
+        if (storage == null) {
+            throw new IllegalStateException("Snapshots need a service opened on a data directory.");
+        }
+        if (snapshotScheduler == null) {
+            snapshotScheduler = Executors.newSingleThreadScheduledExecutor(task -> {
+                Thread thread = new Thread(task, "reservation-snapshot");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        snapshotScheduler.scheduleWithFixedDelay(() -> {
+            try {
+                snapshot();
+            } catch (IOException e) {
+                throw new UncheckedIOException("Scheduled snapshot failed.", e);
+            }
+        }, period, period, unit);
+    }
+
+    //Feed of every add and cancel from now on, with the default capacity. Recovery replays are not published.
+    public ChangeFeed getChangeFeed() {
+        return openChangeFeed(ChangeFeed.DEFAULT_CAPACITY);
+    }
+
+    //Starts publishing into a feed keeping the last capacity events; returns the open feed if there is one.
+    //Nothing is published before the first call, so a service nobody subscribes to pays nothing.
+    public synchronized ChangeFeed openChangeFeed(int capacity) {
+        if (changeFeed == null) {changeFeed = new ChangeFeed(capacity);}
+        return changeFeed;
+    }
+
+    //Counters, outcomes and latencies of add, cancel and find; see ReservationMetrics.registerMBean for JMX.
+    public ReservationMetrics getMetrics() {
+        return metrics;
+    }
+
+    public ValidationRules getValidationRules() {
+        return validatorService.getRules();
+    }
+
+    //Replaces the booking rules at once, e.g. after reloading them with ValidationRules.load. Existing bookings stay.
+    public void setValidationRules(ValidationRules rules) {
+        validatorService.setRules(rules);
+    }
+
+    //Customer ids of the stored stays, for importers that intern names before handing rows over.
+    CustomerDictionary customerDictionary() {
+        return customers;
+    }
+
+    //Forces buffered log records to disk.
+    public void sync() throws IOException {
+        if (storage != null) {storage.sync();}
+    }
+
+    @Override
+    public void close() throws IOException {
+        synchronized (this) {
+            if (snapshotScheduler != null) {snapshotScheduler.shutdownNow();}
+            if (holdTicker != null) {holdTicker.shutdownNow();}
+        }
+        metrics.unregisterMBean();
+        if (storage != null) {storage.close();}
+    }
+
+    private ReentrantLock roomLock(int roomNumber) {
+        return roomLocks[roomNumber - OccupancyCalendar.FIRST_ROOM];
+    }
 
 
     //Add a reservation to the list.
     public boolean addReservation(String customerName, LocalDate date, Integer roomNumber, Integer guestCount) {
+        ValidationRules rules = validatorService.getRules();
+        long start = metrics.start();
+        BookingResult result = book(customerName, date, roomNumber, guestCount, rules);
+        metrics.recordAdd(result, start);
+        return switch (result) {
+            case OK -> true;
+            case PAST_DATE, TOO_FAR, CONFLICT -> false;
+            //Checking if all fields are filled.
+            case NULL_FIELD -> throw new IllegalArgumentException("Name, Date-Time, Room Number and/or Guest Count fields must be filled.");
+            //Customers can only select room numbers between 101-199 (101 and 199 included).
+            case BAD_ROOM -> throw new IndexOutOfBoundsException(rules.getRoomMessage());
+            //Guest count must be between 1-4. (1 and 4 included)
+            case BAD_GUESTS -> throw new IndexOutOfBoundsException(rules.getGuestMessage());
+        };
+    }
 
-        Reservation newReservation = new Reservation(customerName, date, roomNumber, guestCount);
+    //Same as addReservation, but every outcome is a result code: invalid input costs no exception.
+    public BookingResult tryAddReservation(String customerName, LocalDate date, Integer roomNumber, Integer guestCount) {
+        long start = metrics.start();
+        BookingResult result = book(customerName, date, roomNumber, guestCount, validatorService.getRules());
+        metrics.recordAdd(result, start);
+        return result;
+    }
+
+    //Same without boxing. Allocation-free unless the booking succeeds.
+    public BookingResult tryAddReservation(String customerName, LocalDate date, int roomNumber, int guestCount) {
+        long start = metrics.start();
+        BookingResult result = customerName == null || date == null ? BookingResult.NULL_FIELD :
+                book(customerName, date, roomNumber, guestCount, validatorService.getRules());
+        metrics.recordAdd(result, start);
+        return result;
+    }
+
+    private BookingResult book(String customerName, LocalDate date, Integer roomNumber, Integer guestCount, ValidationRules rules) {
 
         //Checking if all fields are filled.
         if (customerName == null || date == null || roomNumber == null || guestCount == null) {
-            throw new IllegalArgumentException("Name, Date-Time, Room Number and/or Guest Count fields must be filled.");
+            return BookingResult.NULL_FIELD;
         }
+        return book(customerName, date, roomNumber.intValue(), guestCount.intValue(), rules);
+    }
+
+    //Validation and the conflict check work on primitives; a rejected request allocates nothing.
+    private BookingResult book(String customerName, LocalDate date, int roomNumber, int guestCount, ValidationRules rules) {
 
         //Reservations for past dates cannot be made.
-        if (date.isBefore(LocalDate.now())) {return false;}
+        long epochDay = date.toEpochDay();
+        BookingWindow.Bounds bounds = window.current();
+        if (rules.isPast(bounds, epochDay)) {return BookingResult.PAST_DATE;}
 
         //Reservations can be made up to 1 year later.
-        if(date.minusYears(1).isAfter(LocalDate.now())) {return false;}
+        if (rules.isTooFar(bounds, epochDay)) {return BookingResult.TOO_FAR;}
+
+        if (!rules.isValidRoom(roomNumber)) {return BookingResult.BAD_ROOM;}
+        if (!rules.isValidGuestCount(roomNumber, guestCount)) {return BookingResult.BAD_GUESTS;}
 
-        //Customers can only select room numbers between 101-199 (101 and 199 included).
-        if (!validatorService.isValidRoomNumber(roomNumber)){
-            throw new IndexOutOfBoundsException("Room number must be selected between 101-199 (101 and 199 included).");
+        //Checking conflict and adding under the room's lock, so only one booking wins a slot.
+        conflictChecker.rollTo(bounds.getToday());
+        ReentrantLock lock = roomLock(roomNumber);
+        lock.lock();
+        try {
+            if (conflictChecker.hasConflict(roomNumber, date)) {return BookingResult.CONFLICT;}
+
+            store(customerName, date, roomNumber, guestCount);   //No conflict. Add the reservation
+            return BookingResult.OK;
+        } finally {
+            lock.unlock();
         }
+    }
 
-        //Guest count must be between 1-4. (1 and 4 included)
-        if(!validatorService.isValidGuestCount(guestCount)){
-            throw new IndexOutOfBoundsException("Guest count must be between 1-4. (1 and 4 included)");
+    //Books a stay from check-in to check-out (the check-out day itself stays free) as a whole: every night is booked,
+    //or none is. A one-night stay is the same as addReservation.
+    public boolean addStay(String customerName, LocalDate checkIn, LocalDate checkOut, Integer roomNumber, Integer guestCount) {
+        if (!isBookableStay(customerName, checkIn, checkOut, roomNumber, guestCount)) {return false;}
+
+        Reservation stay = new Reservation(customerName, checkIn, checkOut, roomNumber, guestCount);
+        conflictChecker.rollTo(window.today());
+        ReentrantLock lock = roomLock(roomNumber);
+        lock.lock();
+        try {
+            if (conflictChecker.hasConflict(roomNumber, checkIn.toEpochDay(), stay.getNights())) {return false;}
+
+            store(stay);
+            return true;
+        } finally {
+            lock.unlock();
         }
+    }
 
-        //Checking conflict
-        if (conflictChecker.hasConflict(reservations, roomNumber, date)) {return false;}
+    //Same checks as addReservation for every night of a stay. Throws for invalid input, false for dates that cannot be booked.
+    private boolean isBookableStay(String customerName, LocalDate checkIn, LocalDate checkOut, Integer roomNumber, Integer guestCount) {
 
+        //Checking if all fields are filled.
+        if (customerName == null || checkIn == null || checkOut == null || roomNumber == null || guestCount == null) {
+            throw new IllegalArgumentException("Name, Check-in, Check-out, Room Number and/or Guest Count fields must be filled.");
+        }
+        if (!checkOut.isAfter(checkIn)) {
+            throw new IllegalArgumentException("Check-out must be after check-in.");
+        }
+
+        //Every night must be bookable: none in the past, none more than 1 year later.
+        BookingWindow.Bounds bounds = window.current();
+        ValidationRules rules = validatorService.getRules();
+        if (rules.isPast(bounds, checkIn.toEpochDay())) {return false;}
+        if (rules.isTooFar(bounds, checkOut.toEpochDay() - 1)) {return false;}
 
-        reservations.add(newReservation);   //No conflict. Add the reservation
+        if (!rules.isValidRoom(roomNumber)){
+            throw new IndexOutOfBoundsException(rules.getRoomMessage());
+        }
+        if(!rules.isValidGuestCount(roomNumber, guestCount)){
+            throw new IndexOutOfBoundsException(rules.getGuestMessage());
+        }
         return true;
+    }
+
+    //Two-phase booking for checkout flows: a hold takes the slot for ttl, then it is confirmed into a reservation
+    //or released. Unconfirmed holds expire on a timer wheel ticking every 100 ms. Held slots conflict like booked
+    //ones but are not stored or logged, so they do not survive a restart.
+
+    //Holds one night. Same checks as addReservation; returns the hold id, or NO_HOLD if the slot is taken or not bookable.
+    public long holdReservation(String customerName, LocalDate date, Integer roomNumber, Integer guestCount, Duration ttl) {
+        return holdStay(customerName, date, date == null ? null : date.plusDays(1), roomNumber, guestCount, ttl);
+    }
+
+    //Holds every night of a stay, or none.
+    public long holdStay(String customerName, LocalDate checkIn, LocalDate checkOut, Integer roomNumber, Integer guestCount,
+                         Duration ttl) {
+        if (ttl == null || ttl.isNegative() || ttl.isZero()) {
+            throw new IllegalArgumentException("Hold time must be positive.");
+        }
+        if (!isBookableStay(customerName, checkIn, checkOut, roomNumber, guestCount)) {return NO_HOLD;}
+
+        Hold hold = new Hold(nextHoldId.incrementAndGet(), new Reservation(customerName, checkIn, checkOut, roomNumber, guestCount),
+                System.nanoTime() + ttl.toNanos());
+        conflictChecker.rollTo(window.today());
+        ReentrantLock lock = roomLock(roomNumber);
+        lock.lock();
+        try {
+            if (!conflictChecker.hold(roomNumber, checkIn.toEpochDay(), hold.stay.getNights())) {return NO_HOLD;}
+            holds.put(hold.id, hold);
+            hold.timeout = holdWheel.schedule(() -> endHold(hold, false), hold.deadlineNanos);
+        } finally {
+            lock.unlock();
+        }
+        startHoldTicker();
+        return hold.id;
+    }
+
+    //Turns the hold into a reservation. False if the hold is unknown, released or expired.
+    public boolean confirmHold(long holdId) {
+        Hold hold = holds.get(holdId);
+        if (hold == null) {return false;}
+        if (System.nanoTime() - hold.deadlineNanos >= 0) {   //Due, the wheel just has not ticked yet.
+            endHold(hold, false);
+            return false;
+        }
+        return endHold(hold, true);
+    }
+
+    //Gives the held slot back. False if the hold is unknown, confirmed or already expired.
+    public boolean releaseHold(long holdId) {
+        Hold hold = holds.get(holdId);
+        return hold != null && endHold(hold, false);
+    }
+
+    //Number of holds neither confirmed, released nor expired yet.
+    public int getHoldCount() {
+        return holds.size();
+    }
+
+    //Confirms or gives back the hold, whichever of confirm, release and expiry comes first wins.
+    private boolean endHold(Hold hold, boolean confirm) {
+        int roomNumber = hold.stay.getRoomNumber();
+        ReentrantLock lock = roomLock(roomNumber);
+        lock.lock();
+        try {
+            if (!holds.remove(hold.id, hold)) {return false;}
+            if (hold.timeout != null) {hold.timeout.cancel();}
+            if (confirm) {
+                store(hold.stay);   //The calendar already has the nights, the table gets the stay.
+                conflictChecker.confirmHold(roomNumber, hold.stay.getDateTime().toEpochDay(), hold.stay.getNights());
+            } else {
+                conflictChecker.releaseHold(roomNumber, hold.stay.getDateTime().toEpochDay(), hold.stay.getNights());
+            }
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private synchronized void startHoldTicker() {
+        if (holdTicker != null) {return;}
+        holdTicker = Executors.newSingleThreadScheduledExecutor(task -> {
+            Thread thread = new Thread(task, "reservation-holds");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long tick = holdWheel.getTickNanos();
+        holdTicker.scheduleAtFixedRate(() -> holdWheel.advance(System.nanoTime()), tick, tick, TimeUnit.NANOSECONDS);
+    }
 
+    //Books a whole batch (best-effort). Returns one result per request, in the order of the collection.
+    public boolean[] addReservations(Collection<ReservationRequest> requests) {
+        return addReservations(requests, BatchMode.BEST_EFFORT);
     }
 
-    //Remove the reservation from the list.
+    //Books a whole batch. Validation, the clock and the calendar roll run once per batch, and each
+    //room's lock is taken once. Invalid items are rejected instead of throwing.
+    public boolean[] addReservations(Collection<ReservationRequest> requests, BatchMode mode) {
+        if (requests == null || mode == null) {
+            throw new IllegalArgumentException("Requests and batch mode must be given.");
+        }
+        ReservationRequest[] items = requests.toArray(new ReservationRequest[0]);
+        boolean[] results = new boolean[items.length];
+
+        BookingWindow.Bounds bounds = window.current();
+        ValidationRules rules = validatorService.getRules();
+        long firstDay = rules.firstBookableDay(bounds);
+        long lastDay = rules.lastBookableDay(bounds);
+        conflictChecker.rollTo(bounds.getToday());
+
+        //Counting sort of the valid items by room, keeping batch order inside each room.
+        int[] roomStart = new int[OccupancyCalendar.ROOM_COUNT + 1];
+        int validCount = 0;
+        for (ReservationRequest item : items) {
+            if (isBookable(item, rules, firstDay, lastDay)) {
+                roomStart[item.getRoomNumber() - OccupancyCalendar.FIRST_ROOM + 1]++;
+                validCount++;
+            } else if (mode == BatchMode.ALL_OR_NOTHING) {
+                return results;
+            }
+        }
+        for (int i = 0; i < OccupancyCalendar.ROOM_COUNT; i++) {
+            roomStart[i + 1] += roomStart[i];
+        }
+        int[] sorted = new int[validCount];
+        int[] next = Arrays.copyOf(roomStart, OccupancyCalendar.ROOM_COUNT);
+        for (int i = 0; i < items.length; i++) {
+            if (isBookable(items[i], rules, firstDay, lastDay)) {
+                sorted[next[items[i].getRoomNumber() - OccupancyCalendar.FIRST_ROOM]++] = i;
+            }
+        }
+
+        if (mode == BatchMode.ALL_OR_NOTHING) {
+            addAllOrNothing(items, sorted, roomStart, results);
+        } else {
+            addBestEffort(items, sorted, roomStart, results);
+        }
+        return results;
+    }
+
+    //Earlier items in the batch win slots over later ones. The successful items are published together.
+    private void addBestEffort(ReservationRequest[] items, int[] sorted, int[] roomStart, boolean[] results) {
+        int[] rooms = lockRooms(roomStart);
+        try {
+            Reservation[] staged = new Reservation[items.length];
+            for (int index : sorted) {
+                ReservationRequest item = items[index];
+                if (!conflictChecker.hasConflict(item.getRoomNumber(), item.getDateTime())) {
+                    staged[index] = stage(toReservation(item));
+                    results[index] = true;
+                }
+            }
+            commit(rooms, staged);
+        } finally {
+            unlockRooms(rooms);
+        }
+    }
+
+    //Checked first, then committed together.
+    private void addAllOrNothing(ReservationRequest[] items, int[] sorted, int[] roomStart, boolean[] results) {
+        int[] rooms = lockRooms(roomStart);
+        try {
+            Set<Long> claimed = new HashSet<>();
+            for (int index : sorted) {
+                ReservationRequest item = items[index];
+                if (conflictChecker.hasConflict(item.getRoomNumber(), item.getDateTime()) ||
+                        !claimed.add(ReservationConflictChecker.slotKey(item.getRoomNumber(), item.getDateTime()))) {
+                    return;
+                }
+            }
+            Reservation[] staged = new Reservation[items.length];
+            for (int index : sorted) {
+                staged[index] = stage(toReservation(items[index]));
+                results[index] = true;
+            }
+            commit(rooms, staged);
+        } finally {
+            unlockRooms(rooms);
+        }
+    }
+
+    //Locks every room with items in ascending order (no deadlocks between batches) and returns the room numbers.
+    //A batch holds all its rooms until it is published, so readers see all of it or none of it.
+    private int[] lockRooms(int[] roomStart) {
+        int count = 0;
+        for (int r = 0; r < OccupancyCalendar.ROOM_COUNT; r++) {
+            if (roomStart[r] != roomStart[r + 1]) {count++;}
+        }
+        int[] rooms = new int[count];
+        int locked = 0;
+        try {
+            for (int r = 0; r < OccupancyCalendar.ROOM_COUNT; r++) {
+                if (roomStart[r] != roomStart[r + 1]) {
+                    roomLocks[r].lock();
+                    rooms[locked++] = OccupancyCalendar.FIRST_ROOM + r;
+                }
+            }
+        } catch (RuntimeException | Error e) {
+            unlockRooms(Arrays.copyOf(rooms, locked));
+            throw e;
+        }
+        return rooms;
+    }
+
+    private void unlockRooms(int[] rooms) {
+        for (int room : rooms) {
+            roomLock(room).unlock();
+        }
+    }
+
+    //Publishes the staged items in one view, then logs them and puts them on the change feed.
+    //Logged only once visible, like single bookings, so a snapshot never misses a logged item.
+    private void commit(int[] rooms, Reservation[] staged) {
+        conflictChecker.publish(rooms);
+        for (Reservation reservation : staged) {
+            if (reservation == null) {continue;}
+            if (storage != null) {storage.appendAdd(reservation);}
+            publish(ReservationEvent.Type.ADDED, reservation);
+        }
+    }
+
+    //Writer stage of a ReservationImporter: stores the valid rows of a parsed batch that conflict neither with the
+    //store nor with earlier rows, marks the others CONFLICT (TOO_FAR if they end after the calendar window) and
+    //returns the number stored. The rows are sorted by
+    //room and check-in, each room's lock is taken once and its new rows are merged into its table in one pass,
+    //then all rooms are published in a single view.
+    int importBatch(ReservationImporter.Batch batch) {
+        int[] roomStart = new int[OccupancyCalendar.ROOM_COUNT + 1];
+        for (int row = 0; row < batch.size; row++) {
+            if (batch.status[row] == ReservationImporter.Batch.OK) {
+                roomStart[batch.rooms[row] - OccupancyCalendar.FIRST_ROOM + 1]++;
+            }
+        }
+        for (int i = 0; i < OccupancyCalendar.ROOM_COUNT; i++) {
+            roomStart[i + 1] += roomStart[i];
+        }
+        //Per room, (check-in << 32 | row) keys sort the rows by check-in and then by file order.
+        long[] keys = new long[roomStart[OccupancyCalendar.ROOM_COUNT]];
+        int[] next = Arrays.copyOf(roomStart, OccupancyCalendar.ROOM_COUNT);
+        for (int row = 0; row < batch.size; row++) {
+            if (batch.status[row] == ReservationImporter.Batch.OK) {
+                keys[next[batch.rooms[row] - OccupancyCalendar.FIRST_ROOM]++] = ((long) batch.days[row] << 32) | row;
+            }
+        }
+        int[] checkIns = new int[keys.length];
+        short[] nights = new short[keys.length];
+        byte[] guests = new byte[keys.length];
+        int[] customerIds = new int[keys.length];
+        int[] accepted = new int[keys.length];
+        int stored = 0;
+
+        conflictChecker.rollTo(window.today());
+        int[] rooms = lockRooms(roomStart);
+        try {
+            for (int room : rooms) {
+                int r = room - OccupancyCalendar.FIRST_ROOM;
+                Arrays.sort(keys, roomStart[r], roomStart[r + 1]);
+                int first = stored;
+                long lastEnd = Long.MIN_VALUE;   //Day after the last accepted stay of the room
+                for (int k = roomStart[r]; k < roomStart[r + 1]; k++) {
+                    int row = (int) keys[k];
+                    long day = batch.days[row];
+                    if (conflictChecker.isBeyondWindow(day + batch.nights[row] - 1)) {
+                        batch.reject(row, ImportResult.Reject.TOO_FAR);
+                        continue;
+                    }
+                    if (day < lastEnd || conflictChecker.hasConflict(room, day, batch.nights[row])) {
+                        batch.reject(row, ImportResult.Reject.CONFLICT);
+                        continue;
+                    }
+                    lastEnd = day + batch.nights[row];
+                    int customerId = batch.internCustomer(row, customers);
+                    checkIns[stored] = batch.days[row];
+                    nights[stored] = batch.nights[row];
+                    guests[stored] = batch.guests[row];
+                    customerIds[stored] = customerId;
+                    accepted[stored++] = row;
+                    indexes.add(customerId, room, day);
+                }
+                conflictChecker.stageAll(room, checkIns, nights, guests, customerIds, first, stored);
+            }
+            conflictChecker.publish(rooms);
+            if (storage != null || changeFeed != null) {
+                for (int i = 0; i < stored; i++) {
+                    int row = accepted[i];
+                    LocalDate checkIn = LocalDate.ofEpochDay(checkIns[i]);
+                    Reservation reservation = new Reservation(customers.nameOf(customerIds[i]), checkIn,
+                            checkIn.plusDays(nights[i]), (int) batch.rooms[row], (int) guests[i]);
+                    if (storage != null) {storage.appendAdd(reservation);}
+                    publish(ReservationEvent.Type.ADDED, reservation);
+                }
+            }
+        } finally {
+            unlockRooms(rooms);
+        }
+        return stored;
+    }
+
+    //Same rules as addReservation, checked against precomputed window bounds.
+    private static boolean isBookable(ReservationRequest item, ValidationRules rules, long firstDay, long lastDay) {
+        if (item == null || item.getCustomerName() == null || item.getDateTime() == null ||
+                item.getRoomNumber() == null || item.getGuestCount() == null) {
+            return false;
+        }
+        long day = item.getDateTime().toEpochDay();
+        return day >= firstDay && day <= lastDay &&
+                rules.isValidRoom(item.getRoomNumber()) &&
+                rules.isValidGuestCount(item.getRoomNumber(), item.getGuestCount());
+    }
+
+    //Adds the reservation to the slot index, the secondary indexes, the log and the change feed.
+    //Caller holds the room's lock, so events of one room are published in the order they happened.
+    private void store(Reservation reservation) {
+        restore(reservation);
+        if (storage != null) {storage.appendAdd(reservation);}
+        publish(ReservationEvent.Type.ADDED, reservation);
+    }
+
+    //Same for a one-night booking given by its fields: the tables keep primitives, so a Reservation is only
+    //created for the log record.
+    private void store(String customerName, LocalDate date, int roomNumber, int guestCount) {
+        long epochDay = date.toEpochDay();
+        int customerId = customers.intern(customerName);
+        indexes.add(customerId, roomNumber, epochDay);
+        conflictChecker.occupy(roomNumber, epochDay, 1, customerId, guestCount);
+        if (storage != null) {storage.appendAdd(new Reservation(customerName, date, roomNumber, guestCount));}
+        ChangeFeed feed = changeFeed;
+        if (feed != null) {
+            feed.publish(ReservationEvent.Type.ADDED, customers.nameOf(customerId), date, 1, roomNumber, guestCount);
+        }
+    }
+
+    private void publish(ReservationEvent.Type type, Reservation reservation) {
+        ChangeFeed feed = changeFeed;
+        if (feed != null) {
+            feed.publish(type, reservation.getCustomerName(), reservation.getDateTime(), reservation.getNights(),
+                    reservation.getRoomNumber(), reservation.getGuestCount());
+        }
+    }
+
+    //Indexes the reservation and stores it unpublished; the caller holds the room's lock and publishes it.
+    private Reservation stage(Reservation reservation) {
+        long epochDay = reservation.getDateTime().toEpochDay();
+        int customerId = customers.intern(reservation.getCustomerName());
+        indexes.add(customerId, reservation.getRoomNumber(), epochDay);
+        conflictChecker.stage(reservation.getRoomNumber(), epochDay, reservation.getNights(), customerId,
+                reservation.getGuestCount());
+        return reservation;
+    }
+
+    private void restore(Reservation reservation) {
+        long epochDay = reservation.getDateTime().toEpochDay();
+        int customerId = customers.intern(reservation.getCustomerName());
+        indexes.add(customerId, reservation.getRoomNumber(), epochDay);
+        conflictChecker.occupy(reservation.getRoomNumber(), epochDay, reservation.getNights(), customerId,
+                reservation.getGuestCount());
+    }
+
+    private void unstore(Reservation reservation, int customerId) {
+        conflictChecker.release(reservation.getRoomNumber(), reservation.getDateTime());
+        indexes.remove(customerId, reservation.getRoomNumber(), reservation.getDateTime().toEpochDay());
+    }
+
+    private static Reservation toReservation(ReservationRequest item) {
+        return new Reservation(item.getCustomerName(), item.getDateTime(), item.getRoomNumber(), item.getGuestCount());
+    }
+
+    //Last date for which date.minusYears(1) is not after today (handles 29 February).
+    static LocalDate lastBookableDay(LocalDate today) {
+        return BookingWindow.lastBookableDay(today);
+    }
+
+    //Remove the reservation from the list. A stay of several nights is cancelled as a whole, by its check-in date.
     public boolean cancelReservation(String customerName, LocalDate date, Integer roomNumber, Integer guestCount) {
-        return reservations.removeIf(res -> res.getCustomerName().equals(customerName) &&
-                                            res.getDateTime().equals(date) &&
-                                            res.getRoomNumber().equals(roomNumber) &&
-                                            res.getGuestCount().equals(guestCount));
+        long start = metrics.start();
+        boolean cancelled = cancel(customerName, date, roomNumber, guestCount);
+        metrics.recordCancel(cancelled, start);
+        return cancelled;
+    }
 
+    private boolean cancel(String customerName, LocalDate date, Integer roomNumber, Integer guestCount) {
+        if (customerName == null || date == null || roomNumber == null || guestCount == null) {return false;}
+        //Outside the hotel nothing can be booked. Rooms closed by the current rules may still hold older bookings.
+        if (roomNumber < OccupancyCalendar.FIRST_ROOM || roomNumber > OccupancyCalendar.LAST_ROOM) {return false;}
+        //A name that was never booked has nothing to cancel.
+        int customerId = customers.idOf(customerName);
+        if (customerId == CustomerDictionary.UNKNOWN) {return false;}
+
+        ReentrantLock lock = roomLock(roomNumber);
+        lock.lock();
+        try {
+            //Only one reservation can hold a (room, date) slot, so the check is one lookup comparing ints.
+            if (!conflictChecker.matches(roomNumber, date.toEpochDay(), customerId, guestCount)) {
+                return false;
+            }
+
+            Reservation occupant = conflictChecker.getOccupant(roomNumber, date);
+            unstore(occupant, customerId);
+            if (storage != null) {storage.appendCancel(occupant);}
+            publish(ReservationEvent.Type.CANCELLED, occupant);
+            return true;
+        } finally {
+            lock.unlock();
+        }
     }
 
-    //Search and find a reservation from the list.
+    //Search and find a reservation from the list. Returns the customer's earliest booking in the room.
     public Reservation findReservation(String name, Integer room) {
-        for (Reservation reservation : reservations) {
-            if (reservation.getCustomerName().equals(name) && reservation.getRoomNumber().equals(room)) {
-                return reservation;
-            }
+        long start = metrics.start();
+        Reservation reservation = find(name, room);
+        metrics.recordFind(reservation != null, start);
+        return reservation;
+    }
+
+    //Lock-free: answers from one published view. The customer index is written before a booking is published and
+    //after a cancellation is, so it may name slots the view does not show yet; those are skipped.
+    private Reservation find(String name, Integer room) {
+        if (name == null || room == null) {return null;}
+        int customerId = customers.idOf(name);
+        if (customerId == CustomerDictionary.UNKNOWN) {return null;}
+        ReservationView view = conflictChecker.view();
+        for (long slot = indexes.firstSlot(customerId, room); slot >= 0; slot = indexes.nextSlot(customerId, slot)) {
+            Reservation reservation = view.getStay(room, ReservationConflictChecker.slotDay(slot), customerId);
+            if (reservation != null) {return reservation;}
         }
         return null; //If no reservations found return null.
     }
 
+    //All reservations of the customer, sorted by room and date.
+    public List<Reservation> getReservationsForCustomer(String name) {
+        if (name == null) {return new ArrayList<>();}
+        return streamReservationsForCustomer(name).collect(Collectors.toCollection(ArrayList::new));
+    }
+
+    //All reservations of the room, sorted by date.
+    public List<Reservation> getReservationsForRoom(int roomNumber) {
+        return conflictChecker.roomRange(roomNumber, Integer.MIN_VALUE, Integer.MAX_VALUE)
+                .collect(Collectors.toCollection(ArrayList::new));
+    }
+
+    //Checks if a room can still be booked on the given date.
+    public boolean isRoomAvailable(int roomNumber, LocalDate date) {
+        conflictChecker.rollTo(window.today());
+        return conflictChecker.isFree(roomNumber, date.toEpochDay());
+    }
+
+    //Fills out (length >= 99) with the free rooms of the date and returns their count. Allocation-free.
+    public int getAvailableRooms(LocalDate date, int[] out) {
+        return getAvailableRooms(date, OccupancyCalendar.FIRST_ROOM, OccupancyCalendar.LAST_ROOM, out);
+    }
+
+    //Same among the rooms from firstRoom to lastRoom (both included), e.g. one shard's range.
+    public int getAvailableRooms(LocalDate date, int firstRoom, int lastRoom, int[] out) {
+        conflictChecker.rollTo(window.today());
+        return conflictChecker.freeRooms(date.toEpochDay(), firstRoom, lastRoom, out);
+    }
+
+    //Returns the free room numbers of the date.
+    public int[] getAvailableRooms(LocalDate date) {
+        int[] rooms = new int[OccupancyCalendar.ROOM_COUNT];
+        int count = getAvailableRooms(date, rooms);
+        return Arrays.copyOf(rooms, count);
+    }
+
+    //Rooms free every night from checkIn to lastNight (both included) for the party, in room order.
+    //Follows the booking rules: only bookable dates count and the room must take the guest count.
+    public int[] getAvailableRooms(LocalDate checkIn, LocalDate lastNight, int guestCount) {
+        int[] rooms = new int[OccupancyCalendar.ROOM_COUNT];
+        int count = getAvailableRooms(checkIn, lastNight, guestCount, rooms);
+        return Arrays.copyOf(rooms, count);
+    }
+
+    //Same into out (length >= 99), returns the number of rooms written.
+    public int getAvailableRooms(LocalDate checkIn, LocalDate lastNight, int guestCount, int[] out) {
+        return getAvailableRooms(checkIn, lastNight, guestCount, OccupancyCalendar.FIRST_ROOM, OccupancyCalendar.LAST_ROOM, out);
+    }
+
+    //Same among the rooms from firstRoom to lastRoom (both included).
+    public int getAvailableRooms(LocalDate checkIn, LocalDate lastNight, int guestCount, int firstRoom, int lastRoom,
+                                 int[] out) {
+        if (checkIn == null || lastNight == null) {
+            throw new IllegalArgumentException("Check-in and last night must be filled.");
+        }
+        BookingWindow.Bounds bounds = window.current();
+        ValidationRules rules = validatorService.getRules();
+        conflictChecker.rollTo(bounds.getToday());
+        long fromDay = checkIn.toEpochDay();
+        long toDay = lastNight.toEpochDay();
+        if (!rules.isValidGuestCount(guestCount) || rules.isPast(bounds, fromDay) || rules.isTooFar(bounds, toDay)) {
+            return 0;
+        }
+        int free = conflictChecker.freeRooms(fromDay, toDay, firstRoom, lastRoom, out);
+        int count = 0;
+        for (int i = 0; i < free; i++) {
+            if (rules.isValidRoom(out[i]) && rules.isValidGuestCount(out[i], guestCount)) {
+                out[count++] = out[i];
+            }
+        }
+        return count;
+    }
+
+    //The first limit free stays of the given nights that fit between from and to (both included),
+    //ordered by check-in date, then room. Days outside the bookable window are skipped.
+    public List<AvailableStay> findAvailableStays(LocalDate from, LocalDate to, int nights, int guestCount, int limit) {
+        return findAvailableStays(from, to, nights, guestCount, limit, OccupancyCalendar.FIRST_ROOM, OccupancyCalendar.LAST_ROOM);
+    }
+
+    //Same among the rooms from firstRoom to lastRoom (both included).
+    public List<AvailableStay> findAvailableStays(LocalDate from, LocalDate to, int nights, int guestCount, int limit,
+                                                 int firstRoom, int lastRoom) {
+        if (from == null || to == null) {
+            throw new IllegalArgumentException("Search range must be filled.");
+        }
+        if (nights < 1) {
+            throw new IllegalArgumentException("A stay must be at least one night.");
+        }
+        List<AvailableStay> stays = new ArrayList<>();
+        BookingWindow.Bounds bounds = window.current();
+        ValidationRules rules = validatorService.getRules();
+        conflictChecker.rollTo(bounds.getToday());
+        long fromDay = Math.max(from.toEpochDay(), rules.firstBookableDay(bounds));
+        long toDay = Math.min(to.toEpochDay(), rules.lastBookableDay(bounds));
+        if (limit <= 0 || !rules.isValidGuestCount(guestCount) || toDay - fromDay + 1 < nights) {
+            return stays;
+        }
+
+        //One bitmap of possible check-in days per room, then a merge by day so results come out in date order.
+        int lowest = Math.max(firstRoom, OccupancyCalendar.FIRST_ROOM);
+        int highest = Math.min(lastRoom, OccupancyCalendar.LAST_ROOM);
+        if (lowest > highest) {return stays;}
+        int words = (int) ((toDay - fromDay) / Long.SIZE) + 1;
+        long[][] starts = new long[highest - lowest + 1][words];
+        conflictChecker.freeStarts(lowest, fromDay, toDay, nights, starts);
+        for (int i = 0; i < starts.length; i++) {
+            int room = lowest + i;
+            if (!rules.isValidRoom(room) || !rules.isValidGuestCount(room, guestCount)) {
+                Arrays.fill(starts[i], 0);
+            }
+        }
+        for (int w = 0; w < words; w++) {
+            long anyRoom = 0;
+            for (long[] room : starts) {
+                anyRoom |= room[w];
+            }
+            while (anyRoom != 0) {
+                int bit = Long.numberOfTrailingZeros(anyRoom);
+                anyRoom &= anyRoom - 1;
+                LocalDate checkIn = LocalDate.ofEpochDay(fromDay + (long) w * Long.SIZE + bit);
+                for (int i = 0; i < starts.length; i++) {
+                    if ((starts[i][w] & (1L << bit)) != 0) {
+                        stays.add(new AvailableStay(lowest + i, checkIn, nights));
+                        if (stays.size() == limit) {return stays;}
+                    }
+                }
+            }
+        }
+        return stays;
+    }
+
+    //The published state of all rooms. Reads from it take no lock and are consistent with each other, however
+    //long the caller keeps it: later changes, batches included, show up in later views only.
+    public ReservationView getView() {
+        return conflictChecker.view();
+    }
+
+    //Parallel reports (occupancy, guest counts, bookings per customer) over the current view,
+    //on the common fork-join pool.
+    public ReservationAnalytics getAnalytics() {
+        return getAnalytics(ForkJoinPool.commonPool());
+    }
+
+    //Same, on the given pool, e.g. to keep reports off the threads of other work.
+    public ReservationAnalytics getAnalytics(ForkJoinPool pool) {
+        return new ReservationAnalytics(conflictChecker.view(), customers, pool);
+    }
+
+    //Lazy, copy-free reads for large stores. Each stream reads the view published when it was created, so
+    //changes made while it is consumed do not show up, nothing is returned twice.
+
+    //All reservations in (room, date) order.
+    public Stream<Reservation> streamReservations() {
+        return conflictChecker.all();
+    }
+
+    //Reservations of the room from one date to another (both included), by date.
+    public Stream<Reservation> streamReservationsForRoom(int roomNumber, LocalDate from, LocalDate to) {
+        return conflictChecker.roomRange(roomNumber, from.toEpochDay(), to.toEpochDay());
+    }
+
+    //Reservations of the customer, by room and date.
+    public Stream<Reservation> streamReservationsForCustomer(String name) {
+        if (name == null) {return Stream.empty();}
+        int customerId = customers.idOf(name);
+        ReservationView view = conflictChecker.view();
+        return Arrays.stream(indexes.slots(customerId))
+                .mapToObj(slot -> view.getStay(ReservationConflictChecker.slotRoom(slot),
+                        ReservationConflictChecker.slotDay(slot), customerId))
+                .filter(Objects::nonNull);
+    }
+
+    //Stays with a night from one date to another (both included), by date and room.
+    public Stream<Reservation> streamReservationsBetween(LocalDate from, LocalDate to) {
+        long fromDay = from.toEpochDay();
+        ReservationView view = conflictChecker.view();
+        //A stay shows up on its check-in day, or on the first day if it started earlier.
+        return LongStream.rangeClosed(fromDay, to.toEpochDay())
+                .mapToObj(day -> IntStream.rangeClosed(OccupancyCalendar.FIRST_ROOM, OccupancyCalendar.LAST_ROOM)
+                        .mapToObj(room -> view.getOccupant(room, day))
+                        .filter(stay -> stay != null && (day == fromDay || stay.getDateTime().toEpochDay() == day)))
+                .flatMap(Function.identity());
+    }
+
+    //One page of at most pageSize reservations in (room, date) order. Start with ReservationPage.FIRST
+    //and pass each page's next cursor until hasNext() is false. Only the page itself is allocated.
+    public ReservationPage getReservationsPage(long cursor, int pageSize) {
+        if (pageSize < 1) {
+            throw new IllegalArgumentException("Page size must be at least 1.");
+        }
+        if (cursor == ReservationPage.END) {return new ReservationPage(new ArrayList<>(), ReservationPage.END);}
+        return conflictChecker.page(cursor, pageSize);
+    }
+
     //List and show all the reservations in the list.
     public List<Reservation> getAllReservations() {
-        return new ArrayList<>(reservations);
+        return conflictChecker.all().collect(Collectors.toCollection(ArrayList::new));
     }
 
 }
@@ -0,0 +1,134 @@
+package com.example.reservation;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32C;
+
+//Point-in-time snapshot of the live reservations in a compact columnar format:
+//  int magic | int version | int count | int dictionarySize
+//  dictionary: short nameLength | name (UTF-8), one entry per distinct customer
+//  rooms:  byte  per reservation, room - 101
+//  days:   int   per reservation, epoch-day
+//  guests: one nibble per reservation, two per byte
+//  names:  int   per reservation, dictionary id
+//  nights: short per reservation (version 2, version 1 snapshots hold one-night stays only)
+//  int crc32c of everything before it
+public class ReservationSnapshot {
+    static final int MAGIC = 0x52534E50;   //"RSNP"
+    static final int VERSION = 2;
+
+    private ReservationSnapshot() {}
+
+    //Writes the reservations to a temporary file, forces it and renames it into place, so a crash never
+    //leaves a half-written snapshot under the final name. Returns the number of reservations written.
+    public static int write(Path file, Iterable<Reservation> reservations) throws IOException {
+        List<Reservation> rows = new ArrayList<>();
+        Map<String, Integer> dictionary = new HashMap<>();
+        List<byte[]> names = new ArrayList<>();
+        long dictionaryBytes = 0;
+        for (Reservation reservation : reservations) {
+            rows.add(reservation);
+            if (!dictionary.containsKey(reservation.getCustomerName())) {
+                byte[] name = reservation.getCustomerName().getBytes(StandardCharsets.UTF_8);
+                if (name.length > ReservationLog.MAX_NAME_BYTES) {
+                    throw new IllegalArgumentException("Customer name is too long to be stored.");
+                }
+                dictionary.put(reservation.getCustomerName(), names.size());
+                names.add(name);
+                dictionaryBytes += 2 + name.length;
+            }
+        }
+
+        int count = rows.size();
+        long size = 16 + dictionaryBytes + count + 4L * count + (count + 1) / 2 + 4L * count + 2L * count + 4;
+        ByteBuffer buffer = ByteBuffer.allocate(Math.toIntExact(size));
+        buffer.putInt(MAGIC).putInt(VERSION).putInt(count).putInt(names.size());
+        for (byte[] name : names) {
+            buffer.putShort((short) name.length).put(name);
+        }
+        for (Reservation row : rows) {
+            buffer.put((byte) (row.getRoomNumber() - OccupancyCalendar.FIRST_ROOM));
+        }
+        for (Reservation row : rows) {
+            buffer.putInt((int) row.getDateTime().toEpochDay());
+        }
+        for (int i = 0; i < count; i += 2) {
+            int low = rows.get(i).getGuestCount() & 0xF;
+            int high = i + 1 < count ? rows.get(i + 1).getGuestCount() & 0xF : 0;
+            buffer.put((byte) (low | high << 4));
+        }
+        for (Reservation row : rows) {
+            buffer.putInt(dictionary.get(row.getCustomerName()));
+        }
+        for (Reservation row : rows) {
+            buffer.putShort((short) row.getNights());
+        }
+        CRC32C crc = new CRC32C();
+        crc.update(buffer.array(), 0, buffer.position());
+        buffer.putInt((int) crc.getValue());
+        buffer.flip();
+
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            channel.force(true);
+        }
+        Files.move(temp, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        return count;
+    }
+
+    //Memory-maps the snapshot and hands every reservation to the handler. Returns the number loaded.
+    public static int load(Path file, ReservationLog.Handler handler) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            int end = buffer.limit() - 4;
+            if (end < 16) {
+                throw new IOException("Snapshot " + file + " is truncated.");
+            }
+            CRC32C crc = new CRC32C();
+            crc.update(buffer.slice(0, end));
+            int version = buffer.getInt(4);
+            if ((int) crc.getValue() != buffer.getInt(end) || buffer.getInt(0) != MAGIC || version < 1 || version > VERSION) {
+                throw new IOException("Snapshot " + file + " is corrupt.");
+            }
+
+            int count = buffer.getInt(8);
+            String[] names = new String[buffer.getInt(12)];
+            buffer.position(16);
+            for (int i = 0; i < names.length; i++) {
+                byte[] name = new byte[buffer.getShort() & 0xFFFF];
+                buffer.get(name);
+                names[i] = new String(name, StandardCharsets.UTF_8);
+            }
+            int rooms = buffer.position();
+            int days = rooms + count;
+            int guests = days + 4 * count;
+            int ids = guests + (count + 1) / 2;
+            int nights = ids + 4 * count;
+
+            for (int i = 0; i < count; i++) {
+                int room = OccupancyCalendar.FIRST_ROOM + (buffer.get(rooms + i) & 0xFF);
+                LocalDate date = LocalDate.ofEpochDay(buffer.getInt(days + 4 * i));
+                int guestCount = (buffer.get(guests + i / 2) >>> ((i & 1) * 4)) & 0xF;
+                int stayNights = version >= 2 ? buffer.getShort(nights + 2 * i) : 1;
+                handler.addStay(names[buffer.getInt(ids + 4 * i)], date, stayNights, room, guestCount);
+            }
+            return count;
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package com.example.reservation;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Supplier;
+
+//Data directory of a durable ReservationService: write-ahead log segments plus snapshots.
+//  wal-<generation>.log       changes logged while <generation> was current
+//  snapshot-<generation>.snap live reservations covering every change logged before wal-<generation>
+//Taking a snapshot switches appends to a new segment (the version cutoff) and writes the live set
+//afterwards, so bookings keep flowing. Startup loads the newest snapshot and replays only the later segments.
+public class ReservationStorage implements Closeable {
+    private static final String WAL_PREFIX = "wal-";
+    private static final String WAL_SUFFIX = ".log";
+    private static final String SNAPSHOT_PREFIX = "snapshot-";
+    private static final String SNAPSHOT_SUFFIX = ".snap";
+
+    private final Path directory;
+    private final int groupCommitSize;
+    private ReservationLog currentLog;
+    private long currentGeneration;
+    private boolean snapshotRunning;
+
+    public ReservationStorage(Path directory, int groupCommitSize) throws IOException {
+        this.directory = Files.createDirectories(directory);
+        this.groupCommitSize = groupCommitSize;
+    }
+
+    //Loads the newest snapshot, replays the log segments written after it and opens the segment to append to.
+    public synchronized void recover(ReservationLog.Handler handler) throws IOException {
+        List<Long> snapshots = generations(SNAPSHOT_PREFIX, SNAPSHOT_SUFFIX);
+        long cutoff = snapshots.isEmpty() ? 0 : snapshots.get(snapshots.size() - 1);
+        if (cutoff > 0) {
+            ReservationSnapshot.load(snapshotFile(cutoff), handler);
+        }
+
+        List<Long> segments = generations(WAL_PREFIX, WAL_SUFFIX);
+        long last = Math.max(cutoff, 1);
+        for (long generation : segments) {
+            if (generation < cutoff) {continue;}
+            try (ReservationLog log = new ReservationLog(walFile(generation), groupCommitSize)) {
+                log.replay(handler);
+            }
+            last = Math.max(last, generation);
+        }
+        currentGeneration = last;
+        currentLog = new ReservationLog(walFile(last), groupCommitSize);
+    }
+
+    public synchronized void appendAdd(Reservation reservation) {
+        currentLog.appendAdd(reservation);
+    }
+
+    public synchronized void appendCancel(Reservation reservation) {
+        currentLog.appendCancel(reservation);
+    }
+
+    public synchronized void sync() throws IOException {
+        currentLog.sync();
+    }
+
+    //Snapshots the live set and drops the segments and snapshots it makes obsolete.
+    //Appends pause only while the log switches to the next segment, not while the snapshot is written.
+    //liveView must include every change appended before this call; changes made while it is iterated
+    //are replayed from the new segment on recovery.
+    public long snapshot(Supplier<Iterable<Reservation>> liveView) throws IOException {
+        long cutoff;
+        synchronized (this) {
+            if (snapshotRunning) {
+                throw new IllegalStateException("A snapshot is already being taken.");
+            }
+            snapshotRunning = true;
+            currentLog.close();
+            cutoff = ++currentGeneration;
+            currentLog = new ReservationLog(walFile(cutoff), groupCommitSize);
+        }
+        try {
+            ReservationSnapshot.write(snapshotFile(cutoff), liveView.get());
+            for (long generation : generations(WAL_PREFIX, WAL_SUFFIX)) {
+                if (generation < cutoff) {Files.deleteIfExists(walFile(generation));}
+            }
+            for (long generation : generations(SNAPSHOT_PREFIX, SNAPSHOT_SUFFIX)) {
+                if (generation < cutoff) {Files.deleteIfExists(snapshotFile(generation));}
+            }
+            return cutoff;
+        } finally {
+            synchronized (this) {
+                snapshotRunning = false;
+            }
+        }
+    }
+
+    private Path walFile(long generation) {
+        return directory.resolve(WAL_PREFIX + generation + WAL_SUFFIX);
+    }
+
+    private Path snapshotFile(long generation) {
+        return directory.resolve(SNAPSHOT_PREFIX + generation + SNAPSHOT_SUFFIX);
+    }
+
+    //Generations of the files with the prefix and suffix, ascending.
+    private List<Long> generations(String prefix, String suffix) throws IOException {
+        List<Long> generations = new ArrayList<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, prefix + "*" + suffix)) {
+            for (Path file : files) {
+                String name = file.getFileName().toString();
+                try {
+                    generations.add(Long.parseLong(name.substring(prefix.length(), name.length() - suffix.length())));
+                } catch (NumberFormatException e) {
+                    //Not one of ours, leave it alone.
+                }
+            }
+        }
+        Collections.sort(generations);
+        return generations;
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (currentLog != null) {currentLog.close();}
+    }
+}
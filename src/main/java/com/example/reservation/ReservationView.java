@@ -0,0 +1,168 @@
+package com.example.reservation;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+//Immutable, versioned state of every room as published by ReservationConflictChecker. A reader takes the current
+//view once and answers any number of questions from it without a lock: nothing in it ever changes, and a batch
+//becomes visible in one publication, so a view holds all of a batch or none of it.
+//Old views stay valid for as long as a reader keeps them; the garbage collector reclaims them afterwards.
+//Rooms sit in a two-level tree, as in a HAMT: publishing a room copies the root and the room's group of
+//GROUP tables instead of an array of all 99, and every other group is shared with the previous view.
+public class ReservationView {
+    private static final int GROUP_BITS = 3;
+    private static final int GROUP = 1 << GROUP_BITS;
+
+    private final long version;
+    private final RoomTable[][] groups;   //Room 101 + i at groups[i / GROUP][i % GROUP].
+    private final int size;
+
+    private ReservationView(long version, RoomTable[][] groups, int size) {
+        this.version = version;
+        this.groups = groups;
+        this.size = size;
+    }
+
+    //First view, of the given tables.
+    ReservationView(RoomTable[] rooms) {
+        this(0, new RoomTable[(rooms.length + GROUP - 1) / GROUP][], 0);
+        for (int g = 0; g < groups.length; g++) {
+            groups[g] = Arrays.copyOfRange(rooms, g * GROUP, Math.min((g + 1) * GROUP, rooms.length));
+        }
+    }
+
+    //Increases by one with every publication.
+    public long getVersion() { return version; }
+
+    //Number of stays in this view.
+    public int size() { return size; }
+
+    //This view with the given rooms replaced by their latest tables, as the next version.
+    ReservationView with(RoomTable[] latest, int[] roomNumbers) {
+        RoomTable[][] next = groups.clone();
+        int nextSize = size;
+        for (int roomNumber : roomNumbers) {
+            int i = roomNumber - OccupancyCalendar.FIRST_ROOM;
+            int g = i >>> GROUP_BITS;
+            if (next[g] == groups[g]) {next[g] = groups[g].clone();}
+            nextSize += latest[i].size() - next[g][i & (GROUP - 1)].size();
+            next[g][i & (GROUP - 1)] = latest[i];
+        }
+        return new ReservationView(version + 1, next, nextSize);
+    }
+
+    //Table of room 101 + index.
+    RoomTable room(int index) {
+        return groups[index >>> GROUP_BITS][index & (GROUP - 1)];
+    }
+
+    //Table of the room, or null for rooms outside 101-199 and days outside the int range (nothing is stored there).
+    private RoomTable table(int roomNumber, long epochDay) {
+        if (roomNumber < OccupancyCalendar.FIRST_ROOM || roomNumber > OccupancyCalendar.LAST_ROOM ||
+                epochDay != (int) epochDay) {
+            return null;
+        }
+        return room(roomNumber - OccupancyCalendar.FIRST_ROOM);
+    }
+
+    public boolean hasConflict(int roomNumber, LocalDate date) {
+        return hasConflict(roomNumber, date.toEpochDay(), 1);
+    }
+
+    //True if any night of the stay is taken in this view. Holds are not stays, they are not seen here.
+    public boolean hasConflict(int roomNumber, long checkIn, int nights) {
+        long lastNight = checkIn + nights - 1;
+        RoomTable table = table(roomNumber, checkIn);
+        return table != null && lastNight == (int) lastNight && table.overlaps((int) checkIn, nights);
+    }
+
+    //Clears the bits of starts (bit i = check-in on fromDay + i) whose stay of the given nights is taken in this view.
+    void clearTakenStarts(int roomNumber, long fromDay, long toDay, int nights, long[] starts) {
+        RoomTable table = table(roomNumber, 0);
+        if (table != null) {table.clearTakenStarts(fromDay, toDay, nights, starts);}
+    }
+
+    //Returns the stay covering the slot, or null if the slot is free.
+    public Reservation getOccupant(int roomNumber, LocalDate date) {
+        return getOccupant(roomNumber, date.toEpochDay());
+    }
+
+    public Reservation getOccupant(int roomNumber, long epochDay) {
+        RoomTable table = table(roomNumber, epochDay);
+        return table == null ? null : table.get((int) epochDay);
+    }
+
+    //The customer's stay checking in on the day, or null.
+    public Reservation getStay(int roomNumber, long checkIn, int customerId) {
+        RoomTable table = table(roomNumber, checkIn);
+        return table == null ? null : table.get((int) checkIn, customerId);
+    }
+
+    //True if the customer's stay for the guest count checks in on the day. Allocation-free.
+    public boolean matches(int roomNumber, long checkIn, int customerId, int guestCount) {
+        RoomTable table = table(roomNumber, checkIn);
+        return table != null && table.matches((int) checkIn, customerId, guestCount);
+    }
+
+    //All reservations in (room, date) order, each built when the stream reaches it.
+    public Stream<Reservation> all() {
+        return StreamSupport.stream(new AllStays(), false);
+    }
+
+    //Walks the rooms' chunks in order like page(), one stay per step. A flatMap over the rooms would build a
+    //whole room ahead as soon as an iterator asks for its first stay.
+    private final class AllStays extends Spliterators.AbstractSpliterator<Reservation> {
+        private int room;
+        private int chunk;
+        private int index;
+
+        AllStays() {
+            super(size, Spliterator.ORDERED | Spliterator.NONNULL | Spliterator.IMMUTABLE);
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super Reservation> action) {
+            for (; room < OccupancyCalendar.ROOM_COUNT; room++, chunk = 0) {
+                RoomTable table = room(room);
+                for (; chunk < table.chunkCount(); chunk++, index = 0) {
+                    if (index < table.chunk(chunk).length()) {
+                        action.accept(table.stayAt(chunk, index++));
+                        return true;
+                    }
+                }
+            }
+            return false;
+        }
+    }
+
+    //Stays of the room with a night between the two epoch-days (both included), by date.
+    public Stream<Reservation> roomRange(int roomNumber, long fromDay, long toDay) {
+        RoomTable table = table(roomNumber, 0);
+        return table == null ? Stream.empty() : table.range(table.stayStart(fromDay), toDay, Integer.MAX_VALUE).stream();
+    }
+
+    //Up to limit reservations following the cursor (a slot key) in (room, date) order.
+    public ReservationPage page(long cursor, int limit) {
+        List<Reservation> items = new ArrayList<>(Math.min(limit, 1024));
+        boolean first = cursor <= ReservationPage.FIRST;
+        int firstRoom = first ? OccupancyCalendar.FIRST_ROOM : ReservationConflictChecker.slotRoom(cursor);
+        for (int room = Math.max(firstRoom, OccupancyCalendar.FIRST_ROOM); room <= OccupancyCalendar.LAST_ROOM; room++) {
+            long fromDay = !first && room == firstRoom ? (long) ReservationConflictChecker.slotDay(cursor) + 1 : Integer.MIN_VALUE;
+            //One extra row tells whether anything follows this page.
+            items.addAll(room(room - OccupancyCalendar.FIRST_ROOM).range(fromDay, Integer.MAX_VALUE, limit + 1 - items.size()));
+            if (items.size() > limit) {
+                items.remove(limit);
+                Reservation last = items.get(limit - 1);
+                return new ReservationPage(items, ReservationConflictChecker.slotKey(last.getRoomNumber(), last.getDateTime()));
+            }
+        }
+        return new ReservationPage(items, ReservationPage.END);
+    }
+}
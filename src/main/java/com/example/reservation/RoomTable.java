@@ -0,0 +1,383 @@
+package com.example.reservation;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+//Stays of one room in parallel primitive arrays sorted by check-in epoch-day:
+//  days[i]      check-in epoch-day
+//  nights[i]    length of the stay, the stay covers days[i] .. days[i] + nights[i] - 1
+//  guests[i]    guest count
+//  customers[i] customer id in the CustomerDictionary
+//About 11 bytes per booking instead of a Reservation, a LocalDate, boxed Integers and map nodes.
+//Stays never overlap, so the stay covering a day is the one with the last check-in at or before it:
+//conflict checks are one binary search. Reservation objects are only built when a caller asks for one.
+//Immutable: insert and remove return a new version, so readers of an old version need no lock. The stays are
+//split into chunks of at most CHUNK, and a change copies one chunk plus the chunk directory, not the whole room.
+//Bookings mostly append to the room's last chunk, so that chunk gets spare capacity and an append fills the next
+//free slot of the shared arrays in place: older versions of the chunk never read past their own length.
+class RoomTable {
+    static final int CHUNK = 32;
+
+    private static final Chunk[] NO_CHUNKS = new Chunk[0];
+
+    private final int roomNumber;
+    private final CustomerDictionary dictionary;   //Resolves customer ids when a Reservation is built.
+    private final Chunk[] chunks;      //Non-empty, in check-in order.
+    private final int[] firstDays;     //First check-in of each chunk.
+    private final int size;
+
+    //Up to CHUNK consecutive stays in the first length slots of the arrays. Those slots never change once the
+    //chunk is built, so scans may read the arrays directly, up to length. Slots after it belong to later versions.
+    static final class Chunk {
+        final int[] days;
+        final short[] nights;
+        final byte[] guests;
+        final int[] customers;
+        private final int length;
+
+        Chunk(int[] days, short[] nights, byte[] guests, int[] customers) {
+            this(days, nights, guests, customers, days.length);
+        }
+
+        private Chunk(int[] days, short[] nights, byte[] guests, int[] customers, int length) {
+            this.days = days;
+            this.nights = nights;
+            this.guests = guests;
+            this.customers = customers;
+            this.length = length;
+        }
+
+        int length() { return length; }
+
+        //Index of the check-in day, or -(insertion point) - 1 as Arrays.binarySearch.
+        int search(int day) {
+            return Arrays.binarySearch(days, 0, length, day);
+        }
+
+        //This chunk plus a stay after its last one, written into the next slot of the arrays if no other
+        //version took it yet (a taken slot has nights >= 1), otherwise into copies with room for CHUNK stays.
+        Chunk append(int checkIn, int stayNights, int customer, int guestCount) {
+            if (length < days.length && nights[length] == 0) {
+                days[length] = checkIn;
+                guests[length] = (byte) guestCount;
+                customers[length] = customer;
+                nights[length] = (short) stayNights;   //Takes the slot
+                return new Chunk(days, nights, guests, customers, length + 1);
+            }
+            int capacity = Math.max(CHUNK, length + 1);
+            Chunk grown = new Chunk(Arrays.copyOf(days, capacity), Arrays.copyOf(nights, capacity),
+                    Arrays.copyOf(guests, capacity), Arrays.copyOf(customers, capacity), length);
+            Arrays.fill(grown.nights, length, capacity, (short) 0);
+            return grown.append(checkIn, stayNights, customer, guestCount);
+        }
+
+        Chunk with(int index, int checkIn, int stayNights, int customer, int guestCount) {
+            int[] d = new int[length + 1];
+            short[] n = new short[length + 1];
+            byte[] g = new byte[length + 1];
+            int[] c = new int[length + 1];
+            System.arraycopy(days, 0, d, 0, index);
+            System.arraycopy(nights, 0, n, 0, index);
+            System.arraycopy(guests, 0, g, 0, index);
+            System.arraycopy(customers, 0, c, 0, index);
+            d[index] = checkIn;
+            n[index] = (short) stayNights;
+            g[index] = (byte) guestCount;
+            c[index] = customer;
+            System.arraycopy(days, index, d, index + 1, length - index);
+            System.arraycopy(nights, index, n, index + 1, length - index);
+            System.arraycopy(guests, index, g, index + 1, length - index);
+            System.arraycopy(customers, index, c, index + 1, length - index);
+            return new Chunk(d, n, g, c);
+        }
+
+        Chunk without(int index) {
+            int remaining = length - 1;
+            int[] d = new int[remaining];
+            short[] n = new short[remaining];
+            byte[] g = new byte[remaining];
+            int[] c = new int[remaining];
+            System.arraycopy(days, 0, d, 0, index);
+            System.arraycopy(nights, 0, n, 0, index);
+            System.arraycopy(guests, 0, g, 0, index);
+            System.arraycopy(customers, 0, c, 0, index);
+            System.arraycopy(days, index + 1, d, index, remaining - index);
+            System.arraycopy(nights, index + 1, n, index, remaining - index);
+            System.arraycopy(guests, index + 1, g, index, remaining - index);
+            System.arraycopy(customers, index + 1, c, index, remaining - index);
+            return new Chunk(d, n, g, c);
+        }
+
+        Chunk slice(int from, int to) {
+            return new Chunk(Arrays.copyOfRange(days, from, to), Arrays.copyOfRange(nights, from, to),
+                    Arrays.copyOfRange(guests, from, to), Arrays.copyOfRange(customers, from, to));
+        }
+    }
+
+    //Empty table of the room.
+    RoomTable(int roomNumber, CustomerDictionary dictionary) {
+        this(roomNumber, dictionary, NO_CHUNKS, new int[0], 0);
+    }
+
+    private RoomTable(int roomNumber, CustomerDictionary dictionary, Chunk[] chunks, int[] firstDays, int size) {
+        this.roomNumber = roomNumber;
+        this.dictionary = dictionary;
+        this.chunks = chunks;
+        this.firstDays = firstDays;
+        this.size = size;
+    }
+
+    //This table plus a stay that overlaps no other. Most bookings land in the last chunk.
+    RoomTable insert(int checkIn, int stayNights, int customer, int guestCount) {
+        if (overlaps(checkIn, stayNights)) {
+            throw new IllegalStateException("Room " + roomNumber + " is already booked between day " + checkIn +
+                    " and day " + (checkIn + stayNights - 1) + ".");
+        }
+        if (chunks.length == 0) {
+            Chunk chunk = new Chunk(new int[] {checkIn}, new short[] {(short) stayNights}, new byte[] {(byte) guestCount},
+                    new int[] {customer});
+            return new RoomTable(roomNumber, dictionary, new Chunk[] {chunk}, new int[] {checkIn}, 1);
+        }
+        int c = Math.max(chunkFor(checkIn), 0);
+        Chunk chunk = chunks[c];
+        int index = -chunk.search(checkIn) - 1;
+        if (c == chunks.length - 1 && index == chunk.length() && index < CHUNK) {
+            return replace(c, 1, chunk.append(checkIn, stayNights, customer, guestCount));
+        }
+        Chunk grown = chunk.with(index, checkIn, stayNights, customer, guestCount);
+        if (grown.length() <= CHUNK) {
+            return replace(c, 1, grown);
+        }
+        int half = grown.length() / 2;
+        return replace(c, 1, grown.slice(0, half), grown.slice(half, grown.length()));
+    }
+
+    //This table plus the stays from..to-1 of the columns, sorted by check-in and overlapping neither each other
+    //nor this table. Chunks before the first new check-in are shared, the rest are rebuilt full: one pass for a
+    //whole import batch instead of a chunk copy per stay, and a date-ordered import only rewrites the last chunk.
+    RoomTable insertAll(int[] checkIns, short[] stayNights, byte[] guestCounts, int[] customerIds, int from, int to) {
+        if (from >= to) {return this;}
+        int first = chunks.length == 0 ? 0 : Math.max(chunkFor(checkIns[from]), 0);
+        List<Chunk> rebuilt = new ArrayList<>();
+        ChunkBuilder builder = new ChunkBuilder(rebuilt);
+        int next = from;
+        for (int c = first; c < chunks.length; c++) {
+            Chunk chunk = chunks[c];
+            for (int i = 0; i < chunk.length(); i++) {
+                for (; next < to && checkIns[next] < chunk.days[i]; next++) {
+                    builder.add(checkIns[next], stayNights[next], guestCounts[next], customerIds[next]);
+                }
+                builder.add(chunk.days[i], chunk.nights[i], chunk.guests[i], chunk.customers[i]);
+            }
+        }
+        for (; next < to; next++) {
+            builder.add(checkIns[next], stayNights[next], guestCounts[next], customerIds[next]);
+        }
+        builder.flush();
+        return replace(first, chunks.length - first, rebuilt.toArray(NO_CHUNKS));
+    }
+
+    //Cuts a run of stays in check-in order into full chunks.
+    private static final class ChunkBuilder {
+        private final List<Chunk> out;
+        private final int[] days = new int[CHUNK];
+        private final short[] nights = new short[CHUNK];
+        private final byte[] guests = new byte[CHUNK];
+        private final int[] customers = new int[CHUNK];
+        private int size;
+
+        ChunkBuilder(List<Chunk> out) {
+            this.out = out;
+        }
+
+        void add(int day, short stayNights, byte guestCount, int customer) {
+            days[size] = day;
+            nights[size] = stayNights;
+            guests[size] = guestCount;
+            customers[size] = customer;
+            if (++size == CHUNK) {flush();}
+        }
+
+        void flush() {
+            if (size == 0) {return;}
+            out.add(new Chunk(Arrays.copyOf(days, size), Arrays.copyOf(nights, size), Arrays.copyOf(guests, size),
+                    Arrays.copyOf(customers, size)));
+            size = 0;
+        }
+    }
+
+    //Chunks in check-in order, for scans over the columns (ReservationAnalytics).
+    int chunkCount() {
+        return chunks.length;
+    }
+
+    Chunk chunk(int index) {
+        return chunks[index];
+    }
+
+    //Check-in day's stay length, 0 if no stay checks in on the day.
+    int nightsOf(int checkIn) {
+        int c = chunkFor(checkIn);
+        if (c < 0) {return 0;}
+        int index = chunks[c].search(checkIn);
+        return index >= 0 ? chunks[c].nights[index] : 0;
+    }
+
+    //The customer's stay checking in on the day, or null. Compares ids, builds only the stay it returns.
+    Reservation get(int checkIn, int customer) {
+        int c = chunkFor(checkIn);
+        if (c < 0) {return null;}
+        Chunk chunk = chunks[c];
+        int index = chunk.search(checkIn);
+        if (index < 0 || chunk.customers[index] != customer) {return null;}
+        return toReservation(customer, checkIn, chunk.nights[index], chunk.guests[index]);
+    }
+
+    //True if the customer's stay for the guest count checks in on the day. Ints only, nothing is built.
+    boolean matches(int checkIn, int customer, int guestCount) {
+        int c = chunkFor(checkIn);
+        if (c < 0) {return false;}
+        int index = chunks[c].search(checkIn);
+        return index >= 0 && chunks[c].customers[index] == customer && chunks[c].guests[index] == guestCount;
+    }
+
+    //This table without the stay checking in on the day (the same table if there is none).
+    RoomTable remove(int checkIn) {
+        int c = chunkFor(checkIn);
+        if (c < 0) {return this;}
+        int index = chunks[c].search(checkIn);
+        if (index < 0) {return this;}
+        return chunks[c].length() == 1 ? replace(c, 1) : replace(c, 1, chunks[c].without(index));
+    }
+
+    //New version with count chunks from index on replaced by the given ones.
+    private RoomTable replace(int index, int count, Chunk... replacements) {
+        int length = chunks.length - count + replacements.length;
+        Chunk[] newChunks = new Chunk[length];
+        int[] newFirstDays = new int[length];
+        System.arraycopy(chunks, 0, newChunks, 0, index);
+        System.arraycopy(firstDays, 0, newFirstDays, 0, index);
+        int newSize = size;
+        for (int i = 0; i < count; i++) {
+            newSize -= chunks[index + i].length();
+        }
+        for (int i = 0; i < replacements.length; i++) {
+            newChunks[index + i] = replacements[i];
+            newFirstDays[index + i] = replacements[i].days[0];
+            newSize += replacements[i].length();
+        }
+        int tail = chunks.length - index - count;
+        System.arraycopy(chunks, index + count, newChunks, index + replacements.length, tail);
+        System.arraycopy(firstDays, index + count, newFirstDays, index + replacements.length, tail);
+        return new RoomTable(roomNumber, dictionary, newChunks, newFirstDays, newSize);
+    }
+
+    //True if a stay covers the day.
+    boolean contains(int day) {
+        return overlaps(day, 1);
+    }
+
+    //True if a stay covers any of the nights from checkIn on.
+    //The last stay checking in on or before the stay's last night is the only one that can overlap it.
+    boolean overlaps(int checkIn, int stayNights) {
+        int lastNight = (int) Math.min((long) checkIn + stayNights - 1, Integer.MAX_VALUE);
+        int c = chunkFor(lastNight);
+        if (c < 0) {return false;}
+        Chunk chunk = chunks[c];
+        int index = lastAtOrBefore(chunk, lastNight);
+        return (long) chunk.days[index] + chunk.nights[index] > checkIn;
+    }
+
+    //The stay covering the day, or null.
+    Reservation get(int day) {
+        int c = chunkFor(day);
+        if (c < 0) {return null;}
+        Chunk chunk = chunks[c];
+        int index = lastAtOrBefore(chunk, day);
+        if ((long) chunk.days[index] + chunk.nights[index] <= day) {return null;}
+        return toReservation(chunk.customers[index], chunk.days[index], chunk.nights[index], chunk.guests[index]);
+    }
+
+    //Check-in of the stay covering the day, or the day itself if no stay covers it.
+    long stayStart(long day) {
+        if (day != (int) day) {return day;}
+        int c = chunkFor((int) day);
+        if (c < 0) {return day;}
+        Chunk chunk = chunks[c];
+        int index = lastAtOrBefore(chunk, (int) day);
+        return (long) chunk.days[index] + chunk.nights[index] > day ? chunk.days[index] : day;
+    }
+
+    //Clears bit i of starts when a stay of the given nights checking in on fromDay + i (up to toDay) would overlap
+    //a stay of this table. A stay from a to b (last night) blocks the check-ins from a - nights + 1 to b.
+    void clearTakenStarts(long fromDay, long toDay, int stayNights, long[] starts) {
+        long first = stayStart(fromDay);
+        long last = toDay + stayNights - 1;
+        if (chunks.length == 0 || first > Integer.MAX_VALUE) {return;}
+        for (int c = first <= Integer.MIN_VALUE ? 0 : Math.max(chunkFor((int) first), 0); c < chunks.length; c++) {
+            Chunk chunk = chunks[c];
+            for (int index = lowerBound(chunk, first); index < chunk.length(); index++) {
+                long checkIn = chunk.days[index];
+                if (checkIn > last) {return;}
+                long from = Math.max(fromDay, checkIn - stayNights + 1) - fromDay;
+                long to = Math.min(toDay, checkIn + chunk.nights[index] - 1) - fromDay;
+                for (long bit = from; bit <= to; bit++) {
+                    starts[(int) (bit >>> 6)] &= ~(1L << bit);
+                }
+            }
+        }
+    }
+
+    //Stay index of chunk c as a Reservation.
+    Reservation stayAt(int c, int index) {
+        Chunk chunk = chunks[c];
+        return toReservation(chunk.customers[index], chunk.days[index], chunk.nights[index], chunk.guests[index]);
+    }
+
+    //Stays checking in from fromDay to toDay (both included), at most limit of them, by date.
+    List<Reservation> range(long fromDay, long toDay, int limit) {
+        List<Reservation> out = new ArrayList<>();
+        if (fromDay > toDay || limit <= 0 || chunks.length == 0) {return out;}
+        int c = fromDay <= Integer.MIN_VALUE ? 0 : fromDay > Integer.MAX_VALUE ? chunks.length : Math.max(chunkFor((int) fromDay), 0);
+        for (; c < chunks.length; c++) {
+            Chunk chunk = chunks[c];
+            int index = lowerBound(chunk, fromDay);
+            for (; index < chunk.length(); index++) {
+                if (chunk.days[index] > toDay || out.size() == limit) {return out;}
+                out.add(toReservation(chunk.customers[index], chunk.days[index], chunk.nights[index], chunk.guests[index]));
+            }
+        }
+        return out;
+    }
+
+    int size() {
+        return size;
+    }
+
+    //Last chunk whose first check-in is at or before the day, or -1.
+    private int chunkFor(int day) {
+        int index = Arrays.binarySearch(firstDays, day);
+        return index >= 0 ? index : -index - 2;
+    }
+
+    //Index of the last check-in at or before the day; the chunk's first check-in is at or before it.
+    private static int lastAtOrBefore(Chunk chunk, int day) {
+        int index = chunk.search(day);
+        return index >= 0 ? index : -index - 2;
+    }
+
+    //First index whose check-in is >= the given day.
+    private static int lowerBound(Chunk chunk, long day) {
+        if (day <= Integer.MIN_VALUE) {return 0;}
+        if (day > Integer.MAX_VALUE) {return chunk.length();}
+        int index = chunk.search((int) day);
+        return index >= 0 ? index : -index - 1;
+    }
+
+    private Reservation toReservation(int customer, int checkIn, int stayNights, int guestCount) {
+        LocalDate date = LocalDate.ofEpochDay(checkIn);
+        return new Reservation(dictionary.nameOf(customer), date, date.plusDays(stayNights), roomNumber, guestCount);
+    }
+}
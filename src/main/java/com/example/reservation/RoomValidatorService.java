@@ -1,12 +1,42 @@
 package com.example.reservation;
 
+import java.util.concurrent.atomic.AtomicReference;
+
+//Room and guest checks backed by compiled ValidationRules. setRules swaps the whole rule set at once, so a
+//request validated with one getRules() result never mixes old and new rules.
 public class RoomValidatorService {
+    private final AtomicReference<ValidationRules> rules;
+
+    public RoomValidatorService() {
+        this(ValidationRules.defaults());
+    }
+
+    public RoomValidatorService(ValidationRules rules) {
+        this.rules = new AtomicReference<>(rules);
+    }
+
+    public ValidationRules getRules() {
+        return rules.get();
+    }
+
+    //Hot swap: requests started before keep the rules they read.
+    public void setRules(ValidationRules newRules) {
+        if (newRules == null) {
+            throw new IllegalArgumentException("Rules must be given.");
+        }
+        rules.set(newRules);
+    }
 
     public boolean isValidRoomNumber(int roomNumber) {
-        return roomNumber >= 101 && roomNumber <= 199;
+        return rules.get().isValidRoom(roomNumber);
     }
 
     public boolean isValidGuestCount(int guestCount) {
-        return guestCount >= 1 && guestCount <= 4;
+        return rules.get().isValidGuestCount(guestCount);
+    }
+
+    public boolean isValidGuestCount(int roomNumber, int guestCount) {
+        ValidationRules current = rules.get();
+        return current.isValidRoom(roomNumber) && current.isValidGuestCount(roomNumber, guestCount);
     }
 }
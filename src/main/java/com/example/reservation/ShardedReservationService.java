@@ -0,0 +1,356 @@
+package com.example.reservation;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+//Rooms 101-199 split into N contiguous ranges, each owned by one shard: a ReservationService of its own
+//(store, indexes, log) and a single thread that runs every request for those rooms, so shards share nothing.
+//Requests for one room go to its shard; queries over all rooms scatter to every shard and gather the parts
+//in room order. Bookings, cancels and lookups also come as async variants returning a future.
+//Batches are best effort only: an all-or-nothing batch across shards would need a commit protocol.
+public class ShardedReservationService implements Closeable {
+    private final Shard[] shards;
+
+    //One range of rooms and the thread that owns it.
+    private static class Shard {
+        final int firstRoom;
+        final int lastRoom;
+        final ReservationService service;
+        final ExecutorService executor;
+
+        Shard(int index, int firstRoom, int lastRoom, ReservationService service) {
+            this.firstRoom = firstRoom;
+            this.lastRoom = lastRoom;
+            this.service = service;
+            this.executor = Executors.newSingleThreadExecutor(task -> {
+                Thread thread = new Thread(task, "reservation-shard-" + index);
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+
+        <T> CompletableFuture<T> submit(Function<ReservationService, T> request) {
+            return CompletableFuture.supplyAsync(() -> request.apply(service), executor);
+        }
+    }
+
+    //In-memory shards.
+    public ShardedReservationService(int shardCount) {
+        this(inMemory(shardCount));
+    }
+
+    private ShardedReservationService(ReservationService[] services) {
+        shards = new Shard[services.length];
+        for (int i = 0; i < services.length; i++) {
+            shards[i] = new Shard(i, firstRoom(i, services.length), firstRoom(i + 1, services.length) - 1, services[i]);
+        }
+    }
+
+    private static ReservationService[] inMemory(int shardCount) {
+        checkShardCount(shardCount);
+        ReservationService[] services = new ReservationService[shardCount];
+        Arrays.setAll(services, i -> new ReservationService());
+        return services;
+    }
+
+    //Durable shards, each with its own log and snapshots in dataDirectory/shard-<i>.
+    //The shard count of a data directory must not change between runs.
+    public static ShardedReservationService open(Path dataDirectory, int shardCount, int groupCommitSize) throws IOException {
+        checkShardCount(shardCount);
+        ReservationService[] services = new ReservationService[shardCount];
+        try {
+            for (int i = 0; i < shardCount; i++) {
+                services[i] = ReservationService.open(dataDirectory.resolve("shard-" + i), groupCommitSize);
+            }
+        } catch (IOException e) {
+            for (ReservationService service : services) {
+                if (service == null) {continue;}
+                try {
+                    service.close();
+                } catch (IOException suppressed) {
+                    e.addSuppressed(suppressed);
+                }
+            }
+            throw e;
+        }
+        return new ShardedReservationService(services);
+    }
+
+    private static void checkShardCount(int shardCount) {
+        if (shardCount < 1 || shardCount > OccupancyCalendar.ROOM_COUNT) {
+            throw new IllegalArgumentException("Shard count must be between 1 and " + OccupancyCalendar.ROOM_COUNT + ".");
+        }
+    }
+
+    private static int firstRoom(int shard, int shardCount) {
+        return OccupancyCalendar.FIRST_ROOM + shard * OccupancyCalendar.ROOM_COUNT / shardCount;
+    }
+
+    public int getShardCount() { return shards.length; }
+
+    //Change feed of each shard, in shard (room) order. Sequence numbers are per shard.
+    public List<ChangeFeed> getChangeFeeds() {
+        List<ChangeFeed> feeds = new ArrayList<>(shards.length);
+        for (Shard shard : shards) {
+            feeds.add(shard.service.getChangeFeed());
+        }
+        return feeds;
+    }
+
+    //Metrics of each shard, in shard (room) order.
+    public List<ReservationMetrics> getMetrics() {
+        List<ReservationMetrics> metrics = new ArrayList<>(shards.length);
+        for (Shard shard : shards) {
+            metrics.add(shard.service.getMetrics());
+        }
+        return metrics;
+    }
+
+    //Shard owning the room. Invalid or missing room numbers go to the first shard, whose service rejects them
+    //with the same checks and exceptions as an unsharded one.
+    private Shard shardFor(Integer roomNumber) {
+        return shards[shardIndex(roomNumber)];
+    }
+
+    private int shardIndex(Integer roomNumber) {
+        if (roomNumber == null || roomNumber < OccupancyCalendar.FIRST_ROOM || roomNumber > OccupancyCalendar.LAST_ROOM) {
+            return 0;
+        }
+        //Inverse of firstRoom: the last shard whose first room is at or before the room.
+        return ((roomNumber - OccupancyCalendar.FIRST_ROOM + 1) * shards.length - 1) / OccupancyCalendar.ROOM_COUNT;
+    }
+
+    //Waits for a shard's answer and rethrows the shard's exception as is.
+    private static <T> T join(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {throw cause;}
+            if (e.getCause() instanceof Error error) {throw error;}
+            throw e;
+        }
+    }
+
+    //Runs the query on every shard and hands back the answers in shard (room) order.
+    private <T> CompletableFuture<List<T>> scatter(Function<ReservationService, T> query) {
+        return scatterRanges((service, shard) -> query.apply(service));
+    }
+
+    //Same for queries that are limited to the shard's own rooms.
+    private <T> CompletableFuture<List<T>> scatterRanges(BiFunction<ReservationService, Shard, T> query) {
+        List<CompletableFuture<T>> parts = new ArrayList<>(shards.length);
+        for (Shard shard : shards) {
+            parts.add(shard.submit(service -> query.apply(service, shard)));
+        }
+        return CompletableFuture.allOf(parts.toArray(CompletableFuture<?>[]::new))
+                .thenApply(done -> parts.stream().map(CompletableFuture::join).toList());
+    }
+
+    //Single-room requests, routed to the room's shard.
+
+    public CompletableFuture<Boolean> addReservationAsync(String customerName, LocalDate date, Integer roomNumber, Integer guestCount) {
+        return shardFor(roomNumber).submit(service -> service.addReservation(customerName, date, roomNumber, guestCount));
+    }
+
+    public boolean addReservation(String customerName, LocalDate date, Integer roomNumber, Integer guestCount) {
+        return join(addReservationAsync(customerName, date, roomNumber, guestCount));
+    }
+
+    public CompletableFuture<BookingResult> tryAddReservationAsync(String customerName, LocalDate date, Integer roomNumber,
+                                                                   Integer guestCount) {
+        return shardFor(roomNumber).submit(service -> service.tryAddReservation(customerName, date, roomNumber, guestCount));
+    }
+
+    public BookingResult tryAddReservation(String customerName, LocalDate date, Integer roomNumber, Integer guestCount) {
+        return join(tryAddReservationAsync(customerName, date, roomNumber, guestCount));
+    }
+
+    public CompletableFuture<Boolean> addStayAsync(String customerName, LocalDate checkIn, LocalDate checkOut,
+                                                   Integer roomNumber, Integer guestCount) {
+        return shardFor(roomNumber).submit(service -> service.addStay(customerName, checkIn, checkOut, roomNumber, guestCount));
+    }
+
+    public boolean addStay(String customerName, LocalDate checkIn, LocalDate checkOut, Integer roomNumber, Integer guestCount) {
+        return join(addStayAsync(customerName, checkIn, checkOut, roomNumber, guestCount));
+    }
+
+    public CompletableFuture<Boolean> cancelReservationAsync(String customerName, LocalDate date, Integer roomNumber, Integer guestCount) {
+        return shardFor(roomNumber).submit(service -> service.cancelReservation(customerName, date, roomNumber, guestCount));
+    }
+
+    public boolean cancelReservation(String customerName, LocalDate date, Integer roomNumber, Integer guestCount) {
+        return join(cancelReservationAsync(customerName, date, roomNumber, guestCount));
+    }
+
+    public CompletableFuture<Reservation> findReservationAsync(String name, Integer room) {
+        return shardFor(room).submit(service -> service.findReservation(name, room));
+    }
+
+    public Reservation findReservation(String name, Integer room) {
+        return join(findReservationAsync(name, room));
+    }
+
+    public boolean isRoomAvailable(int roomNumber, LocalDate date) {
+        return join(shardFor(roomNumber).submit(service -> service.isRoomAvailable(roomNumber, date)));
+    }
+
+    public List<Reservation> getReservationsForRoom(int roomNumber) {
+        return join(shardFor(roomNumber).submit(service -> service.getReservationsForRoom(roomNumber)));
+    }
+
+    //Best-effort batch: split by shard, booked by every shard in parallel, results in request order.
+    public boolean[] addReservations(Collection<ReservationRequest> requests) {
+        ReservationRequest[] items = requests.toArray(new ReservationRequest[0]);
+        List<List<Integer>> positions = new ArrayList<>(shards.length);
+        for (int i = 0; i < shards.length; i++) {
+            positions.add(new ArrayList<>());
+        }
+        for (int i = 0; i < items.length; i++) {
+            positions.get(shardIndex(items[i] == null ? null : items[i].getRoomNumber())).add(i);
+        }
+
+        List<CompletableFuture<boolean[]>> parts = new ArrayList<>(shards.length);
+        for (int s = 0; s < shards.length; s++) {
+            List<ReservationRequest> part = new ArrayList<>(positions.get(s).size());
+            for (int position : positions.get(s)) {
+                part.add(items[position]);
+            }
+            parts.add(part.isEmpty() ? CompletableFuture.completedFuture(new boolean[0]) :
+                    shards[s].submit(service -> service.addReservations(part, BatchMode.BEST_EFFORT)));
+        }
+
+        boolean[] results = new boolean[items.length];
+        for (int s = 0; s < shards.length; s++) {
+            boolean[] part = join(parts.get(s));
+            for (int i = 0; i < part.length; i++) {
+                results[positions.get(s).get(i)] = part[i];
+            }
+        }
+        return results;
+    }
+
+    //Queries over all rooms: scatter to every shard, gather in room order.
+
+    public CompletableFuture<int[]> getAvailableRoomsAsync(LocalDate checkIn, LocalDate lastNight, int guestCount) {
+        return scatterRanges((service, shard) -> {
+            int[] rooms = new int[OccupancyCalendar.ROOM_COUNT];
+            int count = service.getAvailableRooms(checkIn, lastNight, guestCount, shard.firstRoom, shard.lastRoom, rooms);
+            return Arrays.copyOf(rooms, count);
+        }).thenApply(ShardedReservationService::concatRooms);
+    }
+
+    //Rooms free every night from checkIn to lastNight (both included) for the party, in room order.
+    public int[] getAvailableRooms(LocalDate checkIn, LocalDate lastNight, int guestCount) {
+        return join(getAvailableRoomsAsync(checkIn, lastNight, guestCount));
+    }
+
+    public int[] getAvailableRooms(LocalDate date) {
+        return join(scatterRanges((service, shard) -> {
+            int[] rooms = new int[OccupancyCalendar.ROOM_COUNT];
+            int count = service.getAvailableRooms(date, shard.firstRoom, shard.lastRoom, rooms);
+            return Arrays.copyOf(rooms, count);
+        }).thenApply(ShardedReservationService::concatRooms));
+    }
+
+    //Each shard answered for its own range only, and the ranges are in room order.
+    private static int[] concatRooms(List<int[]> parts) {
+        int[] rooms = new int[parts.stream().mapToInt(part -> part.length).sum()];
+        int count = 0;
+        for (int[] part : parts) {
+            System.arraycopy(part, 0, rooms, count, part.length);
+            count += part.length;
+        }
+        return rooms;
+    }
+
+    //The first limit free stays across all shards, ordered by check-in date, then room.
+    //Each shard searches its own rooms for at most limit stays; the first limit of their merge are the answer.
+    public List<AvailableStay> findAvailableStays(LocalDate from, LocalDate to, int nights, int guestCount, int limit) {
+        List<List<AvailableStay>> parts = join(scatterRanges((service, shard) ->
+                service.findAvailableStays(from, to, nights, guestCount, limit, shard.firstRoom, shard.lastRoom)));
+        List<AvailableStay> stays = new ArrayList<>();
+        parts.forEach(stays::addAll);
+        stays.sort(Comparator.comparing(AvailableStay::getCheckIn).thenComparingInt(AvailableStay::getRoomNumber));
+        return stays.size() > limit ? new ArrayList<>(stays.subList(0, Math.max(limit, 0))) : stays;
+    }
+
+    //All reservations of the customer, sorted by room and date.
+    public List<Reservation> getReservationsForCustomer(String name) {
+        return concat(join(scatter(service -> service.getReservationsForCustomer(name))));
+    }
+
+    //All reservations in (room, date) order.
+    public List<Reservation> getAllReservations() {
+        return concat(join(scatter(ReservationService::getAllReservations)));
+    }
+
+    private static List<Reservation> concat(List<List<Reservation>> parts) {
+        List<Reservation> all = new ArrayList<>(parts.stream().mapToInt(List::size).sum());
+        parts.forEach(all::addAll);
+        return all;
+    }
+
+    //Swaps the booking rules of every shard. Each request sees one rule set; a query running across shards
+    //during the swap may see the old rules on some shards and the new ones on others.
+    public void setValidationRules(ValidationRules rules) {
+        if (rules == null) {
+            throw new IllegalArgumentException("Rules must be given.");
+        }
+        for (Shard shard : shards) {
+            shard.service.setValidationRules(rules);
+        }
+    }
+
+    //Forces every shard's log to disk.
+    public void sync() throws IOException {
+        for (Shard shard : shards) {
+            shard.service.sync();
+        }
+    }
+
+    //Stops the shard threads after the queued requests ran, then closes the shards' logs. If the caller is
+    //interrupted while waiting, the remaining shards drop their queued requests and every shard is still closed;
+    //the interrupt is restored at the end.
+    @Override
+    public void close() throws IOException {
+        IOException failure = null;
+        boolean interrupted = false;
+        for (Shard shard : shards) {
+            shard.executor.shutdown();
+        }
+        for (Shard shard : shards) {
+            if (!interrupted) {
+                try {
+                    shard.executor.awaitTermination(30, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+            //awaitTermination does not clear a pending interrupt once the shard has stopped, and an interrupted
+            //thread's FileChannel.force closes the log instead of syncing it.
+            interrupted |= Thread.interrupted();
+            if (interrupted) {shard.executor.shutdownNow();}
+            try {
+                shard.service.close();
+            } catch (IOException e) {
+                if (failure == null) {failure = e;} else {failure.addSuppressed(e);}
+            }
+        }
+        if (interrupted) {Thread.currentThread().interrupt();}
+        if (failure != null) {throw failure;}
+    }
+}
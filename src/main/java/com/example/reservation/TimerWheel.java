@@ -0,0 +1,133 @@
+package com.example.reservation;
+
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+//Hashed timer wheel: a ring of buckets, one per tick. A timeout goes into the bucket of its deadline tick with
+//the number of full turns left, so scheduling and cancelling are O(1) and each tick only visits one bucket.
+//Millions of timeouts cost one small node each and no scheduler task.
+//schedule and cancel are safe from any thread; new timeouts are queued and moved into their buckets by advance,
+//which is driven by a single thread at a time.
+public class TimerWheel {
+    private static final int PENDING = 0;
+    private static final int CANCELLED = 1;
+    private static final int EXPIRED = 2;
+
+    private final long tickNanos;
+    private final long startNanos;
+    private final Timeout[] buckets;   //Head of each bucket's doubly-linked list.
+    private final int mask;
+    private final ConcurrentLinkedQueue<Timeout> added = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger size = new AtomicInteger();
+    private long tick;                 //Next tick to process.
+
+    //One scheduled task. cancel() is O(1), the node is unlinked when the wheel next passes its bucket.
+    public final class Timeout {
+        private final Runnable task;
+        private final long deadlineNanos;
+        private final AtomicInteger state = new AtomicInteger(PENDING);
+        private long rounds;
+        private Timeout prev;
+        private Timeout next;
+
+        private Timeout(Runnable task, long deadlineNanos) {
+            this.task = task;
+            this.deadlineNanos = deadlineNanos;
+        }
+
+        //Returns false if the task already ran or was cancelled before.
+        public boolean cancel() {
+            if (!state.compareAndSet(PENDING, CANCELLED)) {return false;}
+            size.decrementAndGet();
+            return true;
+        }
+
+        public boolean isExpired() { return state.get() == EXPIRED; }
+        public boolean isCancelled() { return state.get() == CANCELLED; }
+    }
+
+    //wheelSize is rounded up to a power of two. Deadlines are System.nanoTime()-style values from startNanos on.
+    public TimerWheel(long tickNanos, int wheelSize, long startNanos) {
+        if (tickNanos <= 0 || wheelSize < 1 || wheelSize > 1 << 30) {
+            throw new IllegalArgumentException("Tick must be positive and the wheel between 1 and 2^30 buckets.");
+        }
+        int buckets = Integer.highestOneBit(wheelSize - 1) << 1;
+        this.buckets = new Timeout[Math.max(buckets, 1)];
+        this.mask = this.buckets.length - 1;
+        this.tickNanos = tickNanos;
+        this.startNanos = startNanos;
+    }
+
+    public long getTickNanos() { return tickNanos; }
+
+    //Timeouts scheduled and neither run nor cancelled yet.
+    public int size() { return size.get(); }
+
+    //Runs the task from the first tick at or after the deadline. The task runs on the thread calling advance.
+    public Timeout schedule(Runnable task, long deadlineNanos) {
+        Timeout timeout = new Timeout(task, deadlineNanos);
+        size.incrementAndGet();
+        added.add(timeout);
+        return timeout;
+    }
+
+    //Processes every tick up to now and runs the timeouts that are due. Returns the number of tasks run.
+    public synchronized int advance(long nowNanos) {
+        int expired = 0;
+        long lastTick = Math.floorDiv(nowNanos - startNanos, tickNanos);
+        for (; tick <= lastTick; tick++) {
+            moveAdded();
+            expired += expire(buckets[(int) (tick & mask)]);
+        }
+        moveAdded();   //Keep the queue short between ticks.
+        return expired;
+    }
+
+    private void moveAdded() {
+        for (Timeout timeout; (timeout = added.poll()) != null; ) {
+            if (timeout.state.get() != PENDING) {continue;}
+            long deadlineTick = Math.max(ceilDiv(timeout.deadlineNanos - startNanos, tickNanos), tick);
+            timeout.rounds = (deadlineTick - tick) / buckets.length;
+            int bucket = (int) (deadlineTick & mask);
+            timeout.next = buckets[bucket];
+            if (timeout.next != null) {timeout.next.prev = timeout;}
+            buckets[bucket] = timeout;
+        }
+    }
+
+    private int expire(Timeout head) {
+        int expired = 0;
+        for (Timeout timeout = head; timeout != null; ) {
+            Timeout next = timeout.next;
+            if (timeout.state.get() == CANCELLED) {
+                unlink(timeout);
+            } else if (timeout.rounds <= 0) {
+                unlink(timeout);
+                if (timeout.state.compareAndSet(PENDING, EXPIRED)) {
+                    size.decrementAndGet();
+                    expired++;
+                    timeout.task.run();
+                }
+            } else {
+                timeout.rounds--;
+            }
+            timeout = next;
+        }
+        return expired;
+    }
+
+    private void unlink(Timeout timeout) {
+        if (timeout.prev != null) {
+            timeout.prev.next = timeout.next;
+        } else {
+            buckets[(int) (tick & mask)] = timeout.next;
+        }
+        if (timeout.next != null) {timeout.next.prev = timeout.prev;}
+        timeout.prev = null;
+        timeout.next = null;
+    }
+
+    private static long ceilDiv(long x, long y) {
+        return -Math.floorDiv(-x, y);
+    }
+}
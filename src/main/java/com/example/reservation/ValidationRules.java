@@ -0,0 +1,212 @@
+package com.example.reservation;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Properties;
+
+//Booking rules compiled into flat primitive arrays: per room 101-199 one guest range (min, max; an empty
+//range means the room is not bookable), plus the booking window in days from today.
+//Immutable, so a RoomValidatorService can swap a whole rule set atomically while requests are running.
+//
+//Configuration (java.util.Properties):
+//  roomType.<name>.rooms  = 101-150,160        room numbers and ranges of the type
+//  roomType.<name>.guests = 1-2                guest count range of the type
+//  booking.minDaysAhead   = 0                  first bookable day, from today (default 0)
+//  booking.maxDaysAhead   = 365                last bookable day, from today (default: one calendar year)
+//  message.room / message.guests               exception messages (optional)
+//Rooms outside every room type are not bookable. Room types must not overlap.
+public final class ValidationRules {
+    public static final int MAX_GUESTS = 15;        //Guest counts are stored in a nibble.
+    public static final int MAX_DAYS_AHEAD = 366;   //The occupancy calendar covers today plus one leap year.
+    private static final int SHORTEST_YEAR = 365;   //Days from today to the same date next year, at least.
+
+    private static final String DEFAULT_ROOM_MESSAGE = "Room number must be selected between 101-199 (101 and 199 included).";
+    private static final String DEFAULT_GUEST_MESSAGE = "Guest count must be between 1-4. (1 and 4 included)";
+
+    private static final ValidationRules DEFAULTS = defaultRules();
+
+    private final int[] guestRanges;   //2 ints per room: min, max.
+    private final int anyRoomGuests;   //Bit g set if some room takes g guests.
+    private final int minDaysAhead;
+    private final int maxDaysAhead;    //Unused when oneYear
+    private final boolean oneYear;     //No maxDaysAhead given: up to the same date next year, as BookingWindow
+    private final String roomMessage;
+    private final String guestMessage;
+
+    private ValidationRules(int[] guestRanges, int minDaysAhead, int maxDaysAhead, boolean oneYear, String roomMessage,
+                            String guestMessage) {
+        this.guestRanges = guestRanges;
+        this.minDaysAhead = minDaysAhead;
+        this.maxDaysAhead = maxDaysAhead;
+        this.oneYear = oneYear;
+        this.roomMessage = roomMessage;
+        this.guestMessage = guestMessage;
+        int any = 0;
+        for (int i = 0; i < guestRanges.length; i += 2) {
+            for (int g = guestRanges[i]; g <= guestRanges[i + 1]; g++) {
+                any |= 1 << g;
+            }
+        }
+        this.anyRoomGuests = any;
+    }
+
+    //The rules the service always had: rooms 101-199, 1-4 guests, today up to 1 year later.
+    public static ValidationRules defaults() {
+        return DEFAULTS;
+    }
+
+    private static ValidationRules defaultRules() {
+        int[] ranges = new int[2 * OccupancyCalendar.ROOM_COUNT];
+        for (int i = 0; i < ranges.length; i += 2) {
+            ranges[i] = 1;
+            ranges[i + 1] = 4;
+        }
+        return new ValidationRules(ranges, 0, 0, true, DEFAULT_ROOM_MESSAGE, DEFAULT_GUEST_MESSAGE);
+    }
+
+    public static ValidationRules load(Path file) throws IOException {
+        Properties config = new Properties();
+        try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            config.load(reader);
+        }
+        return compile(config);
+    }
+
+    //Compiles a configuration. Throws IllegalArgumentException naming the first bad entry.
+    public static ValidationRules compile(Properties config) {
+        int[] ranges = new int[2 * OccupancyCalendar.ROOM_COUNT];
+        for (int i = 0; i < ranges.length; i += 2) {
+            ranges[i] = 1;      //Empty range: not bookable until a room type claims the room.
+            ranges[i + 1] = 0;
+        }
+        boolean[] claimed = new boolean[OccupancyCalendar.ROOM_COUNT];
+        int types = 0;
+
+        for (String key : config.stringPropertyNames()) {
+            if (!key.startsWith("roomType.") || !key.endsWith(".rooms")) {continue;}
+            String type = key.substring("roomType.".length(), key.length() - ".rooms".length());
+            String guestsKey = "roomType." + type + ".guests";
+            int[] guests = range(guestsKey, required(config, guestsKey));
+            if (guests[0] < 1 || guests[1] > MAX_GUESTS) {
+                throw new IllegalArgumentException(guestsKey + " must be within 1-" + MAX_GUESTS + ".");
+            }
+            for (String part : config.getProperty(key).split(",")) {
+                int[] rooms = range(key, part);
+                if (rooms[0] < OccupancyCalendar.FIRST_ROOM || rooms[1] > OccupancyCalendar.LAST_ROOM) {
+                    throw new IllegalArgumentException(key + " must be within " + OccupancyCalendar.FIRST_ROOM + "-" +
+                            OccupancyCalendar.LAST_ROOM + ".");
+                }
+                for (int room = rooms[0]; room <= rooms[1]; room++) {
+                    int index = room - OccupancyCalendar.FIRST_ROOM;
+                    if (claimed[index]) {
+                        throw new IllegalArgumentException("Room " + room + " belongs to more than one room type.");
+                    }
+                    claimed[index] = true;
+                    ranges[2 * index] = guests[0];
+                    ranges[2 * index + 1] = guests[1];
+                }
+            }
+            types++;
+        }
+        if (types == 0) {
+            throw new IllegalArgumentException("At least one roomType.<name>.rooms entry is needed.");
+        }
+
+        int minDaysAhead = number(config, "booking.minDaysAhead", 0);
+        boolean oneYear = config.getProperty("booking.maxDaysAhead") == null;
+        int maxDaysAhead = number(config, "booking.maxDaysAhead", 0);
+        if (minDaysAhead < 0 || maxDaysAhead < 0) {
+            throw new IllegalArgumentException("booking.minDaysAhead and booking.maxDaysAhead must not be negative.");
+        }
+        //Without maxDaysAhead the last day is one year on, so a first day is checked against the shortest year.
+        int lastDayAhead = oneYear ? SHORTEST_YEAR : maxDaysAhead;
+        if (lastDayAhead > MAX_DAYS_AHEAD || lastDayAhead < minDaysAhead) {
+            throw new IllegalArgumentException("Booking window must satisfy 0 <= minDaysAhead <= maxDaysAhead <= " +
+                    MAX_DAYS_AHEAD + " (one year if maxDaysAhead is not given).");
+        }
+        return new ValidationRules(ranges, minDaysAhead, maxDaysAhead, oneYear,
+                config.getProperty("message.room", "Room number is not bookable."),
+                config.getProperty("message.guests", "Guest count is not allowed for this room."));
+    }
+
+    private static String required(Properties config, String key) {
+        String value = config.getProperty(key);
+        if (value == null) {
+            throw new IllegalArgumentException(key + " is missing.");
+        }
+        return value;
+    }
+
+    //"a-b" or "a" as {a, b}.
+    private static int[] range(String key, String value) {
+        String[] bounds = value.trim().split("-", 2);
+        try {
+            int from = Integer.parseInt(bounds[0].trim());
+            int to = bounds.length == 2 ? Integer.parseInt(bounds[1].trim()) : from;
+            if (from > to) {
+                throw new IllegalArgumentException(key + " has an empty range: " + value.trim() + ".");
+            }
+            return new int[] {from, to};
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(key + " is not a number or range: " + value.trim() + ".", e);
+        }
+    }
+
+    private static int number(Properties config, String key, int defaultValue) {
+        String value = config.getProperty(key);
+        if (value == null) {return defaultValue;}
+        try {
+            return Integer.parseInt(value.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(key + " is not a number: " + value.trim() + ".", e);
+        }
+    }
+
+    //True if some room type contains the room.
+    public boolean isValidRoom(int roomNumber) {
+        int index = roomNumber - OccupancyCalendar.FIRST_ROOM;
+        return index >= 0 && index < OccupancyCalendar.ROOM_COUNT && guestRanges[2 * index] <= guestRanges[2 * index + 1];
+    }
+
+    //True if the room takes the guest count. The room must be valid.
+    public boolean isValidGuestCount(int roomNumber, int guestCount) {
+        int index = 2 * (roomNumber - OccupancyCalendar.FIRST_ROOM);
+        return guestCount >= guestRanges[index] && guestCount <= guestRanges[index + 1];
+    }
+
+    //True if at least one room takes the guest count.
+    public boolean isValidGuestCount(int guestCount) {
+        return guestCount >= 1 && guestCount <= MAX_GUESTS && (anyRoomGuests & 1 << guestCount) != 0;
+    }
+
+    //Reservations for days before the first bookable day cannot be made.
+    public boolean isPast(BookingWindow.Bounds bounds, long epochDay) {
+        return epochDay < bounds.getToday() + minDaysAhead;
+    }
+
+    //Reservations can be made up to the last bookable day.
+    public boolean isTooFar(BookingWindow.Bounds bounds, long epochDay) {
+        return oneYear ? bounds.isTooFar(epochDay) : epochDay > bounds.getToday() + maxDaysAhead;
+    }
+
+    public long firstBookableDay(BookingWindow.Bounds bounds) {
+        return bounds.getToday() + minDaysAhead;
+    }
+
+    public long lastBookableDay(BookingWindow.Bounds bounds) {
+        return oneYear ? bounds.getLastBookableDay() : bounds.getToday() + maxDaysAhead;
+    }
+
+    public String getRoomMessage() { return roomMessage; }
+    public String getGuestMessage() { return guestMessage; }
+
+    @Override
+    public String toString() {
+        return "ValidationRules {guestRanges=" + Arrays.toString(guestRanges) + ", minDaysAhead=" + minDaysAhead +
+                ", maxDaysAhead=" + (oneYear ? "one year" : maxDaysAhead) + "}";
+    }
+}
@@ -0,0 +1,87 @@
+package com.example.reservation;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+//Heap allocated by the booking path, counted by the JVM per thread (the numbers the gc profiler of
+//BookingAllocationBenchmark reports per operation).
+class BookingAllocationTests {
+
+    private static final int CALLS = 20_000;
+
+    private com.sun.management.ThreadMXBean threads;
+    private ReservationService reservationService;
+    private LocalDate tomorrow;
+
+    @BeforeEach
+    void setUp() {
+        assumeTrue(ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean,
+                "Needs per-thread allocation counters");
+        threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        assumeTrue(threads.isThreadAllocatedMemorySupported() && threads.isThreadAllocatedMemoryEnabled(),
+                "Needs per-thread allocation counters");
+        reservationService = new ReservationService();
+        tomorrow = LocalDate.now().plusDays(1);
+    }
+
+    //Bytes allocated by CALLS rejected requests of every kind, after a warm-up round.
+    private long rejectedBytes() {
+        LocalDate past = tomorrow.minusDays(2);
+        LocalDate tooFar = tomorrow.plusYears(2);
+        Integer room = 150;   //Boxing 150 allocates, so the boxed API gets its Integer from outside the loop.
+        long bytes = 0;
+        for (int round = 0; round < 2; round++) {
+            long before = threads.getCurrentThreadAllocatedBytes();
+            for (int i = 0; i < CALLS; i++) {
+                assertFalse(reservationService.tryAddReservation("Bot", tomorrow, 150, 2).isBooked());   //Conflict
+                assertFalse(reservationService.tryAddReservation("Bot", past, 150, 2).isBooked());
+                assertFalse(reservationService.tryAddReservation("Bot", tooFar, 150, 2).isBooked());
+                assertFalse(reservationService.tryAddReservation("Bot", tomorrow, 250, 2).isBooked());
+                assertFalse(reservationService.tryAddReservation("Bot", tomorrow, 150, 9).isBooked());
+                assertFalse(reservationService.tryAddReservation(null, tomorrow, 150, 2).isBooked());
+                assertFalse(reservationService.addReservation("Bot", tomorrow, room, 2));
+            }
+            bytes = threads.getCurrentThreadAllocatedBytes() - before;
+        }
+        return bytes;
+    }
+
+    @Test
+    @DisplayName("Rejected bookings allocate nothing")
+    void testRejectedBookingsDoNotAllocate() {
+        assertTrue(reservationService.addReservation("Taken", tomorrow, 150, 2));
+
+        long bytes = rejectedBytes();
+
+        assertEquals(0, bytes / CALLS, "Bytes per round of rejected requests, total " + bytes);
+    }
+
+    @Test
+    @DisplayName("Successful bookings allocate only the copied chunk and view path, no Reservation")
+    void testBookingAllocatesOnlyTableGrowth() {
+        //Warm-up on another service so the measured one starts with empty tables.
+        ReservationService warmUp = new ReservationService();
+        for (int i = 0; i < 99 * 300; i++) {
+            warmUp.tryAddReservation("Guest", tomorrow.plusDays(i / 99), 101 + i % 99, 2);
+        }
+
+        long before = threads.getCurrentThreadAllocatedBytes();
+        for (int i = 0; i < 99 * 300; i++) {
+            assertTrue(reservationService.tryAddReservation("Guest", tomorrow.plusDays(i / 99), 101 + i % 99, 2).isBooked());
+        }
+        long perBooking = (threads.getCurrentThreadAllocatedBytes() - before) / (99 * 300);
+
+        //Budget, about 500 B measured: the new version of the room's table (its chunk directory and the last chunk's
+        //header, the stay itself goes into the chunk's spare slots), the published view's root and room group, the
+        //customer's slot array growth and tomorrow.plusDays in this loop. Before views were published per booking
+        //this was under 100 B. Still no Reservation, LocalDate or boxed Integer is kept per booking.
+        assertTrue(perBooking < 600, "Bytes per booking: " + perBooking);
+    }
+}
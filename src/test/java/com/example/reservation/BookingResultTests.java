@@ -0,0 +1,48 @@
+package com.example.reservation;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BookingResultTests {
+
+    private ReservationService reservationService;
+    private LocalDate tomorrow;
+
+    @BeforeEach
+    void setUp() {
+        reservationService = new ReservationService();
+        tomorrow = LocalDate.now().plusDays(1);
+    }
+
+    @Test
+    @DisplayName("Every outcome comes back as a result code")
+    void testResultCodes() {
+        assertEquals(BookingResult.OK, reservationService.tryAddReservation("Ali", tomorrow, 120, 2));
+        assertEquals(BookingResult.CONFLICT, reservationService.tryAddReservation("Veli", tomorrow, 120, 2));
+        assertEquals(BookingResult.NULL_FIELD, reservationService.tryAddReservation(null, tomorrow, 120, 2));
+        assertEquals(BookingResult.NULL_FIELD, reservationService.tryAddReservation("Ali", tomorrow, null, 2));
+        assertEquals(BookingResult.PAST_DATE, reservationService.tryAddReservation("Ali", tomorrow.minusDays(2), 120, 2));
+        assertEquals(BookingResult.TOO_FAR, reservationService.tryAddReservation("Ali", tomorrow.plusYears(2), 120, 2));
+        assertEquals(BookingResult.BAD_ROOM, reservationService.tryAddReservation("Ali", tomorrow, 200, 2));
+        assertEquals(BookingResult.BAD_GUESTS, reservationService.tryAddReservation("Ali", tomorrow, 121, 5));
+        assertEquals(1, reservationService.getAllReservations().size(), "Only the first request booked");
+    }
+
+    @Test
+    @DisplayName("Checks run in the order of addReservation")
+    void testCheckOrder() {
+        //A past date is reported before the bad room, as addReservation returns false there instead of throwing.
+        assertEquals(BookingResult.PAST_DATE, reservationService.tryAddReservation("Ali", tomorrow.minusDays(2), 200, 9));
+        assertFalse(reservationService.addReservation("Ali", tomorrow.minusDays(2), 200, 9));
+        //A bad room is reported before bad guests.
+        assertEquals(BookingResult.BAD_ROOM, reservationService.tryAddReservation("Ali", tomorrow, 200, 9));
+        IndexOutOfBoundsException exception = assertThrows(IndexOutOfBoundsException.class,
+                () -> reservationService.addReservation("Ali", tomorrow, 200, 9));
+        assertEquals("Room number must be selected between 101-199 (101 and 199 included).", exception.getMessage());
+    }
+}
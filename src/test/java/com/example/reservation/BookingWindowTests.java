@@ -0,0 +1,93 @@
+package com.example.reservation;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BookingWindowTests {
+
+    private static final ZoneId ZONE = ZoneId.of("Europe/Istanbul");
+
+    //Clock the test moves by hand.
+    private static class MovableClock extends Clock {
+        private Instant now;
+
+        MovableClock(LocalDateTime start) {
+            now = start.atZone(ZONE).toInstant();
+        }
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override public ZoneId getZone() { return ZONE; }
+        @Override public Clock withZone(ZoneId zone) { throw new UnsupportedOperationException(); }
+        @Override public Instant instant() { return now; }
+    }
+
+    private MovableClock clock;
+
+    @BeforeEach
+    void setUp() {
+        clock = new MovableClock(LocalDateTime.of(2030, 6, 15, 23, 59, 59));
+    }
+
+    @Test
+    @DisplayName("Bounds follow the clock's day and roll over at its midnight")
+    void testRollover() {
+        BookingWindow window = new BookingWindow(clock);
+        BookingWindow.Bounds before = window.current();
+
+        assertEquals(LocalDate.of(2030, 6, 15).toEpochDay(), before.getToday(), "Today in the clock's zone");
+        assertEquals(LocalDate.of(2031, 6, 15).toEpochDay(), before.getLastBookableDay(), "One year later");
+        assertSame(before, window.current(), "Cached within the day");
+
+        clock.advance(Duration.ofSeconds(1));
+        BookingWindow.Bounds after = window.current();
+
+        assertEquals(LocalDate.of(2030, 6, 16).toEpochDay(), after.getToday(), "Next day after midnight");
+        assertEquals(LocalDate.of(2031, 6, 16).toEpochDay(), after.getLastBookableDay(), "Window moved with it");
+        assertTrue(before.isBookable(before.getToday()) && after.isPast(before.getToday()), "Yesterday is past now");
+    }
+
+    @Test
+    @DisplayName("Bounds match the LocalDate checks of addReservation, also around 29 February")
+    void testSameAsLocalDateChecks() {
+        for (LocalDate today = LocalDate.of(2027, 1, 1); today.isBefore(LocalDate.of(2029, 1, 1)); today = today.plusDays(1)) {
+            BookingWindow window = new BookingWindow(Clock.fixed(today.atStartOfDay(ZONE).toInstant(), ZONE));
+            BookingWindow.Bounds bounds = window.current();
+            for (int offset = -2; offset <= 370; offset += 1) {
+                LocalDate date = today.plusDays(offset);
+                boolean expected = !date.isBefore(today) && !date.minusYears(1).isAfter(today);
+                assertEquals(expected, bounds.isBookable(date.toEpochDay()), today + " booking " + date);
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Service validates dates against its injected clock")
+    void testServiceUsesClock() {
+        ReservationService reservationService = new ReservationService(clock);
+        LocalDate today = LocalDate.of(2030, 6, 15);
+
+        assertTrue(reservationService.addReservation("Ali", today, 120, 2), "Today is bookable");
+        assertTrue(reservationService.addReservation("Ali", today.plusYears(1), 120, 2), "One year later is bookable");
+        assertFalse(reservationService.addReservation("Ali", today.plusYears(1).plusDays(1), 120, 2), "Too far");
+
+        clock.advance(Duration.ofSeconds(1));
+
+        assertFalse(reservationService.addReservation("Veli", today, 121, 2), "Yesterday after midnight");
+        assertTrue(reservationService.addReservation("Veli", today.plusYears(1).plusDays(1), 121, 2),
+                "Window moved forward at midnight");
+        assertFalse(reservationService.isRoomAvailable(120, today.plusYears(1)), "Calendar still holds the booking");
+    }
+}
@@ -0,0 +1,134 @@
+package com.example.reservation;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ChangeFeedTests {
+
+    private ReservationService reservationService;
+    private ChangeFeed feed;
+    private LocalDate tomorrow;
+
+    @BeforeEach
+    void setUp() {
+        reservationService = new ReservationService();
+        feed = reservationService.openChangeFeed(8);
+        tomorrow = LocalDate.now().plusDays(1);
+    }
+
+    private List<ReservationEvent> drain(ChangeFeed.Subscription subscription) {
+        List<ReservationEvent> events = new ArrayList<>();
+        subscription.drainTo(events::add, Integer.MAX_VALUE);
+        return events;
+    }
+
+    @Test
+    @DisplayName("Adds, stays, confirmed holds and cancels are published in order")
+    void testServiceEvents() {
+        ChangeFeed.Subscription subscription = feed.subscribe(0);
+        reservationService.addReservation("Ali", tomorrow, 120, 2);
+        reservationService.addReservation("Veli", tomorrow, 120, 2);   //Conflict, nothing published
+        reservationService.addStay("Ayse", tomorrow, tomorrow.plusDays(3), 121, 3);
+        long hold = reservationService.holdReservation("Can", tomorrow, 122, 1, Duration.ofMinutes(5));
+        assertTrue(reservationService.confirmHold(hold));
+        reservationService.cancelReservation("Ali", tomorrow, 120, 2);
+
+        List<ReservationEvent> events = drain(subscription);
+
+        assertEquals(4, events.size());
+        for (int i = 0; i < events.size(); i++) {
+            assertEquals(i, events.get(i).getSequence(), "Sequence numbers are dense");
+        }
+        assertEquals(ReservationEvent.Type.ADDED, events.get(0).getType());
+        assertEquals(new Reservation("Ali", tomorrow, 120, 2), events.get(0).getReservation());
+        assertEquals(3, events.get(1).getNights(), "Whole stay in one event");
+        assertEquals("Can", events.get(2).getCustomerName(), "Confirmed hold");
+        assertEquals(ReservationEvent.Type.CANCELLED, events.get(3).getType());
+        assertEquals(120, events.get(3).getRoomNumber());
+        assertNull(subscription.poll(), "Nothing more yet");
+    }
+
+    @Test
+    @DisplayName("A subscriber resumes from the sequence number it stopped at")
+    void testResume() {
+        ChangeFeed.Subscription first = feed.subscribe(feed.getNextSequence());
+        reservationService.addReservation("Ali", tomorrow, 120, 2);
+        reservationService.addReservation("Ali", tomorrow, 121, 2);
+        assertNotNull(first.poll());
+        long resumeAt = first.getNextSequence();
+
+        reservationService.addReservation("Ali", tomorrow, 122, 2);
+        ChangeFeed.Subscription resumed = feed.subscribe(resumeAt);
+
+        List<ReservationEvent> events = drain(resumed);
+        assertEquals(List.of(121, 122), events.stream().map(ReservationEvent::getRoomNumber).toList());
+        assertThrows(IllegalArgumentException.class, () -> feed.subscribe(feed.getNextSequence() + 1), "Future sequence");
+    }
+
+    @Test
+    @DisplayName("A slow subscriber never blocks bookings and learns that it was lapped")
+    void testSlowSubscriber() {
+        ChangeFeed.Subscription slow = feed.subscribe(0);
+        for (int room = 101; room <= 130; room++) {
+            assertTrue(reservationService.addReservation("Ali", tomorrow, room, 2), "Booking is not held up");
+        }
+
+        assertEquals(8, feed.getCapacity());
+        assertEquals(22, feed.getOldestSequence());
+        assertThrows(IllegalStateException.class, slow::poll, "Lapped subscriber is told, not handed wrong events");
+
+        List<ReservationEvent> events = drain(feed.subscribe(feed.getOldestSequence()));
+        assertEquals(8, events.size(), "Last capacity events are still there");
+        assertEquals(130, events.get(7).getRoomNumber());
+    }
+
+    @Test
+    @DisplayName("Concurrent publishers hand out every sequence number exactly once")
+    void testConcurrentPublishers() throws Exception {
+        ChangeFeed large = new ChangeFeed(1 << 16);
+        ChangeFeed.Subscription subscription = large.subscribe(0);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<?>> publishers = new ArrayList<>();
+            for (int t = 0; t < 4; t++) {
+                int room = 101 + t;
+                publishers.add(executor.submit(() -> {
+                    for (int i = 0; i < 10_000; i++) {
+                        large.publish(ReservationEvent.Type.ADDED, "Publisher", tomorrow, 1, room, i % 4 + 1);
+                    }
+                }));
+            }
+            long expected = 0;
+            int[] lastPerRoom = new int[4];
+            while (expected < 40_000) {
+                ReservationEvent event = subscription.poll();
+                if (event == null) {
+                    Thread.onSpinWait();
+                    continue;
+                }
+                assertEquals(expected++, event.getSequence(), "In sequence order");
+                int publisher = event.getRoomNumber() - 101;
+                assertEquals(lastPerRoom[publisher] % 4 + 1, event.getGuestCount(), "Each publisher's events in its order");
+                lastPerRoom[publisher]++;
+            }
+            for (Future<?> publisher : publishers) {
+                publisher.get();
+            }
+        } finally {
+            executor.shutdown();
+            assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package com.example.reservation;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CustomerDictionaryTests {
+
+    private CustomerDictionary dictionary;
+
+    @BeforeEach
+    void setUp() {
+        dictionary = new CustomerDictionary();
+    }
+
+    @Test
+    @DisplayName("Each name gets one dense id and resolves back to one instance")
+    void testIntern() {
+        int ali = dictionary.intern("Ali");
+        int veli = dictionary.intern("Veli");
+
+        assertEquals(0, ali);
+        assertEquals(1, veli);
+        assertEquals(ali, dictionary.intern(new String("Ali")), "Equal names share the id");
+        assertEquals(veli, dictionary.idOf("Veli"));
+        assertEquals(CustomerDictionary.UNKNOWN, dictionary.idOf("Nobody"), "Lookup does not assign");
+        assertSame(dictionary.nameOf(ali), dictionary.nameOf(dictionary.intern(new String("Ali"))), "One name instance");
+        assertNull(dictionary.nameOf(2));
+        assertNull(dictionary.nameOf(CustomerDictionary.UNKNOWN));
+        assertEquals(2, dictionary.size());
+    }
+
+    @Test
+    @DisplayName("Concurrent interning hands out every id exactly once, across pages")
+    void testConcurrentIntern() throws Exception {
+        int names = 5_000;
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<int[]>> workers = new ArrayList<>();
+            for (int t = 0; t < 4; t++) {
+                workers.add(executor.submit(() -> {
+                    int[] ids = new int[names];
+                    for (int i = 0; i < names; i++) {
+                        ids[i] = dictionary.intern("Customer" + i);
+                        assertEquals("Customer" + i, dictionary.nameOf(ids[i]), "Resolvable as soon as handed out");
+                    }
+                    return ids;
+                }));
+            }
+            int[] first = workers.get(0).get();
+            for (Future<int[]> worker : workers) {
+                assertArrayEquals(first, worker.get(), "Every thread sees the same ids");
+            }
+            Set<Integer> distinct = new HashSet<>();
+            for (int id : first) {
+                assertTrue(id >= 0 && id < names, "Dense ids");
+                distinct.add(id);
+            }
+            assertEquals(names, distinct.size());
+            assertEquals(names, dictionary.size());
+        } finally {
+            executor.shutdown();
+            assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+        }
+    }
+
+    @Test
+    @DisplayName("The service compares customers by id but returns their names")
+    void testServiceUsesIds() {
+        ReservationService reservationService = new ReservationService();
+        LocalDate tomorrow = LocalDate.now().plusDays(1);
+        reservationService.addReservation("Ali", tomorrow, 120, 2);
+        reservationService.addReservation(new String("Ali"), tomorrow, 121, 2);
+        reservationService.addReservation("Veli", tomorrow, 122, 2);
+
+        assertFalse(reservationService.cancelReservation("Nobody", tomorrow, 120, 2), "Unknown name");
+        assertFalse(reservationService.cancelReservation("Veli", tomorrow, 120, 2), "Another customer's booking");
+        assertSame(reservationService.findReservation("Ali", 120).getCustomerName(),
+                reservationService.findReservation("Ali", 121).getCustomerName(), "One stored name per customer");
+
+        assertTrue(reservationService.cancelReservation("Ali", tomorrow, 120, 2));
+        assertTrue(reservationService.cancelReservation("Ali", tomorrow, 121, 2));
+        assertEquals(1, reservationService.getMetrics().getCustomerCount(), "Only Veli still has bookings");
+        assertTrue(reservationService.addReservation("Ali", tomorrow, 120, 2), "Rebooking reuses the id");
+        assertEquals(tomorrow, reservationService.findReservation("Ali", 120).getDateTime());
+    }
+}
@@ -0,0 +1,65 @@
+package com.example.reservation;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LatencyHistogramTests {
+
+    private LatencyHistogram histogram;
+
+    @BeforeEach
+    void setUp() {
+        histogram = new LatencyHistogram();
+    }
+
+    @Test
+    @DisplayName("Buckets are contiguous and each bound is within 1/16 of the values it holds")
+    void testBuckets() {
+        for (long value = 0; value < 1 << 20; value++) {
+            int index = LatencyHistogram.bucketIndex(value);
+            long upper = LatencyHistogram.bucketUpperBound(index);
+            assertTrue(upper >= value && upper - value <= value / 16, value + " in bucket up to " + upper);
+            if (value > 0) {
+                int previous = LatencyHistogram.bucketIndex(value - 1);
+                assertTrue(index == previous || index == previous + 1, "No gap at " + value);
+            }
+        }
+        assertEquals(LatencyHistogram.bucketIndex(1L << 50), LatencyHistogram.bucketIndex(Long.MAX_VALUE),
+                "Huge values share the last bucket");
+    }
+
+    @Test
+    @DisplayName("Percentiles match the exact ones within the bucket precision")
+    void testPercentiles() {
+        Random random = new Random(7);
+        long[] values = new long[100_000];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = 1_000 + (long) (Math.abs(random.nextGaussian()) * 50_000);   //Long tail above 1 us.
+            histogram.record(values[i]);
+        }
+        Arrays.sort(values);
+
+        assertEquals(values.length, histogram.getCount());
+        for (double percentile : new double[] {50, 90, 99, 99.9, 100}) {
+            long exact = values[(int) Math.ceil(percentile / 100 * values.length) - 1];
+            long reported = histogram.getValueAtPercentile(percentile);
+            assertTrue(reported >= exact && reported - exact <= exact / 16, "p" + percentile + ": " + reported + " vs " + exact);
+        }
+    }
+
+    @Test
+    @DisplayName("An empty or reset histogram reports zero")
+    void testEmpty() {
+        assertEquals(0, histogram.getValueAtPercentile(99));
+        histogram.record(12_345);
+        histogram.reset();
+        assertEquals(0, histogram.getCount());
+        assertEquals(0, histogram.getMeanNanos());
+    }
+}
@@ -0,0 +1,130 @@
+package com.example.reservation;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OccupancyCalendarTests {
+
+    private static final long TODAY = LocalDate.of(2030, 1, 1).toEpochDay();
+
+    private OccupancyCalendar calendar;
+
+    @BeforeEach
+    void setUp() {
+        calendar = new OccupancyCalendar(TODAY);
+    }
+
+    @Test
+    @DisplayName("Occupied day is not free, neighbouring days and rooms are")
+    void testOccupyAndRelease() {
+        calendar.occupy(150, TODAY + 10);
+
+        assertTrue(calendar.isOccupied(150, TODAY + 10), "Day should be occupied");
+        assertTrue(calendar.isFree(150, TODAY + 11), "Next day should be free");
+        assertTrue(calendar.isFree(151, TODAY + 10), "Other room should be free");
+
+        calendar.release(150, TODAY + 10);
+        assertTrue(calendar.isFree(150, TODAY + 10), "Released day should be free");
+    }
+
+    @Test
+    @DisplayName("Days and rooms outside the calendar are never free")
+    void testOutsideWindow() {
+        assertFalse(calendar.isFree(150, TODAY - 1), "Past day should not be free");
+        assertFalse(calendar.isFree(150, TODAY + OccupancyCalendar.RING_DAYS), "Day beyond the ring should not be free");
+        assertFalse(calendar.isFree(100, TODAY), "Room 100 is not tracked");
+        assertFalse(calendar.isFree(200, TODAY), "Room 200 is not tracked");
+    }
+
+    @Test
+    @DisplayName("Free rooms lists every room except the occupied ones")
+    void testFreeRooms() {
+        calendar.occupy(101, TODAY + 5);
+        calendar.occupy(199, TODAY + 5);
+        int[] out = new int[OccupancyCalendar.ROOM_COUNT];
+
+        int count = calendar.freeRooms(TODAY + 5, out);
+
+        assertEquals(OccupancyCalendar.ROOM_COUNT - 2, count, "Two rooms should be taken");
+        assertEquals(102, out[0], "First free room should be 102");
+        assertEquals(198, out[count - 1], "Last free room should be 198");
+    }
+
+    @Test
+    @DisplayName("Rolling forward clears past days and reuses their ring slots")
+    void testRollForward() {
+        calendar.occupy(150, TODAY);
+        calendar.occupy(150, TODAY + 1);
+
+        calendar.rollTo(TODAY + 1);
+
+        assertFalse(calendar.isOccupied(150, TODAY), "Past day should no longer be tracked");
+        assertTrue(calendar.isOccupied(150, TODAY + 1), "Today should still be occupied");
+        assertTrue(calendar.isFree(150, TODAY + OccupancyCalendar.RING_DAYS),
+                "Day reusing the cleared ring slot should be free");
+    }
+
+    @Test
+    @DisplayName("Range query returns rooms free on every day of the range")
+    void testFreeRoomsOverRange() {
+        calendar.occupy(101, TODAY + 70);
+        calendar.occupy(150, TODAY + 10);
+        calendar.occupy(199, TODAY + 100);
+        int[] out = new int[OccupancyCalendar.ROOM_COUNT];
+
+        int count = calendar.freeRooms(TODAY + 10, TODAY + 99, out);
+
+        assertEquals(OccupancyCalendar.ROOM_COUNT - 2, count, "Rooms 101 and 150 are taken inside the range");
+        assertEquals(102, out[0], "First free room should be 102");
+        assertEquals(199, out[count - 1], "Room 199 is only taken after the range");
+        assertEquals(0, calendar.freeRooms(TODAY - 1, TODAY + 5, out), "Range starting in the past");
+        assertEquals(0, calendar.freeRooms(TODAY + 5, TODAY + 4, out), "Empty range");
+    }
+
+    @Test
+    @DisplayName("Free starts match a day-by-day scan, also across words and the ring wrap")
+    void testFreeStarts() {
+        calendar.rollTo(TODAY + 300);   //The window now wraps around the end of the ring.
+        long from = TODAY + 300;
+        long to = from + 365;
+        for (long day = from; day <= to; day += 7) {
+            calendar.occupy(150, day);
+        }
+        calendar.occupy(150, from + 63);
+        calendar.occupy(150, from + 64);
+        long[] starts = new long[6];
+
+        for (int nights : new int[] {1, 2, 3, 5, 6, 7}) {
+            assertEquals(6, calendar.freeStarts(150, from, to, nights, starts), "366 days take six words");
+            for (long start = from; start <= to; start++) {
+                boolean free = start + nights - 1 <= to;
+                for (long day = start; free && day < start + nights; day++) {
+                    free = calendar.isFree(150, day);
+                }
+                int bit = (int) (start - from);
+                assertEquals(free, (starts[bit >>> 6] & (1L << bit)) != 0,
+                        "Start " + bit + " for " + nights + " nights");
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Service availability follows bookings and cancellations")
+    void testServiceAvailability() {
+        ReservationService reservationService = new ReservationService();
+        LocalDate date = LocalDate.now().plusDays(30);
+
+        reservationService.addReservation("John", date, 150, 2);
+        assertFalse(reservationService.isRoomAvailable(150, date), "Booked room should not be available");
+        assertEquals(OccupancyCalendar.ROOM_COUNT - 1, reservationService.getAvailableRooms(date).length,
+                "All other rooms should be available");
+
+        reservationService.cancelReservation("John", date, 150, 2);
+        assertTrue(reservationService.isRoomAvailable(150, date), "Cancelled room should be available again");
+    }
+}
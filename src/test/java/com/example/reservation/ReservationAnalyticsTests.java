@@ -0,0 +1,139 @@
+package com.example.reservation;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.temporal.ChronoUnit;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReservationAnalyticsTests {
+
+    @TempDir
+    Path dir;
+
+    private ReservationService reservationService;
+
+    @BeforeEach
+    void setUp() {
+        reservationService = new ReservationService();
+    }
+
+    private void load(String csv) throws IOException {
+        Path file = dir.resolve("stays.csv");
+        Files.writeString(file, csv);
+        ImportResult result = new ReservationImporter(reservationService, 2).importCsv(file, dir.resolve("rejects.csv"));
+        assertEquals(0, result.getRejected(), "Test data should import cleanly");
+    }
+
+    @Test
+    @DisplayName("Occupancy splits stays over month ends; guest and customer counts count stays")
+    void testReports() throws IOException {
+        load(String.join("\n",
+                "Ali,2023-01-30,101,2,4",      //2 nights in January, 2 in February
+                "Ali,2023-02-10,101,1,1",
+                "Veli,2023-02-27,101,3,10",    //2 nights in February, 8 in March
+                "Veli,2022-12-01,150,2,31",    //Before the report
+                "Ayse,2023-03-31,199,4,1",
+                ""));
+
+        ReservationAnalytics analytics = reservationService.getAnalytics();
+        ReservationAnalytics.Occupancy occupancy = analytics.occupancy(YearMonth.of(2023, 1), YearMonth.of(2023, 3));
+        assertEquals(2, occupancy.getOccupiedNights(101, YearMonth.of(2023, 1)));
+        assertEquals(5, occupancy.getOccupiedNights(101, YearMonth.of(2023, 2)));
+        assertEquals(8, occupancy.getOccupiedNights(101, YearMonth.of(2023, 3)));
+        assertEquals(0, occupancy.getOccupiedNights(150, YearMonth.of(2023, 1)), "December is not in the report");
+        assertEquals(5.0 / 28, occupancy.getRate(101, YearMonth.of(2023, 2)), 1e-9);
+        assertEquals(9.0 / (99 * 31), occupancy.getRate(YearMonth.of(2023, 3)), 1e-9);
+        assertThrows(IllegalArgumentException.class, () -> occupancy.getRate(101, YearMonth.of(2023, 4)));
+        assertThrows(IllegalArgumentException.class,
+                () -> analytics.occupancy(YearMonth.of(2023, 3), YearMonth.of(2023, 1)));
+
+        assertArrayEquals(new long[] {0, 1, 2, 1, 1, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0}, analytics.guestCountDistribution());
+
+        ReservationAnalytics.CustomerCounts customers = analytics.bookingsPerCustomer();
+        assertEquals(2, customers.getCount("Ali"));
+        assertEquals(0, customers.getCount("Nobody"));
+        assertEquals(3, customers.getCustomerCount());
+        assertEquals(Map.of("Ali", 2, "Veli", 2), customers.top(2), "Ties keep the first customer first");
+        assertEquals("[Ali, Veli, Ayse]", customers.top(10).keySet().toString());
+    }
+
+    @Test
+    @DisplayName("Parallel reports match a single-threaded count over getAllReservations")
+    void testMatchesSequential() throws IOException {
+        StringBuilder csv = new StringBuilder();
+        Random random = new Random(25);
+        LocalDate first = LocalDate.of(2020, 1, 1);
+        for (int room = 101; room <= 199; room++) {
+            long day = first.toEpochDay() + random.nextInt(5);
+            while (day < first.plusYears(2).toEpochDay()) {
+                int nights = 1 + random.nextInt(6);
+                csv.append("Customer").append(random.nextInt(300)).append(',').append(LocalDate.ofEpochDay(day))
+                        .append(',').append(room).append(',').append(1 + random.nextInt(4)).append(',').append(nights)
+                        .append('\n');
+                day += nights + random.nextInt(3);
+            }
+        }
+        load(csv.toString());
+
+        YearMonth from = YearMonth.of(2020, 3);
+        YearMonth to = YearMonth.of(2021, 8);
+        int[][] nights = new int[99][(int) from.until(to, ChronoUnit.MONTHS) + 1];
+        long[] guests = new long[ValidationRules.MAX_GUESTS + 1];
+        Map<String, Integer> perCustomer = new HashMap<>();
+        for (Reservation stay : reservationService.getAllReservations()) {
+            for (LocalDate night = stay.getDateTime(); night.isBefore(stay.getCheckOut()); night = night.plusDays(1)) {
+                YearMonth month = YearMonth.from(night);
+                if (!month.isBefore(from) && !month.isAfter(to)) {
+                    nights[stay.getRoomNumber() - 101][(int) from.until(month, ChronoUnit.MONTHS)]++;
+                }
+            }
+            guests[stay.getGuestCount()]++;
+            perCustomer.merge(stay.getCustomerName(), 1, Integer::sum);
+        }
+
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            ReservationAnalytics analytics = reservationService.getAnalytics(pool);
+            ReservationAnalytics.Occupancy occupancy = analytics.occupancy(from, to);
+            for (int room = 101; room <= 199; room++) {
+                for (int m = 0; m < nights[0].length; m++) {
+                    assertEquals(nights[room - 101][m], occupancy.getOccupiedNights(room, from.plusMonths(m)),
+                            "Room " + room + " in " + from.plusMonths(m));
+                }
+            }
+            assertArrayEquals(guests, analytics.guestCountDistribution());
+            ReservationAnalytics.CustomerCounts customers = analytics.bookingsPerCustomer();
+            assertEquals(perCustomer.size(), customers.getCustomerCount());
+            perCustomer.forEach((name, count) -> assertEquals(count, customers.getCount(name), name));
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    @DisplayName("Reports read the view taken when the analytics were created")
+    void testReportsReadOneView() {
+        LocalDate tomorrow = LocalDate.now().plusDays(1);
+        reservationService.addReservation("Ali", tomorrow, 101, 2);
+        ReservationAnalytics analytics = reservationService.getAnalytics();
+        reservationService.addReservation("Veli", tomorrow, 102, 3);
+        reservationService.cancelReservation("Ali", tomorrow, 101, 2);
+
+        assertEquals(1, analytics.bookingsPerCustomer().getCount("Ali"), "Cancelled after the view was taken");
+        assertEquals(0, analytics.bookingsPerCustomer().getCount("Veli"), "Booked after the view was taken");
+        assertEquals(1, reservationService.getAnalytics().guestCountDistribution()[3]);
+    }
+}
@@ -0,0 +1,92 @@
+package com.example.reservation;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReservationAvailabilityTests {
+
+    private ReservationService reservationService;
+    private LocalDate date;
+
+    @BeforeEach
+    void setUp() {
+        reservationService = new ReservationService();
+        date = LocalDate.now().plusDays(10);
+    }
+
+    @Test
+    @DisplayName("Rooms free over a range follow bookings and guest rules")
+    void testAvailableRoomsOverRange() {
+        reservationService.addReservation("Ali", date.plusDays(3), 120, 2);
+        reservationService.addReservation("Veli", date.plusDays(40), 130, 2);
+
+        int[] rooms = reservationService.getAvailableRooms(date, date.plusDays(29), 3);
+
+        assertEquals(OccupancyCalendar.ROOM_COUNT - 1, rooms.length, "Only room 120 is taken inside the range");
+        assertEquals(119, rooms[18], "Rooms before 120 stay in order");
+        assertEquals(121, rooms[19], "Room 120 should be skipped");
+        assertEquals(0, reservationService.getAvailableRooms(date, date.plusDays(29), 5).length,
+                "No room takes five guests");
+        assertEquals(0, reservationService.getAvailableRooms(LocalDate.now().minusDays(1), date, 2).length,
+                "Past dates are not bookable");
+        assertThrows(IllegalArgumentException.class, () -> reservationService.getAvailableRooms(null, date, 2));
+    }
+
+    @Test
+    @DisplayName("First free stays come out by date, then room")
+    void testFirstFreeStays() {
+        for (int room = 101; room <= 199; room++) {
+            if (room != 150) {
+                reservationService.addReservation("Full", date, room, 2);
+            }
+        }
+        reservationService.addReservation("Full", date.plusDays(2), 150, 2);
+
+        List<AvailableStay> stays = reservationService.findAvailableStays(date, date.plusDays(10), 2, 2, 3);
+
+        assertEquals(3, stays.size(), "Three stays were asked for");
+        assertEquals(150, stays.get(0).getRoomNumber(), "Only room 150 is free on the first day");
+        assertEquals(date, stays.get(0).getCheckIn(), "Earliest check-in comes first");
+        assertEquals(date.plusDays(1), stays.get(0).getLastNight(), "Two nights");
+        assertEquals(101, stays.get(1).getRoomNumber(), "Other rooms are free from the next day");
+        assertEquals(date.plusDays(1), stays.get(1).getCheckIn(), "Room 150 is taken the day after");
+        assertEquals(102, stays.get(2).getRoomNumber(), "Then the next room on the same day");
+        assertThrows(IllegalArgumentException.class, () -> reservationService.findAvailableStays(date, date, 0, 2, 1));
+    }
+
+    @Test
+    @DisplayName("Stay search matches a brute-force scan with hasConflict")
+    void testStaysMatchBruteForce() {
+        Random random = new Random(7);
+        for (int i = 0; i < 3000; i++) {
+            reservationService.addReservation("Guest" + i, date.plusDays(random.nextInt(60)),
+                    101 + random.nextInt(99), 2);
+        }
+        LocalDate to = date.plusDays(59);
+
+        List<AvailableStay> expected = new ArrayList<>();
+        for (LocalDate checkIn = date; !checkIn.plusDays(3).isAfter(to); checkIn = checkIn.plusDays(1)) {
+            for (int room = 101; room <= 199; room++) {
+                boolean free = true;
+                for (int night = 0; night < 4 && free; night++) {
+                    free = reservationService.isRoomAvailable(room, checkIn.plusDays(night));
+                }
+                if (free) {
+                    expected.add(new AvailableStay(room, checkIn, 4));
+                }
+            }
+        }
+
+        List<AvailableStay> found = reservationService.findAvailableStays(date, to, 4, 2, Integer.MAX_VALUE);
+
+        assertEquals(expected.toString(), found.toString(), "Every free four-night stay should be found in order");
+    }
+}
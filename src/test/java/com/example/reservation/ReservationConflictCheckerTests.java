@@ -0,0 +1,66 @@
+package com.example.reservation;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReservationConflictCheckerTests {
+
+    private ReservationService reservationService;
+    private ReservationConflictChecker conflictChecker;
+
+    @BeforeEach
+    void setUp() {
+        reservationService = new ReservationService();
+        conflictChecker = new ReservationConflictChecker();
+    }
+
+    @Test
+    @DisplayName("Index reports a conflict only for the occupied (room, date) slot")
+    void testIndexConflict() {
+        LocalDate date = LocalDate.now().plusDays(10);
+        conflictChecker.occupy(new Reservation("John", date, 150, 2));
+
+        assertTrue(conflictChecker.hasConflict(150, date), "Occupied slot must conflict");
+        assertFalse(conflictChecker.hasConflict(151, date), "Other room on the same date must be free");
+        assertFalse(conflictChecker.hasConflict(150, date.plusDays(1)), "Same room on another date must be free");
+    }
+
+    @Test
+    @DisplayName("Released slot no longer conflicts")
+    void testReleaseFreesSlot() {
+        LocalDate date = LocalDate.now().plusDays(10);
+        conflictChecker.occupy(new Reservation("John", date, 150, 2));
+        conflictChecker.release(150, date);
+
+        assertFalse(conflictChecker.hasConflict(150, date), "Released slot must be free");
+        assertEquals(0, conflictChecker.size(), "Index should be empty");
+    }
+
+    @Test
+    @DisplayName("Cancelled reservation frees the slot for a new booking")
+    void testCancelKeepsIndexInSync() {
+        LocalDate date = LocalDate.now().plusDays(30);
+        assertTrue(reservationService.addReservation("John", date, 150, 2));
+        assertFalse(reservationService.addReservation("Jane", date, 150, 2), "Slot should be taken");
+
+        assertTrue(reservationService.cancelReservation("John", date, 150, 2), "Cancellation should succeed");
+        assertTrue(reservationService.addReservation("Jane", date, 150, 2), "Slot should be free after cancellation");
+        assertEquals(1, reservationService.getAllReservations().size(), "There should be one reservation");
+    }
+
+    @Test
+    @DisplayName("Cancellation with mismatching details keeps the slot occupied")
+    void testCancelMismatchKeepsSlot() {
+        LocalDate date = LocalDate.now().plusDays(30);
+        reservationService.addReservation("John", date, 150, 2);
+
+        assertFalse(reservationService.cancelReservation("Jane", date, 150, 2), "Other customer cannot cancel");
+        assertFalse(reservationService.cancelReservation("John", date, 150, 3), "Guest count must match");
+        assertFalse(reservationService.addReservation("Jane", date, 150, 2), "Slot should still be taken");
+    }
+}
@@ -0,0 +1,55 @@
+package com.example.reservation;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.openjdk.jol.info.GraphLayout;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReservationFootprintTests {
+
+    private static final int RESERVATIONS = 30_000;
+
+    @Test
+    @DisplayName("Packed store uses at least 4x less heap per reservation than a map of Reservation objects")
+    void testHeapPerReservation() {
+        LocalDate today = LocalDate.now();
+        ReservationService empty = new ReservationService();
+        ReservationService service = new ReservationService();
+        String[] names = new String[2000];
+        for (int i = 0; i < names.length; i++) {
+            names[i] = "Customer" + i;
+        }
+        //The previous layout: Reservation objects in a map keyed by slot (without its secondary indexes).
+        Map<Long, Reservation> objects = new HashMap<>();
+        List<ReservationRequest> batch = new ArrayList<>();
+        for (int i = 0; i < RESERVATIONS; i++) {
+            String name = names[i % names.length];
+            LocalDate date = today.plusDays(1 + i / 99);
+            batch.add(new ReservationRequest(name, date, 101 + i % 99, 1 + i % 4));
+            objects.put(ReservationConflictChecker.slotKey(101 + i % 99, date),
+                    new Reservation(name, date, 101 + i % 99, 1 + i % 4));
+        }
+        service.addReservations(batch);
+        assertEquals(RESERVATIONS, service.getAllReservations().size(), "Every reservation should be stored");
+
+        //Both layouts share the same name instances, so names are counted on neither side.
+        GraphLayout shared = GraphLayout.parseInstance((Object[]) names);
+        long storeBytes = GraphLayout.parseInstance(service).totalSize()
+                - GraphLayout.parseInstance(empty).totalSize() - shared.totalSize();
+        long objectBytes = GraphLayout.parseInstance(objects).totalSize() - shared.totalSize();
+
+        double storePerReservation = (double) storeBytes / RESERVATIONS;
+        double objectPerReservation = (double) objectBytes / RESERVATIONS;
+        System.out.printf("bytes/reservation: packed store=%.1f, slot map=%.1f%n",
+                storePerReservation, objectPerReservation);
+        assertTrue(objectPerReservation >= 4 * storePerReservation,
+                "Packed store should need at least 4x less heap per reservation");
+    }
+}
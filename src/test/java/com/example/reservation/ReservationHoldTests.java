@@ -0,0 +1,94 @@
+package com.example.reservation;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReservationHoldTests {
+
+    private ReservationService reservationService;
+    private LocalDate date;
+
+    @BeforeEach
+    void setUp() {
+        reservationService = new ReservationService();
+        date = LocalDate.now().plusDays(15);
+    }
+
+    @Test
+    @DisplayName("A held slot conflicts until it is released")
+    void testHoldConflicts() {
+        long hold = reservationService.holdReservation("Ali", date, 120, 2, Duration.ofMinutes(5));
+
+        assertNotEquals(ReservationService.NO_HOLD, hold, "Slot should be held");
+        assertFalse(reservationService.addReservation("Veli", date, 120, 2), "Held slot cannot be booked");
+        assertEquals(ReservationService.NO_HOLD, reservationService.holdReservation("Veli", date, 120, 2, Duration.ofMinutes(5)),
+                "Held slot cannot be held twice");
+        assertFalse(reservationService.isRoomAvailable(120, date), "Held slot is not available");
+        assertTrue(reservationService.getAllReservations().isEmpty(), "A hold is not a reservation");
+
+        assertTrue(reservationService.releaseHold(hold), "Released");
+        assertFalse(reservationService.releaseHold(hold), "Only once");
+        assertTrue(reservationService.addReservation("Veli", date, 120, 2), "Released slot can be booked");
+    }
+
+    @Test
+    @DisplayName("Confirming turns the hold into a reservation")
+    void testConfirm() {
+        long hold = reservationService.holdStay("Ali", date, date.plusDays(3), 130, 2, Duration.ofMinutes(5));
+
+        assertTrue(reservationService.confirmHold(hold), "Confirmed");
+        assertFalse(reservationService.confirmHold(hold), "Only once");
+        assertFalse(reservationService.releaseHold(hold), "Confirmed hold cannot be released");
+
+        Reservation booked = reservationService.findReservation("Ali", 130);
+        assertEquals(3, booked.getNights(), "Whole stay is booked");
+        assertTrue(reservationService.cancelReservation("Ali", date, 130, 2), "Cancelled like any reservation");
+        assertTrue(reservationService.isRoomAvailable(130, date.plusDays(2)), "All nights free again");
+        assertEquals(0, reservationService.getHoldCount(), "No hold left");
+    }
+
+    @Test
+    @DisplayName("Unconfirmed holds expire and free the slot")
+    void testExpiry() throws InterruptedException {
+        long hold = reservationService.holdReservation("Ali", date, 140, 2, Duration.ofMillis(50));
+
+        long deadline = System.currentTimeMillis() + 5000;
+        while (reservationService.getHoldCount() > 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+        }
+
+        assertEquals(0, reservationService.getHoldCount(), "Hold should have expired");
+        assertFalse(reservationService.confirmHold(hold), "Expired hold cannot be confirmed");
+        assertTrue(reservationService.isRoomAvailable(140, date), "Slot is free again");
+    }
+
+    @Test
+    @DisplayName("A hold cannot be confirmed after its time is up, even before the wheel ticks")
+    void testConfirmAfterDeadline() throws InterruptedException {
+        long hold = reservationService.holdReservation("Ali", date, 141, 2, Duration.ofNanos(1));
+        Thread.sleep(1);
+
+        assertFalse(reservationService.confirmHold(hold), "Too late");
+        assertTrue(reservationService.isRoomAvailable(141, date), "Slot is given back");
+    }
+
+    @Test
+    @DisplayName("Hold rules follow the booking rules")
+    void testHoldRules() {
+        assertThrows(IllegalArgumentException.class, () -> reservationService.holdReservation(null, date, 120, 2, Duration.ofMinutes(1)));
+        assertThrows(IndexOutOfBoundsException.class, () -> reservationService.holdReservation("Ali", date, 200, 2, Duration.ofMinutes(1)));
+        assertThrows(IllegalArgumentException.class, () -> reservationService.holdReservation("Ali", date, 120, 2, Duration.ZERO));
+        assertEquals(ReservationService.NO_HOLD, reservationService.holdReservation("Ali", LocalDate.now().minusDays(1), 120, 2,
+                Duration.ofMinutes(1)), "Past dates cannot be held");
+        reservationService.addReservation("Veli", date.plusDays(1), 121, 2);
+        assertEquals(ReservationService.NO_HOLD, reservationService.holdStay("Ali", date, date.plusDays(3), 121, 2,
+                Duration.ofMinutes(1)), "Stay overlaps a booking");
+        assertTrue(reservationService.isRoomAvailable(121, date), "Failed hold takes no night");
+    }
+}
@@ -0,0 +1,152 @@
+package com.example.reservation;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReservationHttpServerTests {
+
+    private ReservationService reservationService;
+    private ReservationHttpServer server;
+    private HttpClient client;
+    private LocalDate date;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        reservationService = new ReservationService();
+        server = new ReservationHttpServer(reservationService, new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0, 64);
+        server.start();
+        client = HttpClient.newHttpClient();
+        date = LocalDate.now().plusDays(5);
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.close();
+    }
+
+    private HttpResponse<String> send(String method, String query) throws IOException, InterruptedException {
+        URI uri = URI.create("http://localhost:" + server.getPort() + "/reservations?" + query);
+        return client.send(HttpRequest.newBuilder(uri).method(method, HttpRequest.BodyPublishers.noBody()).build(),
+                HttpResponse.BodyHandlers.ofString());
+    }
+
+    @Test
+    @DisplayName("Book, find and cancel over HTTP")
+    void testBookFindCancel() throws Exception {
+        assertEquals(201, send("POST", "name=Ali&date=" + date + "&room=120&guests=2").statusCode(), "Booked");
+        assertEquals(409, send("POST", "name=Veli&date=" + date + "&room=120&guests=2").statusCode(), "Slot is taken");
+
+        HttpResponse<String> found = send("GET", "name=Ali&room=120");
+        assertEquals(200, found.statusCode(), "Found");
+        assertTrue(found.body().contains("customerName='Ali'"), "Body holds the reservation");
+
+        assertEquals(200, send("DELETE", "name=Ali&date=" + date + "&room=120&guests=2").statusCode(), "Cancelled");
+        assertEquals(404, send("GET", "name=Ali&room=120").statusCode(), "Gone");
+
+        URI metrics = URI.create("http://localhost:" + server.getPort() + "/metrics");
+        HttpResponse<String> snapshot = client.send(HttpRequest.newBuilder(metrics).build(), HttpResponse.BodyHandlers.ofString());
+        assertEquals(200, snapshot.statusCode(), "Metrics");
+        assertTrue(snapshot.body().contains("reservation_add_total{outcome=\"conflict\"} 1"), snapshot.body());
+        assertTrue(reservationService.getAllReservations().isEmpty(), "Store is empty");
+    }
+
+    @Test
+    @DisplayName("Invalid input is a bad request")
+    void testBadRequests() throws Exception {
+        assertEquals(400, send("POST", "name=Ali&date=" + date + "&room=200&guests=2").statusCode(), "Room out of range");
+        assertEquals(400, send("POST", "name=Ali&date=" + date + "&room=120&guests=9").statusCode(), "Too many guests");
+        assertEquals(400, send("POST", "name=Ali&date=tomorrow&room=120&guests=2").statusCode(), "Bad date");
+        assertEquals(400, send("POST", "name=Ali&date=2030-02-30&room=120&guests=2").statusCode(), "No such day");
+        assertEquals(400, send("POST", "name=Ali&date=" + date + "&room=abc&guests=2").statusCode(), "Bad number");
+        assertEquals(400, send("POST", "date=" + date + "&room=120&guests=2").statusCode(), "Missing name");
+        assertEquals(405, send("PUT", "name=Ali").statusCode(), "Unsupported method");
+    }
+
+    @Test
+    @DisplayName("Any other failure is answered 500 and gives its admission permit back")
+    void testInternalError() throws Exception {
+        server.close();
+        ReservationService failing = new ReservationService() {
+            @Override
+            public Reservation findReservation(String customerName, Integer roomNumber) {
+                throw new IllegalStateException("Room " + roomNumber + " is damaged");
+            }
+        };
+        server = new ReservationHttpServer(failing, new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0, 64);
+        server.start();
+
+        HttpResponse<String> response = send("GET", "name=Ali&room=120");
+
+        assertEquals(500, response.statusCode());
+        assertEquals("internal error\n", response.body(), "The exception's message is not sent to the client");
+        assertEquals(0, server.getInFlight());
+        assertEquals(64, server.admission.availablePermits());
+    }
+
+    @Test
+    @DisplayName("A malformed % escape is a bad request, not a dropped connection")
+    void testMalformedEscape() throws Exception {
+        //HttpClient refuses to send such a URI, so the request is written by hand.
+        try (Socket socket = new Socket(InetAddress.getLoopbackAddress(), server.getPort())) {
+            socket.setSoTimeout(5_000);
+            socket.getOutputStream().write(("GET /reservations?name=%zz&room=120 HTTP/1.1\r\n" +
+                    "Host: localhost\r\nConnection: close\r\n\r\n").getBytes(StandardCharsets.US_ASCII));
+            String statusLine = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.US_ASCII))
+                    .readLine();
+            assertNotNull(statusLine, "A response is sent");
+            assertTrue(statusLine.startsWith("HTTP/1.1 400"), statusLine);
+        }
+    }
+
+    @Test
+    @DisplayName("Overload is rejected right away with 503")
+    void testAdmissionControl() throws Exception {
+        int permits = server.admission.drainPermits();   //Every slot busy.
+        try {
+            HttpResponse<String> response = send("POST", "name=Ali&date=" + date + "&room=120&guests=2");
+            assertEquals(503, response.statusCode(), "Rejected");
+            assertTrue(response.headers().firstValue("Retry-After").isPresent(), "Tells the client when to retry");
+            assertEquals(1, server.getRejected(), "Counted as rejected");
+            assertTrue(reservationService.getAllReservations().isEmpty(), "Nothing was booked");
+        } finally {
+            server.admission.release(permits);
+        }
+        assertEquals(201, send("POST", "name=Ali&date=" + date + "&room=120&guests=2").statusCode(), "Accepted again");
+    }
+
+    @Test
+    @DisplayName("Concurrent bookings for one slot have a single winner")
+    void testConcurrentSingleWinner() {
+        List<CompletableFuture<HttpResponse<String>>> responses = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            URI uri = URI.create("http://localhost:" + server.getPort() + "/reservations?name=Guest" + i +
+                    "&date=" + date + "&room=150&guests=2");
+            responses.add(client.sendAsync(HttpRequest.newBuilder(uri).POST(HttpRequest.BodyPublishers.noBody()).build(),
+                    HttpResponse.BodyHandlers.ofString()));
+        }
+
+        long booked = responses.stream().map(CompletableFuture::join).filter(r -> r.statusCode() == 201).count();
+
+        assertEquals(1, booked, "Exactly one request should book the slot");
+    }
+}
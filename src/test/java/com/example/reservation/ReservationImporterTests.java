@@ -0,0 +1,197 @@
+package com.example.reservation;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Properties;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReservationImporterTests {
+
+    //Clock the test moves by hand.
+    private static class MovableClock extends Clock {
+        private Instant now = Instant.now();
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override public ZoneId getZone() { return ZoneOffset.UTC; }
+        @Override public Clock withZone(ZoneId zone) { throw new UnsupportedOperationException(); }
+        @Override public Instant instant() { return now; }
+    }
+
+    @TempDir
+    Path dir;
+
+    private ReservationService reservationService;
+    private ReservationImporter importer;
+    private LocalDate tomorrow;
+
+    @BeforeEach
+    void setUp() {
+        reservationService = new ReservationService();
+        importer = new ReservationImporter(reservationService, 2);
+        tomorrow = LocalDate.now().plusDays(1);
+    }
+
+    @Test
+    @DisplayName("Valid rows are stored, the others go to the reject file with their line and reason")
+    void testImportCsv() throws IOException {
+        reservationService.addReservation("Booked", tomorrow, 105, 2);
+        Path csv = dir.resolve("bookings.csv");
+        Files.writeString(csv, String.join("\n",
+                "customerName,checkIn,roomNumber,guestCount,nights",
+                "Ali,2019-03-01,101,2",
+                "Veli,2019-03-01,102,3,4",
+                "",
+                "Broken,2019-02-30,101,2",
+                "NoGuests,2019-03-05,101",
+                "Closed,2019-03-05,250,2",
+                "Crowd,2019-03-05,103,9",
+                "Late,2019-03-03,102,1,1",
+                "Taken," + tomorrow + ",105,2",
+                "Ayse," + tomorrow + ",106,1\r",
+                ""));
+
+        ImportResult result = importer.importCsv(csv, dir.resolve("rejects.csv"));
+
+        assertEquals(9, result.getRows(), "Header and blank lines are not rows");
+        assertEquals(3, result.getImported());
+        assertEquals(2, result.getRejected(ImportResult.Reject.MALFORMED));
+        assertEquals(1, result.getRejected(ImportResult.Reject.BAD_ROOM));
+        assertEquals(1, result.getRejected(ImportResult.Reject.BAD_GUESTS));
+        assertEquals(2, result.getRejected(ImportResult.Reject.CONFLICT), "Stored stay and Veli's earlier row");
+        assertEquals(List.of("line,reason,row",
+                        "5,MALFORMED,Broken,2019-02-30,101,2",
+                        "6,MALFORMED,NoGuests,2019-03-05,101",
+                        "7,BAD_ROOM,Closed,2019-03-05,250,2",
+                        "8,BAD_GUESTS,Crowd,2019-03-05,103,9",
+                        "9,CONFLICT,Late,2019-03-03,102,1,1",
+                        "10,CONFLICT,Taken," + tomorrow + ",105,2"),
+                Files.readAllLines(dir.resolve("rejects.csv")), "Rejects in file order");
+
+        assertEquals(LocalDate.of(2019, 3, 5), reservationService.findReservation("Veli", 102).getCheckOut());
+        assertNotNull(reservationService.findReservation("Ali", 101), "Dates before today are history, not errors");
+        assertTrue(reservationService.getView().hasConflict(106, tomorrow), "Imported nights are taken");
+        assertFalse(reservationService.addReservation("Other", tomorrow, 106, 2));
+        assertTrue(reservationService.cancelReservation("Ayse", tomorrow, 106, 1), "Imported stays cancel as usual");
+        assertEquals(CustomerDictionary.UNKNOWN, reservationService.customerDictionary().idOf("Taken"),
+                "Rows rejected as conflicts do not intern their name");
+        assertEquals(CustomerDictionary.UNKNOWN, reservationService.customerDictionary().idOf("Crowd"));
+    }
+
+    @Test
+    @DisplayName("Rows split over many chunks and parser threads are each read exactly once")
+    void testImportManyChunks() throws IOException {
+        Path csv = dir.resolve("history.csv");
+        LocalDate first = LocalDate.of(1990, 1, 1);
+        int rows = 300_000;   //About 9 MB, so three chunks of CHUNK_BYTES
+        try (BufferedWriter out = Files.newBufferedWriter(csv)) {
+            for (int i = 0; i < rows; i++) {
+                //Room-major within each run of days, so every room sees its days out of order across chunks.
+                out.write("Customer" + (i % 5000) + "," + first.plusDays(i / 99) + "," + (101 + i % 99) + ",2\n");
+            }
+            out.write("Dup,1990-01-01,101,2");   //No trailing newline
+        }
+        assertTrue(Files.size(csv) > 2L * ReservationImporter.CHUNK_BYTES);
+
+        ImportResult result = new ReservationImporter(reservationService, 3).importCsv(csv, dir.resolve("rejects.csv"));
+
+        assertEquals(rows + 1, result.getRows());
+        assertEquals(rows, result.getImported());
+        assertEquals(1, result.getRejected(ImportResult.Reject.CONFLICT));
+        assertEquals(List.of("line,reason,row", (rows + 1) + ",CONFLICT,Dup,1990-01-01,101,2"),
+                Files.readAllLines(dir.resolve("rejects.csv")));
+        assertEquals(rows, reservationService.getView().size(), "Published in the view");
+        assertEquals(rows, reservationService.getMetrics().getReservationCount());
+        assertEquals(5000, reservationService.getMetrics().getCustomerCount());
+        int last = rows - 1;
+        assertEquals(first.plusDays(last / 99),
+                reservationService.findReservation("Customer" + (last % 5000), 101 + last % 99).getDateTime());
+    }
+
+    @Test
+    @DisplayName("Snapshot files import through the same checks, into a durable service's log")
+    void testImportSnapshot() throws IOException {
+        Path snapshot = dir.resolve("other.snap");
+        ReservationSnapshot.write(snapshot, List.of(
+                new Reservation("Ali", tomorrow, tomorrow.plusDays(3), 110, 2),
+                new Reservation("Veli", tomorrow.plusDays(1), 110, 2),
+                new Reservation("Ayse", tomorrow, 111, 4)));
+        Path data = dir.resolve("data");
+
+        try (ReservationService durable = ReservationService.open(data, 1)) {
+            Properties config = new Properties();
+            config.setProperty("roomType.small.rooms", "111");
+            config.setProperty("roomType.small.guests", "1-2");
+            config.setProperty("roomType.other.rooms", "101-110,112-199");
+            config.setProperty("roomType.other.guests", "1-4");
+            durable.setValidationRules(ValidationRules.compile(config));
+            ImportResult result = new ReservationImporter(durable, 1).importSnapshot(snapshot, dir.resolve("rejects.csv"));
+
+            assertEquals(3, result.getRows());
+            assertEquals(1, result.getImported());
+            assertEquals(1, result.getRejected(ImportResult.Reject.CONFLICT));
+            assertEquals(1, result.getRejected(ImportResult.Reject.BAD_GUESTS));
+            assertEquals(List.of("line,reason,row",
+                            "2,CONFLICT,Veli," + tomorrow.plusDays(1) + ",110,2,1",
+                            "3,BAD_GUESTS,Ayse," + tomorrow + ",111,4,1"),
+                    Files.readAllLines(dir.resolve("rejects.csv")));
+            assertEquals(CustomerDictionary.UNKNOWN, durable.customerDictionary().idOf("Ayse"),
+                    "Invalid rows are rejected before their name is interned");
+            assertEquals(CustomerDictionary.UNKNOWN, durable.customerDictionary().idOf("Veli"),
+                    "So are conflicting rows, whose name is only interned if the row is stored");
+        }
+        try (ReservationService reopened = ReservationService.open(data, 1)) {
+            assertEquals(tomorrow.plusDays(3), reopened.findReservation("Ali", 110).getCheckOut(), "Logged on import");
+        }
+    }
+
+    @Test
+    @DisplayName("Future rows ending after the calendar window are rejected, later days stay tracked as the clock moves")
+    void testImportBeyondCalendarWindow() throws IOException {
+        MovableClock clock = new MovableClock();
+        ReservationService service = new ReservationService(clock);
+        LocalDate today = LocalDate.now(clock);
+        LocalDate lastDay = today.plusDays(OccupancyCalendar.RING_DAYS - 1);
+        Path csv = dir.resolve("future.csv");
+        Files.writeString(csv, String.join("\n",
+                "Old," + today.plusDays(420) + ",101,2",
+                "Long," + lastDay + ",102,2,2",
+                "Edge," + lastDay.minusDays(1) + ",103,2",
+                "Last," + lastDay + ",104,2",
+                ""));
+
+        ImportResult result = new ReservationImporter(service, 1).importCsv(csv, dir.resolve("rejects.csv"));
+
+        assertEquals(2, result.getImported());
+        assertEquals(2, result.getRejected(ImportResult.Reject.TOO_FAR), "Stays with a night after the window");
+        assertEquals(CustomerDictionary.UNKNOWN, service.customerDictionary().idOf("Old"));
+        assertEquals(List.of("line,reason,row",
+                        "1,TOO_FAR,Old," + today.plusDays(420) + ",101,2",
+                        "2,TOO_FAR,Long," + lastDay + ",102,2,2"),
+                Files.readAllLines(dir.resolve("rejects.csv")));
+
+        clock.advance(Duration.ofDays(100));
+        assertTrue(service.isRoomAvailable(101, today.plusDays(420)), "Nothing was stored there");
+        assertTrue(service.addReservation("New", today.plusDays(420), 101, 2), "Booking the day does not hit a stored stay");
+        assertEquals(BookingResult.CONFLICT, service.tryAddReservation("New", lastDay, 104, 2),
+                "Imported nights inside the window stay taken after it rolls");
+        assertFalse(service.isRoomAvailable(103, lastDay.minusDays(1)));
+    }
+}
@@ -0,0 +1,136 @@
+package com.example.reservation;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReservationIndexesTests {
+
+    private ReservationService reservationService;
+    private LocalDate date;
+
+    @BeforeEach
+    void setUp() {
+        reservationService = new ReservationService();
+        date = LocalDate.now().plusDays(30);
+    }
+
+    @Test
+    @DisplayName("Find returns the customer's earliest booking in the room")
+    void testFindEarliest() {
+        reservationService.addReservation("Ali", date.plusDays(5), 120, 2);
+        reservationService.addReservation("Ali", date, 120, 3);
+        reservationService.addReservation("Ali", date.minusDays(1), 121, 1);
+
+        Reservation found = reservationService.findReservation("Ali", 120);
+
+        assertNotNull(found, "Reservation must be found");
+        assertEquals(date, found.getDateTime(), "Earliest date in room 120 should be returned");
+        assertNull(reservationService.findReservation("Ali", 122), "No booking in room 122");
+        assertNull(reservationService.findReservation("Veli", 120), "No booking for Veli");
+    }
+
+    @Test
+    @DisplayName("Indexes follow cancellations")
+    void testIndexesAfterCancel() {
+        reservationService.addReservation("Ali", date, 120, 2);
+        reservationService.addReservation("Ali", date.plusDays(1), 120, 2);
+
+        reservationService.cancelReservation("Ali", date, 120, 2);
+
+        assertEquals(date.plusDays(1), reservationService.findReservation("Ali", 120).getDateTime(),
+                "Remaining booking should be found");
+        assertEquals(1, reservationService.getReservationsForCustomer("Ali").size(), "One booking should remain");
+        assertEquals(1, reservationService.getReservationsForRoom(120).size(), "One booking should remain in the room");
+
+        reservationService.cancelReservation("Ali", date.plusDays(1), 120, 2);
+        assertNull(reservationService.findReservation("Ali", 120), "No booking should remain");
+        assertTrue(reservationService.getReservationsForCustomer("Ali").isEmpty(), "Customer index should be empty");
+    }
+
+    @Test
+    @DisplayName("Room index is sorted by date")
+    void testRoomIndexSorted() {
+        reservationService.addReservation("C", date.plusDays(2), 150, 2);
+        reservationService.addReservation("A", date, 150, 2);
+        reservationService.addReservation("B", date.plusDays(1), 150, 2);
+
+        List<Reservation> room = reservationService.getReservationsForRoom(150);
+
+        assertEquals(List.of("A", "B", "C"), room.stream().map(Reservation::getCustomerName).toList(),
+                "Bookings should be ordered by date");
+    }
+
+    @Test
+    @DisplayName("Tour operator cancellation storm keeps indexes consistent")
+    void testCancellationStorm() {
+        List<ReservationRequest> batch = new ArrayList<>();
+        for (int room = 101; room <= 199; room++) {
+            for (int day = 0; day < 5; day++) {
+                batch.add(new ReservationRequest("Tour", date.plusDays(day), room, 2));
+            }
+        }
+        reservationService.addReservations(batch, BatchMode.ALL_OR_NOTHING);
+        assertEquals(495, reservationService.getReservationsForCustomer("Tour").size(), "All bookings should be indexed");
+
+        for (ReservationRequest request : batch) {
+            assertTrue(reservationService.cancelReservation(request.getCustomerName(), request.getDateTime(),
+                    request.getRoomNumber(), request.getGuestCount()), "Every booking should be cancelled");
+        }
+
+        assertTrue(reservationService.getAllReservations().isEmpty(), "Store should be empty");
+        assertTrue(reservationService.getReservationsForCustomer("Tour").isEmpty(), "Customer index should be empty");
+        assertTrue(reservationService.getReservationsForRoom(150).isEmpty(), "Room index should be empty");
+    }
+
+    @Test
+    @DisplayName("Pages walk every reservation once in (room, date) order")
+    void testPaging() {
+        List<ReservationRequest> batch = new ArrayList<>();
+        for (int room = 101; room <= 199; room += 2) {
+            for (int day = 0; day < 7; day++) {
+                batch.add(new ReservationRequest("Guest" + room, date.plusDays(day), room, 2));
+            }
+        }
+        reservationService.addReservations(batch);
+
+        List<Reservation> seen = new ArrayList<>();
+        long cursor = ReservationPage.FIRST;
+        int pages = 0;
+        do {
+            ReservationPage page = reservationService.getReservationsPage(cursor, 40);
+            assertTrue(page.getReservations().size() <= 40, "Page should not exceed its size");
+            seen.addAll(page.getReservations());
+            cursor = page.getNextCursor();
+            pages++;
+        } while (cursor != ReservationPage.END);
+
+        assertEquals(batch.size(), seen.size(), "Every reservation should be paged exactly once");
+        assertEquals(9, pages, "350 reservations should take 9 pages of 40");
+        assertEquals(reservationService.streamReservations().toList(), seen, "Pages should follow stream order");
+        assertEquals(101, seen.get(0).getRoomNumber(), "First page should start at room 101");
+        assertEquals(date, seen.get(0).getDateTime(), "First page should start at the earliest date");
+    }
+
+    @Test
+    @DisplayName("Range streams filter by room, customer and date")
+    void testRangeStreams() {
+        reservationService.addReservation("Ali", date, 120, 2);
+        reservationService.addReservation("Ali", date.plusDays(2), 120, 2);
+        reservationService.addReservation("Veli", date.plusDays(1), 130, 2);
+        reservationService.addReservation("Veli", date.plusDays(5), 120, 2);
+
+        assertEquals(2, reservationService.streamReservationsForRoom(120, date, date.plusDays(2)).count(),
+                "Two bookings of room 120 in the range");
+        assertEquals(2, reservationService.streamReservationsForCustomer("Veli").count(), "Veli has two bookings");
+        assertEquals(List.of("Ali", "Veli", "Ali"), reservationService.streamReservationsBetween(date, date.plusDays(2))
+                .map(Reservation::getCustomerName).toList(), "Date range should be ordered by date");
+        assertEquals(0, reservationService.streamReservationsForCustomer("Nobody").count(), "Unknown customer");
+    }
+}
@@ -0,0 +1,164 @@
+package com.example.reservation;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReservationLogTests {
+
+    @TempDir
+    Path dir;
+
+    //Counts replayed records without applying them.
+    private static class Counter implements ReservationLog.Handler {
+        int adds;
+        int cancels;
+
+        @Override
+        public void add(String customerName, LocalDate date, int roomNumber, int guestCount) { adds++; }
+
+        @Override
+        public void cancel(String customerName, LocalDate date, int roomNumber, int guestCount) { cancels++; }
+    }
+
+    @Test
+    @DisplayName("Reopened service replays adds and cancels from the log")
+    void testRestartRestoresState() throws IOException {
+        Path data = dir.resolve("data");
+        LocalDate date = LocalDate.now().plusDays(30);
+
+        try (ReservationService service = ReservationService.open(data, 1)) {
+            service.addReservation("Ali", date, 101, 2);
+            service.addReservation("Veli", date, 102, 3);
+            service.addReservation("Ayşe", date.plusDays(1), 101, 1);
+            service.cancelReservation("Veli", date, 102, 3);
+        }
+
+        try (ReservationService service = ReservationService.open(data, 1)) {
+            assertEquals(2, service.getAllReservations().size(), "Two reservations should survive the restart");
+            assertEquals(date, service.findReservation("Ali", 101).getDateTime(), "Ali's booking should be restored");
+            assertEquals("Ayşe", service.findReservation("Ayşe", 101).getCustomerName(), "UTF-8 names should be restored");
+            assertNull(service.findReservation("Veli", 102), "Cancelled booking should stay cancelled");
+            assertFalse(service.addReservation("Other", date, 101, 2), "Restored slot should conflict");
+        }
+    }
+
+    @Test
+    @DisplayName("Torn tail is truncated and later appends stay readable")
+    void testTornTailTruncated() throws IOException {
+        Path file = dir.resolve("torn.wal");
+        LocalDate date = LocalDate.now().plusDays(10);
+        try (ReservationLog log = new ReservationLog(file, 1)) {
+            log.appendAdd(new Reservation("Ali", date, 101, 2));
+            log.appendAdd(new Reservation("Veli", date, 102, 2));
+        }
+        long intactSize = Files.size(file);
+
+        //Half-written record: header and the start of a payload.
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.APPEND)) {
+            channel.write(ByteBuffer.wrap(new byte[]{0, 0, 0, 20, 1, 2, 3, 4, 1, 0}));
+        }
+
+        try (ReservationLog log = new ReservationLog(file, 1)) {
+            Counter counter = new Counter();
+            assertEquals(2, log.replay(counter), "Only intact records should be replayed");
+            assertEquals(intactSize, Files.size(file), "Torn tail should be truncated");
+            log.appendCancel(new Reservation("Ali", date, 101, 2));
+        }
+
+        try (ReservationLog log = new ReservationLog(file, 1)) {
+            Counter counter = new Counter();
+            log.replay(counter);
+            assertEquals(2, counter.adds, "Adds should be replayed");
+            assertEquals(1, counter.cancels, "Cancel appended after truncation should be replayed");
+        }
+    }
+
+    @Test
+    @DisplayName("Corrupted record stops replay at the last intact record")
+    void testCorruptRecordTruncated() throws IOException {
+        Path file = dir.resolve("corrupt.wal");
+        LocalDate date = LocalDate.now().plusDays(10);
+        try (ReservationLog log = new ReservationLog(file, 1)) {
+            log.appendAdd(new Reservation("Ali", date, 101, 2));
+            log.appendAdd(new Reservation("Veli", date, 102, 2));
+        }
+
+        //Flip one byte inside the second record's payload.
+        long size = Files.size(file);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.wrap(new byte[]{42}), size - 1);
+        }
+
+        try (ReservationLog log = new ReservationLog(file, 1)) {
+            assertEquals(1, log.replay(new Counter()), "Only the first record should be replayed");
+            assertEquals(size / 2, Files.size(file), "Corrupt record should be truncated");
+        }
+    }
+
+    @Test
+    @DisplayName("Group commit keeps records buffered until the group is full")
+    void testGroupCommit() throws IOException {
+        Path file = dir.resolve("group.wal");
+        LocalDate date = LocalDate.now().plusDays(10);
+        try (ReservationLog log = new ReservationLog(file, 3, Duration.ofMinutes(1))) {
+            log.appendAdd(new Reservation("Ali", date, 101, 2));
+            log.appendAdd(new Reservation("Veli", date, 102, 2));
+            assertEquals(0, Files.size(file), "Records should still be buffered");
+
+            log.appendAdd(new Reservation("Can", date, 103, 2));
+            assertTrue(Files.size(file) > 0, "Full group should be written");
+        }
+    }
+
+    @Test
+    @DisplayName("A group that does not fill up is forced after the max delay")
+    void testGroupCommitMaxDelay() throws IOException, InterruptedException {
+        Path file = dir.resolve("delay.wal");
+        LocalDate date = LocalDate.now().plusDays(10);
+        try (ReservationLog log = new ReservationLog(file, 1000, Duration.ofMillis(20))) {
+            long started = System.nanoTime();
+            log.appendAdd(new Reservation("Ali", date, 101, 2));
+            while (Files.size(file) == 0 && System.nanoTime() - started < TimeUnit.SECONDS.toNanos(5)) {
+                Thread.sleep(5);
+            }
+            assertTrue(Files.size(file) > 0, "The record should be written without a sync");
+            assertTrue(System.nanoTime() - started >= TimeUnit.MILLISECONDS.toNanos(20), "Not before the delay");
+            log.appendAdd(new Reservation("Veli", date, 102, 2));
+        }
+        try (ReservationLog log = new ReservationLog(file, 1)) {
+            assertEquals(2, log.replay(new Counter()));
+        }
+    }
+
+    @Test
+    @DisplayName("Large log replays every record")
+    void testLargeReplay() throws IOException {
+        Path file = dir.resolve("large.wal");
+        LocalDate date = LocalDate.now();
+        int records = 500_000;
+        try (ReservationLog log = new ReservationLog(file, 10_000)) {
+            for (int i = 0; i < records; i++) {
+                log.appendAdd(new Reservation("Customer" + (i % 1000), date.plusDays(i % 366), 101 + i % 99, 2));
+            }
+        }
+
+        try (ReservationLog log = new ReservationLog(file, 1)) {
+            Counter counter = new Counter();
+            assertEquals(records, log.replay(counter), "Every record should be replayed");
+            assertEquals(records, counter.adds, "Every record should be an add");
+        }
+    }
+}
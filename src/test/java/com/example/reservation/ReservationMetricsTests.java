@@ -0,0 +1,105 @@
+package com.example.reservation;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReservationMetricsTests {
+
+    private ReservationService reservationService;
+    private ReservationMetrics metrics;
+    private LocalDate tomorrow;
+
+    @BeforeEach
+    void setUp() {
+        reservationService = new ReservationService();
+        metrics = reservationService.getMetrics();
+        metrics.setLatencySampleInterval(1);
+        tomorrow = LocalDate.now().plusDays(1);
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        reservationService.close();
+    }
+
+    @Test
+    @DisplayName("Every add, cancel and find is counted by outcome")
+    void testOutcomes() {
+        assertTrue(reservationService.addReservation("Ali", tomorrow, 120, 2));
+        assertFalse(reservationService.addReservation("Veli", tomorrow, 120, 2));
+        assertFalse(reservationService.addReservation("Veli", tomorrow.minusDays(3), 120, 2));
+        assertThrows(IndexOutOfBoundsException.class, () -> reservationService.addReservation("Veli", tomorrow, 250, 2));
+        assertEquals(BookingResult.BAD_GUESTS, reservationService.tryAddReservation("Veli", tomorrow, 121, 7));
+        assertNotNull(reservationService.findReservation("Ali", 120));
+        assertNull(reservationService.findReservation("Veli", 120));
+        assertFalse(reservationService.cancelReservation("Veli", tomorrow, 120, 2));
+        assertTrue(reservationService.cancelReservation("Ali", tomorrow, 120, 2));
+
+        assertEquals(5, metrics.getAddCount());
+        assertEquals(1, metrics.getAddBooked());
+        assertEquals(1, metrics.getAddConflict());
+        assertEquals(1, metrics.getAddPastDate());
+        assertEquals(2, metrics.getAddInvalid(), "Bad room and bad guests");
+        assertEquals(1, metrics.getFindHit());
+        assertEquals(1, metrics.getFindMiss());
+        assertEquals(1, metrics.getCancelCancelled());
+        assertEquals(1, metrics.getCancelNotFound());
+        assertEquals(5, metrics.getAddLatency().getCount(), "Every call timed at interval 1");
+        assertTrue(metrics.getAddLatencyP99Micros() > 0);
+    }
+
+    @Test
+    @DisplayName("Gauges follow the store and nothing is recorded while disabled")
+    void testGaugesAndDisable() {
+        reservationService.addReservation("Ali", tomorrow, 120, 2);
+        reservationService.addReservation("Ali", tomorrow, 121, 2);
+        reservationService.addReservation("Veli", tomorrow, 122, 2);
+        assertEquals(3, metrics.getReservationCount());
+        assertEquals(2, metrics.getCustomerCount());
+
+        metrics.setEnabled(false);
+        reservationService.addReservation("Veli", tomorrow, 123, 2);
+        assertEquals(3, metrics.getAddCount(), "Disabled metrics count nothing");
+        assertEquals(4, metrics.getReservationCount(), "Gauges are read from the store");
+    }
+
+    @Test
+    @DisplayName("Snapshot has one line per series")
+    void testSnapshot() {
+        reservationService.addReservation("Ali", tomorrow, 120, 2);
+        reservationService.addReservation("Veli", tomorrow, 120, 2);
+
+        String snapshot = metrics.getSnapshot();
+
+        assertTrue(snapshot.contains("reservation_add_total{outcome=\"ok\"} 1\n"), snapshot);
+        assertTrue(snapshot.contains("reservation_add_total{outcome=\"conflict\"} 1\n"), snapshot);
+        assertTrue(snapshot.contains("reservation_add_latency_nanos_count 2\n"), snapshot);
+        assertTrue(snapshot.contains("reservation_reservations 1\n"), snapshot);
+        assertTrue(snapshot.lines().allMatch(line -> line.matches("[a-z_]+(\\{[a-z_]+=\"[a-z0-9_.]+\"\\})? -?\\d+")), snapshot);
+    }
+
+    @Test
+    @DisplayName("Metrics are readable through JMX until the service is closed")
+    void testJmx() throws Exception {
+        ObjectName name = metrics.registerMBean("metrics-test");
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        reservationService.addReservation("Ali", tomorrow, 120, 2);
+
+        assertEquals(1L, server.getAttribute(name, "AddBooked"));
+        assertEquals(1, server.getAttribute(name, "ReservationCount"));
+        assertThrows(IllegalStateException.class, () -> metrics.registerMBean("again"), "Registered once");
+
+        reservationService.close();
+        assertFalse(server.isRegistered(name), "Unregistered on close");
+    }
+}
@@ -0,0 +1,98 @@
+package com.example.reservation;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReservationServiceBatchTests {
+
+    private ReservationService reservationService;
+    private LocalDate date;
+
+    @BeforeEach
+    void setUp() {
+        reservationService = new ReservationService();
+        date = LocalDate.now().plusDays(30);
+    }
+
+    @Test
+    @DisplayName("Best-effort batch returns one result per item")
+    void testBestEffortResults() {
+        reservationService.addReservation("Existing", date, 103, 2);
+
+        boolean[] results = reservationService.addReservations(List.of(
+                new ReservationRequest("Ali", date, 101, 2),
+                new ReservationRequest("Veli", date, 101, 2),                  //Conflict inside the batch
+                new ReservationRequest("Mehmet", date, 103, 2),                //Conflict with the store
+                new ReservationRequest("Ayse", date, 200, 2),                  //Invalid room
+                new ReservationRequest("Fatma", date.minusYears(2), 104, 2),   //Past date
+                new ReservationRequest("Can", date, 105, 4)
+        ));
+
+        assertArrayEquals(new boolean[]{true, false, false, false, false, true}, results, "Per-item results should match");
+        assertEquals(3, reservationService.getAllReservations().size(), "Two new reservations should be stored");
+        assertEquals("Ali", reservationService.findReservation("Ali", 101).getCustomerName(), "First item should win the slot");
+    }
+
+    @Test
+    @DisplayName("All-or-nothing batch commits every item when none conflicts")
+    void testAllOrNothingCommit() {
+        List<ReservationRequest> batch = new ArrayList<>();
+        for (int room = 101; room <= 199; room++) {
+            batch.add(new ReservationRequest("Tour", date, room, 2));
+        }
+
+        boolean[] results = reservationService.addReservations(batch, BatchMode.ALL_OR_NOTHING);
+
+        for (boolean result : results) {
+            assertTrue(result, "Every item should be booked");
+        }
+        assertEquals(99, reservationService.getAllReservations().size(), "All rooms should be booked");
+    }
+
+    @Test
+    @DisplayName("All-or-nothing batch books nothing if one item conflicts")
+    void testAllOrNothingRollback() {
+        reservationService.addReservation("Existing", date, 150, 2);
+
+        boolean[] results = reservationService.addReservations(List.of(
+                new ReservationRequest("Tour", date, 149, 2),
+                new ReservationRequest("Tour", date, 150, 2),
+                new ReservationRequest("Tour", date, 151, 2)
+        ), BatchMode.ALL_OR_NOTHING);
+
+        assertArrayEquals(new boolean[]{false, false, false}, results, "No item should be booked");
+        assertEquals(1, reservationService.getAllReservations().size(), "Only the existing reservation should remain");
+    }
+
+    @Test
+    @DisplayName("All-or-nothing batch rejects duplicates inside the batch")
+    void testAllOrNothingDuplicate() {
+        boolean[] results = reservationService.addReservations(List.of(
+                new ReservationRequest("Ali", date, 120, 2),
+                new ReservationRequest("Veli", date, 120, 2)
+        ), BatchMode.ALL_OR_NOTHING);
+
+        assertArrayEquals(new boolean[]{false, false}, results, "Duplicate slot should reject the batch");
+        assertTrue(reservationService.getAllReservations().isEmpty(), "Nothing should be stored");
+    }
+
+    @Test
+    @DisplayName("Booking window end allows 29 February one year after 28 February")
+    void testLastBookableDayLeapYear() {
+        assertEquals(LocalDate.of(2028, 2, 29), ReservationService.lastBookableDay(LocalDate.of(2027, 2, 28)));
+        assertEquals(LocalDate.of(2027, 10, 17), ReservationService.lastBookableDay(LocalDate.of(2026, 10, 17)));
+    }
+
+    @Test
+    @DisplayName("Null batch throws exception")
+    void testNullBatch() {
+        assertThrows(IllegalArgumentException.class, () -> reservationService.addReservations(null));
+    }
+}
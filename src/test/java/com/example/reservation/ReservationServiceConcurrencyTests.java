@@ -0,0 +1,136 @@
+package com.example.reservation;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReservationServiceConcurrencyTests {
+
+    private static final int THREADS = 32;
+    private static final int DAYS = 60;
+
+    private ReservationService reservationService;
+
+    @BeforeEach
+    void setUp() {
+        reservationService = new ReservationService();
+    }
+
+    //Starts all tasks at once and returns their results.
+    private static <T> List<T> runTogether(int threads, List<Callable<T>> tasks) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<T>> futures = new ArrayList<>();
+            for (Callable<T> task : tasks) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    return task.call();
+                }));
+            }
+            start.countDown();
+            List<T> results = new ArrayList<>();
+            for (Future<T> future : futures) {
+                results.add(future.get(60, TimeUnit.SECONDS));
+            }
+            return results;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    @DisplayName("Same room and date raced by many threads has exactly one winner")
+    void testSameSlotSingleWinner() throws Exception {
+        LocalDate date = LocalDate.now().plusDays(30);
+        List<Callable<Boolean>> tasks = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            String name = "Guest" + t;
+            tasks.add(() -> reservationService.addReservation(name, date, 150, 2));
+        }
+
+        List<Boolean> results = runTogether(THREADS, tasks);
+
+        assertEquals(1, results.stream().filter(b -> b).count(), "Exactly one booking should win");
+        assertEquals(1, reservationService.getAllReservations().size(), "Only one reservation should be stored");
+    }
+
+    @Test
+    @DisplayName("No double bookings when 32 threads compete for every room and date")
+    void testNoDoubleBookings() throws Exception {
+        List<Callable<Integer>> tasks = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            String name = "Guest" + t;
+            tasks.add(() -> {
+                List<Integer> slots = new ArrayList<>();
+                for (int i = 0; i < OccupancyCalendar.ROOM_COUNT * DAYS; i++) {
+                    slots.add(i);
+                }
+                Collections.shuffle(slots);
+                int wins = 0;
+                for (int slot : slots) {
+                    int room = OccupancyCalendar.FIRST_ROOM + slot / DAYS;
+                    LocalDate date = LocalDate.now().plusDays(1 + slot % DAYS);
+                    if (reservationService.addReservation(name, date, room, 2)) {
+                        wins++;
+                    }
+                }
+                return wins;
+            });
+        }
+
+        int totalWins = runTogether(THREADS, tasks).stream().mapToInt(Integer::intValue).sum();
+
+        List<Reservation> all = reservationService.getAllReservations();
+        Set<String> slots = new HashSet<>();
+        for (Reservation reservation : all) {
+            assertTrue(slots.add(reservation.getRoomNumber() + "/" + reservation.getDateTime()),
+                    "Slot booked twice: " + reservation);
+        }
+        assertEquals(OccupancyCalendar.ROOM_COUNT * DAYS, totalWins, "Every slot should be won exactly once");
+        assertEquals(totalWins, all.size(), "Stored reservations should match the winning bookings");
+    }
+
+    @Test
+    @DisplayName("Bookings on disjoint rooms are never rejected")
+    void testDisjointRoomsNeverRejected() throws Exception {
+        int threads = 8;
+        int opsPerThread = 5_000;
+        List<Callable<Integer>> tasks = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            int room = OccupancyCalendar.FIRST_ROOM + t;
+            String name = "Guest" + t;
+            tasks.add(() -> {
+                LocalDate date = LocalDate.now().plusDays(10);
+                int done = 0;
+                for (int i = 0; i < opsPerThread; i++) {
+                    if (reservationService.addReservation(name, date, room, 2) &&
+                            reservationService.cancelReservation(name, date, room, 2)) {
+                        done++;
+                    }
+                }
+                return done;
+            });
+        }
+
+        int done = runTogether(threads, tasks).stream().mapToInt(Integer::intValue).sum();
+
+        assertEquals(threads * opsPerThread, done, "Threads on different rooms should never be rejected");
+        assertEquals(0, reservationService.getAllReservations().size(), "Every booking was cancelled again");
+    }
+}
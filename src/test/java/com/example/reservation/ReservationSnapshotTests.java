@@ -0,0 +1,128 @@
+package com.example.reservation;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReservationSnapshotTests {
+
+    @TempDir
+    Path dir;
+
+    private static List<String> files(Path directory) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.map(file -> file.getFileName().toString()).sorted().toList();
+        }
+    }
+
+    @Test
+    @DisplayName("Snapshot round trip keeps every column")
+    void testRoundTrip() throws IOException {
+        Path file = dir.resolve("test.snap");
+        LocalDate date = LocalDate.now().plusDays(3);
+        List<Reservation> written = List.of(
+                new Reservation("Ali", date, 101, 1),
+                new Reservation("Veli", date, 199, 4),
+                new Reservation("Ali", date.plusDays(7), 150, 3));
+
+        assertEquals(3, ReservationSnapshot.write(file, written), "Three rows should be written");
+
+        List<Reservation> loaded = new ArrayList<>();
+        ReservationSnapshot.load(file, new ReservationLog.Handler() {
+            @Override
+            public void add(String customerName, LocalDate d, int roomNumber, int guestCount) {
+                loaded.add(new Reservation(customerName, d, roomNumber, guestCount));
+            }
+
+            @Override
+            public void cancel(String customerName, LocalDate d, int roomNumber, int guestCount) {
+                fail("Snapshots only contain live reservations");
+            }
+        });
+
+        assertEquals(written.toString(), loaded.toString(), "Loaded rows should match the written ones");
+    }
+
+    @Test
+    @DisplayName("Snapshot compacts the log and restart applies only later changes")
+    void testSnapshotAndRecovery() throws IOException {
+        Path data = dir.resolve("data");
+        LocalDate date = LocalDate.now().plusDays(20);
+
+        try (ReservationService service = ReservationService.open(data, 1)) {
+            for (int room = 101; room <= 110; room++) {
+                service.addReservation("Before", date, room, 2);
+            }
+            service.cancelReservation("Before", date, 101, 2);
+            service.snapshot();
+
+            service.addReservation("After", date, 120, 3);
+            service.cancelReservation("Before", date, 102, 2);
+        }
+
+        assertEquals(List.of("snapshot-2.snap", "wal-2.log"), files(data), "Older log segments should be deleted");
+
+        try (ReservationService service = ReservationService.open(data, 1)) {
+            assertEquals(9, service.getAllReservations().size(), "Snapshot plus later changes should be restored");
+            assertNull(service.findReservation("Before", 101), "Cancelled before the snapshot");
+            assertNull(service.findReservation("Before", 102), "Cancelled after the snapshot");
+            assertEquals(3, service.findReservation("After", 120).getGuestCount(), "Added after the snapshot");
+        }
+    }
+
+    @Test
+    @DisplayName("Snapshots taken while bookings run lose nothing")
+    void testSnapshotUnderLoad() throws Exception {
+        Path data = dir.resolve("load");
+        LocalDate date = LocalDate.now().plusDays(1);
+        AtomicInteger booked = new AtomicInteger();
+
+        try (ReservationService service = ReservationService.open(data, 64)) {
+            CountDownLatch started = new CountDownLatch(1);
+            Thread writer = new Thread(() -> {
+                started.countDown();
+                for (int day = 0; day < 200; day++) {
+                    for (int room = 101; room <= 199; room += 7) {
+                        if (service.addReservation("Load", date.plusDays(day), room, 2)) {
+                            booked.incrementAndGet();
+                        }
+                    }
+                }
+            });
+            writer.start();
+            started.await();
+            for (int i = 0; i < 5; i++) {
+                service.snapshot();
+            }
+            writer.join();
+        }
+
+        try (ReservationService service = ReservationService.open(data, 1)) {
+            assertEquals(booked.get(), service.getAllReservations().size(), "Every booking should be recovered");
+        }
+    }
+
+    @Test
+    @DisplayName("Corrupt snapshot is rejected")
+    void testCorruptSnapshot() throws IOException {
+        Path file = dir.resolve("corrupt.snap");
+        ReservationSnapshot.write(file, List.of(new Reservation("Ali", LocalDate.now(), 101, 2)));
+        byte[] bytes = Files.readAllBytes(file);
+        bytes[bytes.length - 6] ^= 1;
+        Files.write(file, bytes);
+
+        assertThrows(IOException.class, () -> ReservationSnapshot.load(file, null));
+    }
+}
@@ -0,0 +1,125 @@
+package com.example.reservation;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReservationStayTests {
+
+    private ReservationService reservationService;
+    private LocalDate date;
+
+    @TempDir
+    Path dir;
+
+    @BeforeEach
+    void setUp() {
+        reservationService = new ReservationService();
+        date = LocalDate.now().plusDays(20);
+    }
+
+    @Test
+    @DisplayName("A stay books every night and conflicts with single nights inside it")
+    void testStayBlocksItsNights() {
+        assertTrue(reservationService.addStay("Ali", date, date.plusDays(7), 120, 2), "Seven-night stay should be booked");
+
+        for (int night = 0; night < 7; night++) {
+            assertFalse(reservationService.isRoomAvailable(120, date.plusDays(night)), "Night " + night + " is taken");
+            assertFalse(reservationService.addReservation("Veli", date.plusDays(night), 120, 2),
+                    "Night " + night + " cannot be booked again");
+        }
+        assertTrue(reservationService.addReservation("Veli", date.plusDays(7), 120, 2), "Check-out day stays free");
+        assertTrue(reservationService.addStay("Can", date.minusDays(3), date, 120, 2), "Stay ending on check-in day fits");
+        assertEquals(3, reservationService.getReservationsForRoom(120).size(), "Three stays in the room");
+    }
+
+    @Test
+    @DisplayName("An overlapping stay is rejected as a whole")
+    void testOverlapIsAtomic() {
+        reservationService.addReservation("Ali", date.plusDays(5), 130, 2);
+
+        assertFalse(reservationService.addStay("Veli", date, date.plusDays(7), 130, 2), "Stay overlaps night 5");
+
+        for (int night = 0; night < 7; night++) {
+            assertEquals(night != 5, reservationService.isRoomAvailable(130, date.plusDays(night)),
+                    "Rejected stay must not hold night " + night);
+        }
+        assertNull(reservationService.findReservation("Veli", 130), "Nothing should be stored for Veli");
+    }
+
+    @Test
+    @DisplayName("Cancelling by check-in frees every night; other dates of the stay do not match")
+    void testCancelStay() {
+        reservationService.addStay("Ali", date, date.plusDays(3), 140, 2);
+
+        assertFalse(reservationService.cancelReservation("Ali", date.plusDays(1), 140, 2), "Not the check-in date");
+        assertTrue(reservationService.cancelReservation("Ali", date, 140, 2), "Cancelled by check-in date");
+
+        for (int night = 0; night < 3; night++) {
+            assertTrue(reservationService.isRoomAvailable(140, date.plusDays(night)), "Night " + night + " is free again");
+        }
+    }
+
+    @Test
+    @DisplayName("Single-date reservations are one-night stays")
+    void testSingleDateIsOneNight() {
+        reservationService.addReservation("Ali", date, 150, 2);
+
+        Reservation found = reservationService.findReservation("Ali", 150);
+
+        assertEquals(1, found.getNights(), "One night");
+        assertEquals(date.plusDays(1), found.getCheckOut(), "Checks out the next day");
+        assertEquals(new Reservation("Ali", date, 150, 2), found, "Same as the single-date reservation");
+    }
+
+    @Test
+    @DisplayName("Stay rules: check-out after check-in, nights within the booking window")
+    void testStayRules() {
+        assertThrows(IllegalArgumentException.class, () -> reservationService.addStay("Ali", date, date, 120, 2));
+        assertThrows(IllegalArgumentException.class, () -> reservationService.addStay("Ali", date, null, 120, 2));
+        assertThrows(IndexOutOfBoundsException.class, () -> reservationService.addStay("Ali", date, date.plusDays(2), 200, 2));
+        assertFalse(reservationService.addStay("Ali", LocalDate.now().minusDays(1), date, 120, 2), "Starts in the past");
+        assertFalse(reservationService.addStay("Ali", LocalDate.now().plusYears(1), LocalDate.now().plusYears(1).plusDays(3),
+                120, 2), "Last nights are more than a year later");
+    }
+
+    @Test
+    @DisplayName("Stays outside the calendar window are checked in the room table")
+    void testOverlapOutsideWindow() {
+        ReservationConflictChecker checker = new ReservationConflictChecker();
+        long far = LocalDate.now().plusYears(3).toEpochDay();
+        checker.occupy(160, far, 10, "Ali", 2);
+
+        assertTrue(checker.hasConflict(160, far - 3, 4), "Last night overlaps the check-in");
+        assertTrue(checker.hasConflict(160, far + 9, 5), "First night overlaps the last night");
+        assertFalse(checker.hasConflict(160, far - 3, 3), "Ends on check-in day");
+        assertFalse(checker.hasConflict(160, far + 10, 3), "Starts on check-out day");
+        assertEquals(far, checker.getOccupant(160, far + 4).getDateTime().toEpochDay(), "Covering stay is found");
+    }
+
+    @Test
+    @DisplayName("Stays survive the log and snapshots")
+    void testStayDurability() throws IOException {
+        Path data = dir.resolve("data");
+        try (ReservationService service = ReservationService.open(data, 1)) {
+            service.addStay("Ali", date, date.plusDays(4), 120, 2);
+            service.snapshot();
+            service.addStay("Veli", date, date.plusDays(6), 121, 3);
+        }
+
+        try (ReservationService service = ReservationService.open(data, 1)) {
+            assertEquals(List.of(new Reservation("Ali", date, date.plusDays(4), 120, 2),
+                            new Reservation("Veli", date, date.plusDays(6), 121, 3)),
+                    service.getAllReservations(), "Both stays should be recovered with their nights");
+            assertFalse(service.isRoomAvailable(121, date.plusDays(5)), "Recovered nights are taken");
+        }
+    }
+}
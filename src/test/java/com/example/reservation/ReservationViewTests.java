@@ -0,0 +1,189 @@
+package com.example.reservation;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+class ReservationViewTests {
+
+    private ReservationService reservationService;
+    private LocalDate tomorrow;
+
+    @BeforeEach
+    void setUp() {
+        reservationService = new ReservationService();
+        tomorrow = LocalDate.now().plusDays(1);
+    }
+
+    @Test
+    @DisplayName("A view keeps answering from its own version after later changes")
+    void testViewIsImmutable() {
+        reservationService.addReservation("Ali", tomorrow, 120, 2);
+        ReservationView before = reservationService.getView();
+
+        reservationService.addReservation("Veli", tomorrow, 121, 2);
+        reservationService.cancelReservation("Ali", tomorrow, 120, 2);
+        ReservationView after = reservationService.getView();
+
+        assertEquals(before.getVersion() + 2, after.getVersion(), "One version per change");
+        assertEquals(1, before.size());
+        assertEquals("Ali", before.getOccupant(120, tomorrow).getCustomerName(), "Old view still has the cancelled stay");
+        assertFalse(before.hasConflict(121, tomorrow), "Old view does not have the later booking");
+        assertNull(after.getOccupant(120, tomorrow));
+        assertTrue(after.hasConflict(121, tomorrow));
+        assertEquals(List.of(121), after.all().map(Reservation::getRoomNumber).toList());
+    }
+
+    @Test
+    @DisplayName("Rooms with more stays than a chunk keep date order through inserts and cancels")
+    void testChunkedRoomTable() {
+        List<Integer> offsets = new ArrayList<>();
+        for (int i = 0; i < 5 * RoomTable.CHUNK; i++) {
+            offsets.add(i * 2);
+        }
+        Collections.shuffle(offsets, new Random(7));
+        for (int offset : offsets) {
+            assertTrue(reservationService.addStay("Ali", tomorrow.plusDays(offset), tomorrow.plusDays(offset + 2), 150, 2));
+        }
+        for (int offset : offsets.subList(0, offsets.size() / 2)) {
+            assertTrue(reservationService.cancelReservation("Ali", tomorrow.plusDays(offset), 150, 2));
+        }
+
+        List<Reservation> stays = reservationService.getReservationsForRoom(150);
+        List<Integer> expected = new ArrayList<>(offsets.subList(offsets.size() / 2, offsets.size()));
+        Collections.sort(expected);
+        assertEquals(expected.size(), stays.size());
+        for (int i = 0; i < stays.size(); i++) {
+            assertEquals(tomorrow.plusDays(expected.get(i)), stays.get(i).getDateTime(), "Date order across chunks");
+        }
+        ReservationView view = reservationService.getView();
+        for (int offset : expected) {
+            assertTrue(view.hasConflict(150, tomorrow.plusDays(offset + 1)), "Second night is taken");
+            assertEquals(expected.contains(offset - 2), view.hasConflict(150, tomorrow.plusDays(offset - 1)),
+                    "Night before is taken only by a stay checking in the day before");
+        }
+        assertEquals(tomorrow.plusDays(expected.get(0)), reservationService.findReservation("Ali", 150).getDateTime(),
+                "Earliest remaining stay");
+    }
+
+    @Test
+    @DisplayName("Readers see a batch either completely or not at all")
+    void testBatchIsAtomicForReaders() throws Exception {
+        int rounds = 200;
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        AtomicBoolean writing = new AtomicBoolean(true);
+        try {
+            Future<?> writer = executor.submit(() -> {
+                try {
+                    for (int round = 0; round < rounds; round++) {
+                        List<ReservationRequest> batch = new ArrayList<>();
+                        for (int room = 101; room <= 199; room += 7) {
+                            batch.add(new ReservationRequest("Tour" + round, tomorrow.plusDays(round), room, 2));
+                        }
+                        reservationService.addReservations(batch);
+                    }
+                } finally {
+                    writing.set(false);
+                }
+            });
+            Future<?> reader = executor.submit(() -> {
+                while (writing.get()) {
+                    ReservationView view = reservationService.getView();
+                    assertEquals(0, view.size() % 15, "Whole batches only, saw " + view.size());
+                    for (int round = 0; round < rounds; round++) {
+                        boolean first = view.hasConflict(101, tomorrow.plusDays(round));
+                        boolean last = view.hasConflict(199, tomorrow.plusDays(round));
+                        assertEquals(first, last, "Batch " + round + " is half visible");
+                    }
+                }
+            });
+            writer.get();
+            reader.get();
+        } finally {
+            executor.shutdown();
+            assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+        }
+        assertEquals(rounds * 15, reservationService.getView().size());
+        assertEquals("Tour7", reservationService.findReservation("Tour7", 199).getCustomerName());
+    }
+
+    @Test
+    @DisplayName("Availability reads see staged nights only once they are published; holds count at once")
+    void testAvailabilityIgnoresStagedNights() {
+        long today = LocalDate.now().toEpochDay();
+        ReservationConflictChecker checker = new ReservationConflictChecker(today);
+        int[] rooms = new int[OccupancyCalendar.ROOM_COUNT];
+        long[] starts = new long[1];
+
+        checker.stage(120, today + 5, 3, 0, 2);
+        assertTrue(checker.hasConflict(120, today + 6, 1), "Writers see the staged stay");
+        assertTrue(checker.isFree(120, today + 6), "Readers do not");
+        assertEquals(99, checker.freeRooms(today + 5, today + 7, rooms));
+        checker.freeStarts(120, today + 1, today + 10, 2, starts);
+        assertEquals(0b111111111L, starts[0], "Every start of a two-night stay ending by the tenth day is open");
+
+        checker.publish(120);
+        assertFalse(checker.isFree(120, today + 6));
+        assertEquals(98, checker.freeRooms(today + 7, rooms));
+        checker.freeStarts(120, today + 1, today + 10, 2, starts);
+        assertEquals(0b110000111L, starts[0], "Check-ins from the night before the stay to its last night are taken");
+
+        assertTrue(checker.hold(121, today + 5, 2));
+        assertFalse(checker.isFree(121, today + 5), "Holds are taken without a publication");
+        assertEquals(97, checker.freeRooms(today + 5, rooms));
+        checker.stage(130, today + 5, 1, 0, 2);
+        assertFalse(checker.isFree(121, today + 5), "Held while another batch is staged");
+        assertEquals(97, checker.freeRooms(today + 5, rooms), "Staged room 130 is still free, held 121 is not");
+        checker.freeStarts(120, today + 1, today + 10, 2, starts);
+        assertEquals(0b110000111L, starts[0], "Same starts from the view as from the calendar");
+        checker.publish(130);
+        assertEquals(96, checker.freeRooms(today + 5, rooms));
+        checker.occupy(121, today + 5, 2, 0, 2);
+        checker.confirmHold(121, today + 5, 2);
+        assertFalse(checker.isFree(121, today + 6), "A confirmed hold stays taken as a stay");
+        assertTrue(checker.hold(122, today + 5, 1));
+        checker.releaseHold(122, today + 5, 1);
+        assertTrue(checker.isFree(122, today + 5));
+        assertFalse(checker.isFree(122, today - 1), "Days before the window are not available");
+    }
+
+    @Test
+    @DisplayName("all() builds each reservation when the stream reaches it, not a list per room")
+    void testAllIsLazy() {
+        assumeTrue(ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean,
+                "Needs per-thread allocation counters");
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        ReservationConflictChecker checker = new ReservationConflictChecker(0);
+        for (int day = 0; day < 3000; day++) {
+            checker.occupy(101, day, "Guest", 2);
+        }
+        ReservationView view = checker.view();
+        assertEquals(3000, view.all().count());
+        assertEquals(LocalDate.ofEpochDay(1), view.all().skip(1).findFirst().orElseThrow().getDateTime());
+        Iterator<Reservation> stays = view.all().iterator();
+
+        long before = threads.getCurrentThreadAllocatedBytes();
+        Reservation first = stays.next();
+        long bytes = threads.getCurrentThreadAllocatedBytes() - before;
+
+        assertEquals(LocalDate.ofEpochDay(0), first.getDateTime());
+        //At most one chunk of RoomTable.CHUNK reservations is built ahead, not all 3000 of room 101 in a list.
+        assertTrue(bytes < 8 * 1024, "Bytes for the first reservation: " + bytes);
+    }
+}
@@ -0,0 +1,178 @@
+package com.example.reservation;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ShardedReservationServiceTests {
+
+    private ShardedReservationService sharded;
+    private ReservationService single;
+    private LocalDate date;
+
+    @TempDir
+    Path dir;
+
+    @BeforeEach
+    void setUp() {
+        sharded = new ShardedReservationService(4);
+        single = new ReservationService();
+        date = LocalDate.now().plusDays(10);
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        sharded.close();
+    }
+
+    @Test
+    @DisplayName("Every room has exactly one shard and each shard answers for its rooms")
+    void testRouting() {
+        for (int shards = 1; shards <= 99; shards++) {
+            try (ShardedReservationService service = new ShardedReservationService(shards)) {
+                for (int room = 101; room <= 199; room++) {
+                    assertTrue(service.addReservation("R" + room, date, room, 2), "Room " + room + " with " + shards + " shards");
+                }
+                assertEquals(99, service.getAllReservations().size(), "One booking per room with " + shards + " shards");
+                assertEquals(0, service.getAvailableRooms(date).length, "No room is left with " + shards + " shards");
+            } catch (IOException e) {
+                fail(e);
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Sharded answers match a single service")
+    void testSameAnswersAsSingleService() {
+        for (int i = 0; i < 500; i++) {
+            LocalDate day = date.plusDays(i % 37);
+            int room = 101 + (i * 7) % 99;
+            String name = "Guest" + (i % 13);
+            assertEquals(single.addReservation(name, day, room, 2), sharded.addReservation(name, day, room, 2),
+                    "Booking " + i);
+        }
+        sharded.addStay("Stay", date.plusDays(40), date.plusDays(45), 150, 3);
+        single.addStay("Stay", date.plusDays(40), date.plusDays(45), 150, 3);
+
+        assertEquals(single.getAllReservations(), sharded.getAllReservations(), "Same reservations in the same order");
+        assertEquals(single.getReservationsForCustomer("Guest3"), sharded.getReservationsForCustomer("Guest3"),
+                "Customer lookup gathers every shard");
+        assertArrayEquals(single.getAvailableRooms(date, date.plusDays(5), 2), sharded.getAvailableRooms(date, date.plusDays(5), 2),
+                "Range availability");
+        assertEquals(single.findAvailableStays(date, date.plusDays(60), 3, 2, 25).toString(),
+                sharded.findAvailableStays(date, date.plusDays(60), 3, 2, 25).toString(), "First free stays");
+        assertEquals(single.findReservation("Guest5", 136), sharded.findReservation("Guest5", 136), "Find by room");
+    }
+
+    @Test
+    @DisplayName("Queries limited to a shard's rooms answer for those rooms only, up to the limit")
+    void testRoomRangeQueries() {
+        single.addReservation("Ali", date, 152, 2);
+        int[] rooms = new int[99];
+
+        int count = single.getAvailableRooms(date, 150, 160, rooms);
+        assertEquals(10, count, "Eleven rooms in the range, one taken");
+        assertEquals(150, rooms[0]);
+        assertEquals(160, rooms[count - 1]);
+        assertEquals(11, single.getAvailableRooms(date, date.plusDays(2), 2, 170, 180, rooms));
+
+        List<AvailableStay> stays = single.findAvailableStays(date, date.plusDays(300), 2, 2, 7, 150, 152);
+        assertEquals(7, stays.size(), "Limit applies inside the range");
+        assertTrue(stays.stream().allMatch(stay -> stay.getRoomNumber() >= 150 && stay.getRoomNumber() <= 152));
+        assertEquals(List.of(150, 151, 150, 151, 152, 150, 151),
+                stays.stream().map(AvailableStay::getRoomNumber).toList(), "Date order, then room");
+        assertEquals(2, sharded.findAvailableStays(date, date.plusDays(300), 1, 2, 2).size(), "Merged up to the limit");
+    }
+
+    @Test
+    @DisplayName("Validation errors come back as the same exceptions")
+    void testExceptions() {
+        assertThrows(IllegalArgumentException.class, () -> sharded.addReservation(null, date, 120, 2));
+        assertThrows(IndexOutOfBoundsException.class, () -> sharded.addReservation("Ali", date, 200, 2));
+        assertThrows(IndexOutOfBoundsException.class, () -> sharded.addReservation("Ali", date, 150, 5));
+        assertFalse(sharded.addReservation("Ali", LocalDate.now().minusDays(1), 200, 2), "Past date is checked first");
+        assertFalse(sharded.cancelReservation("Ali", date, null, 2), "Nothing to cancel");
+    }
+
+    @Test
+    @DisplayName("Async bookings for one slot have a single winner")
+    void testAsyncSingleWinner() {
+        List<CompletableFuture<Boolean>> attempts = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            attempts.add(sharded.addReservationAsync("Guest" + i, date, 170, 2));
+        }
+
+        long winners = attempts.stream().filter(CompletableFuture::join).count();
+
+        assertEquals(1, winners, "Exactly one booking should win the slot");
+    }
+
+    @Test
+    @DisplayName("Batch results come back in request order")
+    void testBatchAcrossShards() {
+        List<ReservationRequest> batch = new ArrayList<>();
+        for (int room = 199; room >= 101; room--) {
+            batch.add(new ReservationRequest("Tour", date, room, 2));
+        }
+        batch.add(new ReservationRequest("Tour", date, 150, 2));   //Same slot again.
+
+        boolean[] results = sharded.addReservations(batch);
+
+        for (int i = 0; i < 99; i++) {
+            assertTrue(results[i], "Request " + i + " should be booked");
+        }
+        assertFalse(results[99], "Duplicate slot should be rejected");
+        assertEquals(99, sharded.getReservationsForCustomer("Tour").size(), "All rooms booked");
+    }
+
+    @Test
+    @DisplayName("Durable shards recover their own rooms")
+    void testDurableShards() throws IOException {
+        Path data = dir.resolve("data");
+        try (ShardedReservationService service = ShardedReservationService.open(data, 3, 1)) {
+            service.addReservation("Ali", date, 101, 2);
+            service.addReservation("Veli", date, 199, 2);
+        }
+        try (ShardedReservationService service = ShardedReservationService.open(data, 3, 1)) {
+            assertEquals(2, service.getAllReservations().size(), "Both shards recovered");
+            assertFalse(service.isRoomAvailable(199, date), "Recovered booking blocks the room");
+        }
+    }
+
+    @Test
+    @DisplayName("An interrupted close still closes every shard and keeps the interrupt")
+    void testInterruptedClose() throws IOException {
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        ShardedReservationService service = ShardedReservationService.open(dir.resolve("data"), 3, 1);
+        service.addReservation("Ali", date, 101, 2);
+        List<ObjectName> names = new ArrayList<>();
+        for (ReservationMetrics metrics : service.getMetrics()) {
+            names.add(metrics.registerMBean("interrupted-close-" + names.size()));
+        }
+
+        Thread.currentThread().interrupt();
+        service.close();
+
+        assertTrue(Thread.interrupted(), "Interrupt restored (and cleared here)");
+        for (ObjectName name : names) {
+            assertFalse(server.isRegistered(name), name + " was not closed");
+        }
+        try (ShardedReservationService reopened = ShardedReservationService.open(dir.resolve("data"), 3, 1)) {
+            assertNotNull(reopened.findReservation("Ali", 101), "The log was synced, not closed by the interrupt");
+        }
+    }
+}
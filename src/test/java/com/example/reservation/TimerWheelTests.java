@@ -0,0 +1,93 @@
+package com.example.reservation;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TimerWheelTests {
+
+    private static final long TICK = 10;
+
+    private TimerWheel wheel;
+
+    @BeforeEach
+    void setUp() {
+        wheel = new TimerWheel(TICK, 8, 0);
+    }
+
+    @Test
+    @DisplayName("Timeouts run at the first tick at or after their deadline")
+    void testDeadlines() {
+        List<String> fired = new ArrayList<>();
+        wheel.schedule(() -> fired.add("a"), 25);
+        wheel.schedule(() -> fired.add("b"), 30);
+
+        assertEquals(0, wheel.advance(29), "Nothing is due before tick 3");
+        assertEquals(2, wheel.advance(30), "Both are due at tick 3");
+        assertEquals(List.of("a", "b"), fired.stream().sorted().toList(), "Both ran");
+        assertEquals(0, wheel.size(), "Nothing left");
+    }
+
+    @Test
+    @DisplayName("Deadlines more than one turn away wait for their round")
+    void testRounds() {
+        AtomicInteger fired = new AtomicInteger();
+        wheel.schedule(fired::incrementAndGet, 8 * TICK * 3 + 20);   //Three turns and two ticks.
+
+        wheel.advance(8 * TICK * 3 + 19);
+        assertEquals(0, fired.get(), "Same bucket was passed three times without firing");
+        wheel.advance(8 * TICK * 3 + 20);
+        assertEquals(1, fired.get(), "Fired on the third turn");
+    }
+
+    @Test
+    @DisplayName("Cancelled timeouts never run")
+    void testCancel() {
+        AtomicInteger fired = new AtomicInteger();
+        TimerWheel.Timeout timeout = wheel.schedule(fired::incrementAndGet, 50);
+
+        assertTrue(timeout.cancel(), "First cancel wins");
+        assertFalse(timeout.cancel(), "Second cancel does nothing");
+        wheel.advance(1000);
+
+        assertEquals(0, fired.get(), "Cancelled task must not run");
+        assertTrue(timeout.isCancelled(), "State is cancelled");
+        assertEquals(0, wheel.size(), "Not counted any more");
+    }
+
+    @Test
+    @DisplayName("Past deadlines run on the next advance")
+    void testPastDeadline() {
+        wheel.advance(100);
+        AtomicInteger fired = new AtomicInteger();
+        TimerWheel.Timeout timeout = wheel.schedule(fired::incrementAndGet, 5);
+
+        wheel.advance(110);
+
+        assertEquals(1, fired.get(), "Overdue task ran");
+        assertTrue(timeout.isExpired(), "State is expired");
+    }
+
+    @Test
+    @DisplayName("A million timeouts expire in one pass each")
+    void testManyTimeouts() {
+        TimerWheel big = new TimerWheel(TICK, 512, 0);
+        AtomicInteger fired = new AtomicInteger();
+        for (int i = 0; i < 1_000_000; i++) {
+            TimerWheel.Timeout timeout = big.schedule(fired::incrementAndGet, (i % 5000) * TICK);
+            if (i % 2 == 0) {timeout.cancel();}
+        }
+
+        big.advance(2500 * TICK);
+        assertEquals(250_000, fired.get(), "Odd deadlines up to tick 2500, even ones were cancelled");
+        big.advance(5000 * TICK);
+        assertEquals(500_000, fired.get(), "Every uncancelled timeout ran");
+        assertEquals(0, big.size(), "Nothing left");
+    }
+}
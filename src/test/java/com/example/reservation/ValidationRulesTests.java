@@ -0,0 +1,186 @@
+package com.example.reservation;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ValidationRulesTests {
+
+    //Singles and doubles in 101-150, family rooms 151-190, 191-199 closed for renovation.
+    private static final String HOTEL = """
+            roomType.standard.rooms = 101-150
+            roomType.standard.guests = 1-2
+            roomType.family.rooms = 151-180, 181-190
+            roomType.family.guests = 3-6
+            booking.minDaysAhead = 1
+            booking.maxDaysAhead = 90
+            """;
+
+    private ReservationService reservationService;
+    private LocalDate today;
+
+    private static ValidationRules compile(String config) {
+        Properties properties = new Properties();
+        try {
+            properties.load(new StringReader(config));
+        } catch (IOException e) {
+            throw new AssertionError(e);
+        }
+        return ValidationRules.compile(properties);
+    }
+
+    @BeforeEach
+    void setUp() {
+        reservationService = new ReservationService();
+        today = LocalDate.now();
+    }
+
+    @Test
+    @DisplayName("Default rules are the hard-coded checks they replace")
+    void testDefaultsMatchHardCodedChecks() {
+        ValidationRules rules = ValidationRules.defaults();
+        for (int room = 0; room <= 300; room++) {
+            assertEquals(room >= 101 && room <= 199, rules.isValidRoom(room), "Room " + room);
+        }
+        for (int guests = -1; guests <= 20; guests++) {
+            assertEquals(guests >= 1 && guests <= 4, rules.isValidGuestCount(guests), "Guests " + guests);
+            assertEquals(guests >= 1 && guests <= 4, rules.isValidGuestCount(150, guests), "Guests " + guests + " in room 150");
+        }
+        assertEquals("Room number must be selected between 101-199 (101 and 199 included).", rules.getRoomMessage());
+        assertEquals("Guest count must be between 1-4. (1 and 4 included)", rules.getGuestMessage());
+    }
+
+    @Test
+    @DisplayName("Room types compile into per-room guest ranges")
+    void testRoomTypes() {
+        ValidationRules rules = compile(HOTEL);
+
+        assertTrue(rules.isValidGuestCount(101, 2), "Standard takes 2");
+        assertFalse(rules.isValidGuestCount(150, 3), "Standard does not take 3");
+        assertTrue(rules.isValidGuestCount(151, 6), "Family takes 6");
+        assertFalse(rules.isValidGuestCount(190, 2), "Family does not take 2");
+        assertTrue(rules.isValidRoom(190), "Second range of family rooms");
+        assertFalse(rules.isValidRoom(191), "Rooms of no type are closed");
+        assertTrue(rules.isValidGuestCount(5), "Some room takes 5");
+        assertFalse(rules.isValidGuestCount(7), "No room takes 7");
+    }
+
+    @Test
+    @DisplayName("Bad configurations are rejected when compiled")
+    void testBadConfigurations() {
+        assertThrows(IllegalArgumentException.class, () -> compile(""), "No room types");
+        assertThrows(IllegalArgumentException.class, () -> compile("roomType.a.rooms=101-110"), "Guests missing");
+        assertThrows(IllegalArgumentException.class, () -> compile("roomType.a.rooms=100-110\nroomType.a.guests=1-2"),
+                "Room outside the hotel");
+        assertThrows(IllegalArgumentException.class, () -> compile("roomType.a.rooms=101-110\nroomType.a.guests=1-16"),
+                "Too many guests");
+        assertThrows(IllegalArgumentException.class, () -> compile("roomType.a.rooms=110-101\nroomType.a.guests=1-2"),
+                "Empty range");
+        assertThrows(IllegalArgumentException.class, () -> compile("roomType.a.rooms=1x\nroomType.a.guests=1-2"),
+                "Not a number");
+        assertThrows(IllegalArgumentException.class, () -> compile(
+                "roomType.a.rooms=101-110\nroomType.a.guests=1-2\nroomType.b.rooms=110\nroomType.b.guests=3"),
+                "Overlapping room types");
+        assertThrows(IllegalArgumentException.class, () -> compile(
+                "roomType.a.rooms=101\nroomType.a.guests=1\nbooking.maxDaysAhead=400"), "Window beyond the calendar");
+        assertThrows(IllegalArgumentException.class, () -> compile(
+                "roomType.a.rooms=101\nroomType.a.guests=1\nbooking.maxDaysAhead=-1"), "Negative last day");
+        assertThrows(IllegalArgumentException.class, () -> compile(
+                "roomType.a.rooms=101\nroomType.a.guests=1\nbooking.minDaysAhead=5\nbooking.maxDaysAhead=-1"),
+                "Negative last day before the first");
+        assertThrows(IllegalArgumentException.class, () -> compile(
+                "roomType.a.rooms=101\nroomType.a.guests=1\nbooking.minDaysAhead=400"), "First day after one year");
+    }
+
+    @Test
+    @DisplayName("Bookings follow the swapped rules, existing bookings stay")
+    void testHotSwap() {
+        assertTrue(reservationService.addReservation("Sarah Parker", today.plusDays(2), 195, 4), "Default rules");
+
+        reservationService.setValidationRules(compile(HOTEL));
+
+        IndexOutOfBoundsException closed = assertThrows(IndexOutOfBoundsException.class,
+                () -> reservationService.addReservation("Ahmet Yilmaz", today.plusDays(2), 196, 2));
+        assertEquals("Room number is not bookable.", closed.getMessage());
+        IndexOutOfBoundsException tooMany = assertThrows(IndexOutOfBoundsException.class,
+                () -> reservationService.addReservation("Ahmet Yilmaz", today.plusDays(2), 120, 3));
+        assertEquals("Guest count is not allowed for this room.", tooMany.getMessage());
+        assertTrue(reservationService.addReservation("Ahmet Yilmaz", today.plusDays(2), 160, 5), "Family room");
+
+        assertFalse(reservationService.addReservation("Ahmet Yilmaz", today, 120, 1), "Before minDaysAhead");
+        assertFalse(reservationService.addReservation("Ahmet Yilmaz", today.plusDays(91), 120, 1), "After maxDaysAhead");
+        assertTrue(reservationService.addReservation("Ahmet Yilmaz", today.plusDays(90), 120, 1), "Last day of the window");
+
+        assertEquals(1, reservationService.getReservationsForRoom(195).size(), "Booking in a closed room kept");
+        assertTrue(reservationService.cancelReservation("Sarah Parker", today.plusDays(2), 195, 4),
+                "Bookings in closed rooms can still be cancelled");
+    }
+
+    @Test
+    @DisplayName("Availability only lists rooms whose type takes the party")
+    void testAvailabilityFollowsRules() {
+        reservationService.setValidationRules(compile(HOTEL));
+        LocalDate day = today.plusDays(5);
+
+        int[] families = reservationService.getAvailableRooms(day, day, 4);
+        assertEquals(40, families.length, "Family rooms 151-190");
+        assertEquals(151, families[0]);
+        assertEquals(190, families[families.length - 1]);
+
+        List<AvailableStay> stays = reservationService.findAvailableStays(today, today.plusDays(200), 2, 1, 1000);
+        assertFalse(stays.isEmpty());
+        for (AvailableStay stay : stays) {
+            assertTrue(stay.getRoomNumber() <= 150, "Only standard rooms take 1 guest: " + stay);
+            assertFalse(stay.getCheckIn().isBefore(today.plusDays(1)), "From minDaysAhead on: " + stay);
+            assertFalse(stay.getLastNight().isAfter(today.plusDays(90)), "Up to maxDaysAhead: " + stay);
+        }
+    }
+
+    @Test
+    @DisplayName("Concurrent bookings see either the old or the new rules, never a mix")
+    void testSwapDuringBookings() throws Exception {
+        //Old rules: every room takes only 1 guest. New rules: every room takes only 2. No rule set takes both.
+        ValidationRules singles = compile("roomType.all.rooms=101-199\nroomType.all.guests=1");
+        ValidationRules doubles = compile("roomType.all.rooms=101-199\nroomType.all.guests=2");
+        RoomValidatorService validator = new RoomValidatorService(singles);
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<?> swapper = executor.submit(() -> {
+                start.await();
+                for (int i = 0; i < 100_000; i++) {
+                    validator.setRules(i % 2 == 0 ? doubles : singles);
+                }
+                return null;
+            });
+            Future<Integer> reader = executor.submit(() -> {
+                start.await();
+                int mixed = 0;
+                for (int i = 0; i < 100_000; i++) {
+                    ValidationRules rules = validator.getRules();
+                    if (rules.isValidGuestCount(120, 1) == rules.isValidGuestCount(120, 2)) {mixed++;}
+                }
+                return mixed;
+            });
+            start.countDown();
+            swapper.get();
+            assertEquals(0, reader.get(), "A rule set read once is consistent");
+        } finally {
+            executor.shutdown();
+            assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+        }
+    }
+}
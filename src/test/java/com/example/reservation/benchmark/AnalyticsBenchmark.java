@@ -0,0 +1,113 @@
+package com.example.reservation.benchmark;
+
+import com.example.reservation.ImportResult;
+import com.example.reservation.Reservation;
+import com.example.reservation.ReservationAnalytics;
+import com.example.reservation.ReservationImporter;
+import com.example.reservation.ReservationService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+//Reports over a store of the given size (loaded once per trial through ReservationImporter): one-night stays on
+//consecutive days in every room, 100k customers, 1-4 guests. Occupancy covers every month of the store.
+//"threads" is the parallelism of the pool running the reports; "boxed" is the single-threaded way of streaming
+//every reservation into HashMaps, for comparison.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+@Fork(value = 1, jvmArgs = "-Xmx4g")
+@State(Scope.Benchmark)
+public class AnalyticsBenchmark {
+    private static final LocalDate FIRST_DAY = LocalDate.of(1000, 1, 1);
+
+    @Param({"1000000", "50000000"})
+    public int reservations;
+
+    @Param({"1", "4"})
+    public int threads;
+
+    private ReservationService service;
+    private ForkJoinPool pool;
+    private YearMonth lastMonth;
+
+    @Setup
+    public void setUp() throws IOException {
+        Path dir = Files.createTempDirectory("analytics-benchmark");
+        Path csv = dir.resolve("stays.csv");
+        try (BufferedWriter out = Files.newBufferedWriter(csv)) {
+            for (int i = 0; i < reservations; i++) {
+                out.write("Customer" + (i % 100_000) + "," + FIRST_DAY.plusDays(i / 99) + "," + (101 + i % 99) + "," +
+                        (1 + i % 4) + "\n");
+            }
+        }
+        service = new ReservationService();
+        ImportResult result = new ReservationImporter(service).importCsv(csv, dir.resolve("rejects.csv"));
+        System.out.printf("%nLoaded %s%n", result);
+        Files.delete(csv);
+        Files.delete(dir.resolve("rejects.csv"));
+        Files.delete(dir);
+        lastMonth = YearMonth.from(FIRST_DAY.plusDays((reservations - 1) / 99));
+        pool = new ForkJoinPool(threads);
+    }
+
+    @TearDown
+    public void tearDown() {
+        pool.shutdown();
+    }
+
+    @Benchmark
+    public ReservationAnalytics.Occupancy occupancy() {
+        return service.getAnalytics(pool).occupancy(YearMonth.from(FIRST_DAY), lastMonth);
+    }
+
+    @Benchmark
+    public long[] guestCounts() {
+        return service.getAnalytics(pool).guestCountDistribution();
+    }
+
+    @Benchmark
+    public ReservationAnalytics.CustomerCounts customerCounts() {
+        return service.getAnalytics(pool).bookingsPerCustomer();
+    }
+
+    //All three, aggregated from Reservation objects into boxed maps on one thread.
+    @Benchmark
+    public Object boxed() {
+        Map<Long, Integer> occupancy = new HashMap<>();
+        Map<Integer, Long> guests = new HashMap<>();
+        Map<String, Integer> customers = new HashMap<>();
+        for (Iterator<Reservation> stays = service.streamReservations().iterator(); stays.hasNext(); ) {
+            Reservation stay = stays.next();
+            for (LocalDate night = stay.getDateTime(); night.isBefore(stay.getCheckOut()); night = night.plusDays(1)) {
+                occupancy.merge((long) stay.getRoomNumber() << 32 | YearMonth.from(night).getMonthValue() +
+                        12L * night.getYear(), 1, Integer::sum);
+            }
+            guests.merge(stay.getGuestCount(), 1L, Long::sum);
+            customers.merge(stay.getCustomerName(), 1, Integer::sum);
+        }
+        return new Object[] {occupancy, guests, customers};
+    }
+}
@@ -0,0 +1,88 @@
+package com.example.reservation.benchmark;
+
+import com.example.reservation.AvailableStay;
+import com.example.reservation.ReservationService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+//Availability search over a window across all rooms. Sample mode reports the percentiles (the target is p99 < 1 ms
+//for a 30-day window); bruteForce is the old way of asking hasConflict for every room and day.
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AvailabilityBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class Store {
+        @Param({"30"})
+        public int windowDays;
+
+        //Share of the room-days that are booked.
+        @Param({"0.5", "0.9"})
+        public double occupancy;
+
+        public ReservationService service;
+        public LocalDate today;
+
+        @Setup
+        public void setUp() {
+            service = new ReservationService();
+            today = LocalDate.now();
+            Random random = new Random(42);
+            for (int day = 1; day <= 360; day++) {
+                for (int room = 101; room <= 199; room++) {
+                    if (random.nextDouble() < occupancy) {
+                        service.addReservation("Customer" + random.nextInt(5000), today.plusDays(day), room, 2);
+                    }
+                }
+            }
+        }
+
+        LocalDate randomStart() {
+            return today.plusDays(1 + ThreadLocalRandom.current().nextInt(360 - windowDays));
+        }
+    }
+
+    @Benchmark
+    public int[] freeRoomsForWindow(Store store) {
+        LocalDate from = store.randomStart();
+        return store.service.getAvailableRooms(from, from.plusDays(store.windowDays - 1), 3);
+    }
+
+    @Benchmark
+    public List<AvailableStay> firstTenThreeNightStays(Store store) {
+        LocalDate from = store.randomStart();
+        return store.service.findAvailableStays(from, from.plusDays(store.windowDays - 1), 3, 2, 10);
+    }
+
+    @Benchmark
+    public int bruteForce(Store store) {
+        LocalDate from = store.randomStart();
+        int free = 0;
+        for (int room = 101; room <= 199; room++) {
+            boolean roomFree = true;
+            for (int day = 0; day < store.windowDays && roomFree; day++) {
+                roomFree = store.service.isRoomAvailable(room, from.plusDays(day));
+            }
+            if (roomFree) {free++;}
+        }
+        return free;
+    }
+}
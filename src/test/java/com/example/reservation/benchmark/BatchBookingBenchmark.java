@@ -0,0 +1,72 @@
+package com.example.reservation.benchmark;
+
+import com.example.reservation.BatchMode;
+import com.example.reservation.ReservationRequest;
+import com.example.reservation.ReservationService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+//10k-item batch booked with addReservations versus one addReservation call per item.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class BatchBookingBenchmark {
+
+    public static final int BATCH_SIZE = 10_000;
+
+    private List<ReservationRequest> batch;
+    private ReservationService service;
+
+    @Setup(Level.Trial)
+    public void createBatch() {
+        batch = new ArrayList<>();
+        LocalDate today = LocalDate.now();
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            batch.add(new ReservationRequest("Group" + (i % 50), today.plusDays(1 + i / 99), 101 + i % 99, 2));
+        }
+    }
+
+    @Setup(Level.Invocation)
+    public void createService() {
+        service = new ReservationService();
+    }
+
+    @Benchmark
+    public int singleItemLoop() {
+        int booked = 0;
+        for (ReservationRequest request : batch) {
+            if (service.addReservation(request.getCustomerName(), request.getDateTime(),
+                    request.getRoomNumber(), request.getGuestCount())) {
+                booked++;
+            }
+        }
+        return booked;
+    }
+
+    @Benchmark
+    public boolean[] batchBestEffort() {
+        return service.addReservations(batch, BatchMode.BEST_EFFORT);
+    }
+
+    @Benchmark
+    public boolean[] batchAllOrNothing() {
+        return service.addReservations(batch, BatchMode.ALL_OR_NOTHING);
+    }
+}
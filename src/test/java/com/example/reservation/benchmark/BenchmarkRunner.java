@@ -0,0 +1,43 @@
+package com.example.reservation.benchmark;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.File;
+
+//Runs the JMH suite once per thread count, with the GC profiler (allocation rate) and JSON results.
+//System properties:
+//  jmh.include   regex of benchmarks to run (default all)
+//  jmh.threads   comma separated thread counts (default 1)
+//  jmh.params    parameter overrides, e.g. storeSize=1000,10000;distribution=UNIFORM
+//  jmh.resultDir directory for result-t<threads>.json (default target/jmh)
+public class BenchmarkRunner {
+
+    public static void main(String[] args) throws Exception {
+        String include = System.getProperty("jmh.include", ".*");
+        String threads = System.getProperty("jmh.threads", "1");
+        String params = System.getProperty("jmh.params", "");
+        File resultDir = new File(System.getProperty("jmh.resultDir", "target/jmh"));
+        resultDir.mkdirs();
+
+        for (String t : threads.split(",")) {
+            int threadCount = Integer.parseInt(t.trim());
+            ChainedOptionsBuilder options = new OptionsBuilder()
+                    .include(include)
+                    .threads(threadCount)
+                    .addProfiler(GCProfiler.class)
+                    .resultFormat(ResultFormatType.JSON)
+                    .result(new File(resultDir, "result-t" + threadCount + ".json").getPath());
+
+            for (String param : params.split(";")) {
+                if (param.isBlank()) {continue;}
+                String[] nameValues = param.split("=", 2);
+                options.param(nameValues[0].trim(), nameValues[1].split(","));
+            }
+            new Runner(options.build()).run();
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package com.example.reservation.benchmark;
+
+import com.example.reservation.BookingResult;
+import com.example.reservation.ReservationService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+//Garbage of the booking path, meant to be run with -prof gc (gc.alloc.rate.norm is bytes per operation).
+//Rejected requests should show 0 B/op. A successful booking is measured in batches of BATCH bookings into an
+//empty service, so divide its B/op by BATCH: the budget is 600 B per booking (see BookingAllocationTests), most
+//of it the copy-on-write of the room's table and the published view.
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+public class BookingAllocationBenchmark {
+
+    public static final int BATCH = 99 * 300;
+
+    @State(Scope.Benchmark)
+    public static class Taken {
+        public ReservationService service;
+        public LocalDate taken;
+        public LocalDate past;
+        public Integer boxedRoom;
+
+        @Setup
+        public void setUp() {
+            service = new ReservationService();
+            taken = LocalDate.now().plusDays(30);
+            past = LocalDate.now().minusDays(1);
+            boxedRoom = 150;
+            service.addReservation("Taken", taken, 150, 2);
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class Empty {
+        public ReservationService service;
+        public LocalDate[] dates;
+        public int next;
+
+        @Setup(Level.Iteration)
+        public void setUp() {
+            service = new ReservationService();
+            dates = new LocalDate[300];
+            for (int i = 0; i < dates.length; i++) {
+                dates[i] = LocalDate.now().plusDays(1 + i);
+            }
+            next = 0;
+        }
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @Warmup(iterations = 3, time = 1)
+    @Measurement(iterations = 5, time = 1)
+    public BookingResult rejectedConflict(Taken state) {
+        return state.service.tryAddReservation("Bot", state.taken, 150, 2);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @Warmup(iterations = 3, time = 1)
+    @Measurement(iterations = 5, time = 1)
+    public BookingResult rejectedPastDate(Taken state) {
+        return state.service.tryAddReservation("Bot", state.past, 150, 2);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @Warmup(iterations = 3, time = 1)
+    @Measurement(iterations = 5, time = 1)
+    public BookingResult rejectedBadRoom(Taken state) {
+        return state.service.tryAddReservation("Bot", state.taken, 250, 2);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @Warmup(iterations = 3, time = 1)
+    @Measurement(iterations = 5, time = 1)
+    public boolean rejectedConflictBoxedApi(Taken state) {
+        return state.service.addReservation("Bot", state.taken, state.boxedRoom, 2);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @Warmup(iterations = 5, batchSize = BATCH)
+    @Measurement(iterations = 10, batchSize = BATCH)
+    public BookingResult booked(Empty state) {
+        int slot = state.next++;
+        return state.service.tryAddReservation("Guest", state.dates[slot / 99], 101 + slot % 99, 2);
+    }
+}
@@ -0,0 +1,79 @@
+package com.example.reservation.benchmark;
+
+import com.example.reservation.BookingResult;
+import com.example.reservation.ReservationService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDate;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+//Bot-style traffic: half the requests have a bad room, bad guest count or missing field, the other half ask for
+//an already taken slot. addReservation throws for the invalid half, tryAddReservation returns a code.
+//The store never changes, so every invocation does the same work.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BookingResultBenchmark {
+
+    private static final int MIX = 1024;
+
+    private String[] names;
+    private LocalDate[] dates;
+    private Integer[] rooms;
+    private Integer[] guests;
+    private ReservationService service;
+
+    @Setup
+    public void setUp() {
+        service = new ReservationService();
+        LocalDate taken = LocalDate.now().plusDays(30);
+        for (int room = 101; room <= 199; room++) {
+            service.addReservation("Taken", taken, room, 2);
+        }
+        names = new String[MIX];
+        dates = new LocalDate[MIX];
+        rooms = new Integer[MIX];
+        guests = new Integer[MIX];
+        for (int i = 0; i < MIX; i++) {
+            names[i] = "Bot" + i;
+            dates[i] = taken;
+            rooms[i] = 101 + i % 99;
+            guests[i] = 2;
+            switch (i % 6) {
+                case 0 -> rooms[i] = 200 + i;   //Bad room.
+                case 2 -> guests[i] = 9;        //Bad guest count.
+                case 4 -> names[i] = null;      //Missing field.
+                default -> { }                  //Valid, but the slot is taken.
+            }
+        }
+    }
+
+    @Benchmark
+    public boolean throwingApi() {
+        int i = ThreadLocalRandom.current().nextInt(MIX);
+        try {
+            return service.addReservation(names[i], dates[i], rooms[i], guests[i]);
+        } catch (IllegalArgumentException | IndexOutOfBoundsException e) {
+            return false;
+        }
+    }
+
+    @Benchmark
+    public BookingResult resultApi() {
+        int i = ThreadLocalRandom.current().nextInt(MIX);
+        return service.tryAddReservation(names[i], dates[i], rooms[i], guests[i]);
+    }
+}
@@ -0,0 +1,61 @@
+package com.example.reservation.benchmark;
+
+import com.example.reservation.ReservationService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+//Book-and-cancel throughput with every thread on its own room, so threads only share the service's structures.
+//Run with -Djmh.threads=1,2,4,8 for the scaling report: ideally ops/ms grows with the thread count up to the cores.
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BookingThroughputBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class Service {
+        public ReservationService service;
+
+        @Setup
+        public void setUp() {
+            service = new ReservationService();
+        }
+    }
+
+    //The room and guest of one benchmark thread.
+    @State(Scope.Thread)
+    public static class ThreadRoom {
+        private static final AtomicInteger NEXT = new AtomicInteger();
+
+        public int room;
+        public String name;
+        public LocalDate date;
+
+        @Setup
+        public void setUp() {
+            int id = NEXT.getAndIncrement();
+            room = 101 + id % 99;
+            name = "Guest" + id;
+            date = LocalDate.now().plusDays(10);
+        }
+    }
+
+    @Benchmark
+    public boolean bookAndCancel(Service state, ThreadRoom slot) {
+        return state.service.addReservation(slot.name, slot.date, slot.room, 2) &&
+                state.service.cancelReservation(slot.name, slot.date, slot.room, 2);
+    }
+}
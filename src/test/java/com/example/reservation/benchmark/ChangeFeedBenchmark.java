@@ -0,0 +1,57 @@
+package com.example.reservation.benchmark;
+
+import com.example.reservation.ChangeFeed;
+import com.example.reservation.ReservationService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDate;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+//Cost of the change feed on the booking path: a book-and-cancel pair (two events) with and without an open
+//feed. Nobody consumes, so the ring keeps wrapping, which is the worst case for a slow subscriber.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ChangeFeedBenchmark {
+
+    @Param({"false", "true"})
+    public boolean feed;
+
+    private ReservationService service;
+    private Integer[] rooms;
+    private LocalDate date;
+
+    @Setup
+    public void setUp() {
+        service = new ReservationService();
+        if (feed) {
+            service.openChangeFeed(ChangeFeed.DEFAULT_CAPACITY);
+        }
+        rooms = new Integer[99];
+        for (int i = 0; i < rooms.length; i++) {
+            rooms[i] = 101 + i;
+        }
+        date = LocalDate.now().plusDays(30);
+    }
+
+    @Benchmark
+    public boolean addThenCancel() {
+        Integer room = rooms[ThreadLocalRandom.current().nextInt(rooms.length)];
+        service.addReservation("Walk-in", date, room, 2);
+        return service.cancelReservation("Walk-in", date, room, 2);
+    }
+}
@@ -0,0 +1,102 @@
+package com.example.reservation.benchmark;
+
+import com.example.reservation.Reservation;
+import com.example.reservation.ReservationConflictChecker;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+//Conflict check and slot add latency as the index grows from 1k to 10M reservations.
+//Only ~99 x 366 slots are bookable through ReservationService, so the index is filled directly
+//with reservations spread over past and future years.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgs = {"-Xmx8g"})
+public class ConflictCheckerBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class Index {
+        @Param({"1000", "100000", "1000000", "10000000"})
+        public int storeSize;
+
+        public ReservationConflictChecker checker;
+        public LocalDate firstDate;
+        public LocalDate freeDate;
+
+        @Setup
+        public void setUp() {
+            checker = new ReservationConflictChecker();
+            firstDate = LocalDate.now().minusDays(storeSize / 99);
+            for (int i = 0; i < storeSize; i++) {
+                checker.occupy(new Reservation("Customer" + (i % 5000), firstDate.plusDays(i / 99), 101 + i % 99, 2));
+            }
+            freeDate = firstDate.plusDays(storeSize / 99 + 2);
+        }
+
+        public LocalDate randomBookedDate() {
+            return firstDate.plusDays(ThreadLocalRandom.current().nextInt(Math.max(1, storeSize / 99)));
+        }
+    }
+
+    @Benchmark
+    public boolean hasConflictHit(Index index) {
+        return index.checker.hasConflict(101 + ThreadLocalRandom.current().nextInt(99), index.randomBookedDate());
+    }
+
+    @Benchmark
+    public boolean hasConflictMiss(Index index) {
+        return index.checker.hasConflict(101 + ThreadLocalRandom.current().nextInt(99), index.freeDate);
+    }
+
+    //Add latency: occupy a free slot and release it again, so the index size stays at storeSize.
+    @Benchmark
+    public int occupyAndRelease(Index index) {
+        int room = 101 + ThreadLocalRandom.current().nextInt(99);
+        index.checker.occupy(new Reservation("Bench", index.freeDate, room, 2));
+        index.checker.release(room, index.freeDate);
+        return room;
+    }
+
+    //The old stream scan, for comparison at small sizes only.
+    @State(Scope.Benchmark)
+    public static class ListStore {
+        @Param({"1000", "100000"})
+        public int listSize;
+
+        public ReservationConflictChecker checker;
+        public List<Reservation> reservations;
+        public LocalDate lastDate;
+
+        @Setup
+        public void setUp() {
+            checker = new ReservationConflictChecker();
+            reservations = new ArrayList<>();
+            LocalDate first = LocalDate.now();
+            for (int i = 0; i < listSize; i++) {
+                reservations.add(new Reservation("Customer", first.plusDays(i / 99), 101 + i % 99, 2));
+            }
+            lastDate = first.plusDays(listSize / 99 + 1);
+        }
+    }
+
+    @Benchmark
+    public boolean hasConflictLinearScan(ListStore store) {
+        return store.checker.hasConflict(store.reservations, 150, store.lastDate);
+    }
+}
@@ -0,0 +1,78 @@
+package com.example.reservation.benchmark;
+
+import com.example.reservation.Reservation;
+import com.example.reservation.ReservationService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jol.info.GraphLayout;
+
+import java.time.LocalDate;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+//Lookups by customer name on a store of 99 rooms x 300 days, by number of distinct customers: few repeat
+//customers (corporate accounts) up to mostly one-off guests. Callers pass their own String instances, as a
+//request parser would, so the service has to map them to its customers itself.
+//Setup prints the heap the store retains per booking (JOL), the numbers to compare with the lookup latencies.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CustomerDictionaryBenchmark {
+    private static final int DAYS = 300;
+
+    @Param({"100", "10000", "29700"})
+    public int customers;
+
+    private ReservationService service;
+    private Reservation[] booked;
+    private String[] callerNames;   //Equal to the booked names, but other instances.
+
+    @Setup
+    public void setUp() {
+        service = new ReservationService();
+        LocalDate firstDay = LocalDate.now().plusDays(1);
+        booked = new Reservation[99 * DAYS];
+        callerNames = new String[booked.length];
+        for (int i = 0; i < booked.length; i++) {
+            String name = "Customer" + (i % customers);
+            booked[i] = new Reservation(name, firstDay.plusDays(i / 99), 101 + i % 99, 2);
+            service.addReservation(name, booked[i].getDateTime(), booked[i].getRoomNumber(), 2);
+            callerNames[i] = new String(name);
+        }
+        long storeBytes = GraphLayout.parseInstance(service).totalSize() -
+                GraphLayout.parseInstance(new ReservationService()).totalSize();
+        System.out.printf("%n%d customers: %.1f bytes per booking retained by the store%n",
+                customers, (double) storeBytes / booked.length);
+    }
+
+    @Benchmark
+    public Reservation findReservation() {
+        int i = ThreadLocalRandom.current().nextInt(booked.length);
+        return service.findReservation(callerNames[i], booked[i].getRoomNumber());
+    }
+
+    @Benchmark
+    public Reservation findUnknownCustomer() {
+        return service.findReservation("Nobody", 101 + ThreadLocalRandom.current().nextInt(99));
+    }
+
+    @Benchmark
+    public boolean cancelWrongCustomer() {
+        int i = ThreadLocalRandom.current().nextInt(booked.length);
+        Reservation taken = booked[i];
+        return service.cancelReservation(callerNames[(i + 1) % callerNames.length], taken.getDateTime(),
+                taken.getRoomNumber(), 2);
+    }
+}
@@ -0,0 +1,69 @@
+package com.example.reservation.benchmark;
+
+import com.example.reservation.BookingWindow;
+import com.example.reservation.ReservationService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+//Booking-date validation: the previous path (LocalDate.now() twice plus date.minusYears(1) per request)
+//against the cached BookingWindow bounds, alone and inside addReservation for a taken slot.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DateValidationBenchmark {
+
+    private LocalDate[] dates;
+    private BookingWindow window;
+    private ReservationService service;
+    private LocalDate taken;
+
+    @Setup
+    public void setUp() {
+        LocalDate today = LocalDate.now();
+        dates = new LocalDate[1024];
+        for (int i = 0; i < dates.length; i++) {
+            dates[i] = today.plusDays(i % 400 - 10);   //Some past, most bookable, some too far.
+        }
+        window = new BookingWindow(Clock.systemDefaultZone());
+        service = new ReservationService();
+        taken = today.plusDays(30);
+        service.addReservation("Taken", taken, 150, 2);
+    }
+
+    private LocalDate randomDate() {
+        return dates[ThreadLocalRandom.current().nextInt(dates.length)];
+    }
+
+    @Benchmark
+    public boolean localDateNow() {
+        LocalDate date = randomDate();
+        if (date.isBefore(LocalDate.now())) {return false;}
+        return !date.minusYears(1).isAfter(LocalDate.now());
+    }
+
+    @Benchmark
+    public boolean cachedWindow() {
+        return window.current().isBookable(randomDate().toEpochDay());
+    }
+
+    @Benchmark
+    public boolean addReservationConflicting() {
+        return service.addReservation("Other", taken, 150, 2);
+    }
+}
@@ -0,0 +1,86 @@
+package com.example.reservation.benchmark;
+
+import com.example.reservation.ImportResult;
+import com.example.reservation.ReservationImporter;
+import com.example.reservation.ReservationService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+//Bulk import of a generated history CSV into an empty service: rows spread over the 99 rooms, one-night stays
+//on consecutive days, 1% conflicting duplicates and 0.1% malformed rows. One import per measurement.
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(value = 1, jvmArgs = "-Xmx3g")
+@State(Scope.Benchmark)
+public class ImportBenchmark {
+
+    @Param({"1000000", "10000000"})
+    public int rows;
+
+    @Param({"0"})   //0 = one parser thread per core
+    public int parserThreads;
+
+    private Path dir;
+    private Path csv;
+    private ReservationService service;
+
+    @Setup(Level.Trial)
+    public void writeFile() throws IOException {
+        dir = Files.createTempDirectory("import-benchmark");
+        csv = dir.resolve("history.csv");
+        LocalDate first = LocalDate.of(1970, 1, 1);
+        try (BufferedWriter out = Files.newBufferedWriter(csv)) {
+            out.write("customerName,checkIn,roomNumber,guestCount\n");
+            for (int i = 0; i < rows; i++) {
+                int row = i % 100 == 99 ? i - 1 : i;   //Conflicts with the row before
+                if (i % 1000 == 500) {
+                    out.write("Customer" + i + ",not a date," + (101 + row % 99) + ",2\n");
+                } else {
+                    out.write("Customer" + (row % 50_000) + "," + first.plusDays(row / 99) + "," + (101 + row % 99) + ",2\n");
+                }
+            }
+        }
+        System.out.printf("%n%d rows, %d MB%n", rows, Files.size(csv) >> 20);
+    }
+
+    @Setup(Level.Invocation)
+    public void newService() {
+        service = new ReservationService();
+    }
+
+    @TearDown(Level.Trial)
+    public void deleteFile() throws IOException {
+        Files.deleteIfExists(dir.resolve("rejects.csv"));
+        Files.deleteIfExists(csv);
+        Files.deleteIfExists(dir);
+    }
+
+    @Benchmark
+    public ImportResult importCsv() throws IOException {
+        ReservationImporter importer = parserThreads == 0 ? new ReservationImporter(service) :
+                new ReservationImporter(service, parserThreads);
+        ImportResult result = importer.importCsv(csv, dir.resolve("rejects.csv"));
+        System.out.println(result);
+        return result;
+    }
+}
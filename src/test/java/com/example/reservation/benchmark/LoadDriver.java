@@ -0,0 +1,102 @@
+package com.example.reservation.benchmark;
+
+import com.example.reservation.ReservationHttpServer;
+import com.example.reservation.ReservationService;
+
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+//Flash-sale load test for ReservationHttpServer: starts the server in-process, opens one virtual thread per
+//request, releases them all at once and reports how many were in flight together, the status codes and latency.
+//Connections are spread over several loopback addresses so 50k+ sockets do not run out of ephemeral ports;
+//the process needs a file descriptor limit of about twice the request count (ulimit -n).
+//System properties:
+//  load.requests     concurrent requests (default 50000)
+//  load.maxInFlight  admission limit of the server (default 100000)
+//  load.backlog      accept queue length (default 65535, capped by net.core.somaxconn)
+//  load.addresses    number of loopback addresses 127.0.0.1.. to connect to (default 8)
+public class LoadDriver {
+
+    public static void main(String[] args) throws Exception {
+        int requests = Integer.getInteger("load.requests", 50_000);
+        int maxInFlight = Integer.getInteger("load.maxInFlight", 100_000);
+        int backlog = Integer.getInteger("load.backlog", 65_535);
+        int addresses = Integer.getInteger("load.addresses", 8);
+
+        ReservationService service = new ReservationService();
+        try (ReservationHttpServer server = new ReservationHttpServer(service, new InetSocketAddress(0), backlog, maxInFlight);
+             ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+            server.start();
+            HttpClient http = HttpClient.newBuilder()
+                    .executor(clients)
+                    .connectTimeout(Duration.ofSeconds(30))
+                    .build();
+
+            CountDownLatch ready = new CountDownLatch(requests);
+            CountDownLatch go = new CountDownLatch(1);
+            CountDownLatch done = new CountDownLatch(requests);
+            AtomicInteger inFlight = new AtomicInteger();
+            AtomicInteger peakInFlight = new AtomicInteger();
+            ConcurrentHashMap<String, LongAdder> outcomes = new ConcurrentHashMap<>();
+            long[] latencies = new long[requests];
+            LocalDate today = LocalDate.now();
+
+            for (int i = 0; i < requests; i++) {
+                int id = i;
+                clients.submit(() -> {
+                    //Every 99 x 365 requests cover each slot once; the rest compete for taken slots.
+                    int room = 101 + id % 99;
+                    LocalDate date = today.plusDays(1 + (id / 99) % 365);
+                    URI uri = URI.create("http://127.0.0." + (1 + id % addresses) + ":" + server.getPort() +
+                            "/reservations?name=Load" + id + "&date=" + date + "&room=" + room + "&guests=2");
+                    HttpRequest request = HttpRequest.newBuilder(uri).POST(HttpRequest.BodyPublishers.noBody())
+                            .timeout(Duration.ofSeconds(120)).build();
+                    ready.countDown();
+                    try {
+                        go.await();
+                        long start = System.nanoTime();
+                        peakInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+                        try {
+                            HttpResponse<String> response = http.send(request, HttpResponse.BodyHandlers.ofString());
+                            outcomes.computeIfAbsent(String.valueOf(response.statusCode()), k -> new LongAdder()).increment();
+                        } finally {
+                            inFlight.decrementAndGet();
+                            latencies[id] = System.nanoTime() - start;
+                        }
+                    } catch (Exception e) {
+                        outcomes.computeIfAbsent(e.getClass().getSimpleName(), k -> new LongAdder()).increment();
+                    } finally {
+                        done.countDown();
+                    }
+                });
+            }
+
+            ready.await();
+            long start = System.nanoTime();
+            go.countDown();
+            done.await();
+            double seconds = (System.nanoTime() - start) / 1e9;
+
+            Arrays.sort(latencies);
+            System.out.printf("requests            %d in %.2f s (%.0f req/s)%n", requests, seconds, requests / seconds);
+            System.out.printf("client peak in flight %d%n", peakInFlight.get());
+            System.out.printf("server peak in flight %d, rejected %d%n", server.getPeakInFlight(), server.getRejected());
+            System.out.printf("latency p50 %.1f ms, p99 %.1f ms, max %.1f ms%n", latencies[requests / 2] / 1e6,
+                    latencies[(int) (requests * 0.99)] / 1e6, latencies[requests - 1] / 1e6);
+            System.out.println("outcomes            " + outcomes);
+            System.out.println("reservations        " + service.getAllReservations().size());
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package com.example.reservation.benchmark;
+
+import com.example.reservation.Reservation;
+import com.example.reservation.ReservationService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDate;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+//Cost of ReservationMetrics on the instrumented operations: the same calls with metrics off, on with the default
+//latency sampling (one call in 64 timed) and on with every call timed.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MetricsOverheadBenchmark {
+
+    //off, or the latency sample interval.
+    @Param({"off", "64", "1"})
+    public String metrics;
+
+    private ReservationService service;
+    private LocalDate[] dates;
+    private Integer[] rooms;
+    private LocalDate free;
+
+    @Setup
+    public void setUp() {
+        service = new ReservationService();
+        if (metrics.equals("off")) {
+            service.getMetrics().setEnabled(false);
+        } else {
+            service.getMetrics().setLatencySampleInterval(Integer.parseInt(metrics));
+        }
+        dates = new LocalDate[300];
+        rooms = new Integer[99];
+        for (int i = 0; i < rooms.length; i++) {
+            rooms[i] = 101 + i;
+        }
+        for (int d = 0; d < dates.length; d++) {
+            dates[d] = LocalDate.now().plusDays(1 + d);
+            for (int room = 101; room <= 199; room++) {
+                service.addReservation("Guest" + room % 50, dates[d], room, 2);
+            }
+        }
+        free = LocalDate.now().plusDays(340);
+    }
+
+    @Benchmark
+    public boolean addConflicting() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        return service.addReservation("Other", dates[random.nextInt(dates.length)], rooms[random.nextInt(rooms.length)], 2);
+    }
+
+    @Benchmark
+    public Reservation find() {
+        int room = 101 + ThreadLocalRandom.current().nextInt(99);
+        return service.findReservation("Guest" + room % 50, rooms[room - 101]);
+    }
+
+    @Benchmark
+    public boolean addThenCancel() {
+        Integer room = rooms[ThreadLocalRandom.current().nextInt(rooms.length)];
+        service.addReservation("Walk-in", free, room, 2);
+        return service.cancelReservation("Walk-in", free, room, 2);
+    }
+}
@@ -0,0 +1,78 @@
+package com.example.reservation.benchmark;
+
+import com.example.reservation.Reservation;
+import com.example.reservation.ReservationLog;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+//Startup replay time of the write-ahead log.
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ReservationLogBenchmark {
+
+    @Param({"1000000", "10000000"})
+    public int records;
+
+    private Path file;
+
+    //Counts records, so the benchmark measures reading and decoding only.
+    private static class Counter implements ReservationLog.Handler {
+        long seen;
+
+        @Override
+        public void add(String customerName, LocalDate date, int roomNumber, int guestCount) { seen++; }
+
+        @Override
+        public void cancel(String customerName, LocalDate date, int roomNumber, int guestCount) { seen++; }
+    }
+
+    @Setup
+    public void writeLog() throws IOException {
+        file = Files.createTempFile("reservations", ".wal");
+        LocalDate today = LocalDate.now();
+        try (ReservationLog log = new ReservationLog(file, 100_000)) {
+            for (int i = 0; i < records; i++) {
+                Reservation reservation = new Reservation("Customer" + (i % 5000), today.plusDays(i % 366), 101 + i % 99, 2);
+                if (i % 4 == 3) {
+                    log.appendCancel(reservation);
+                } else {
+                    log.appendAdd(reservation);
+                }
+            }
+        }
+    }
+
+    @TearDown
+    public void deleteLog() throws IOException {
+        Files.deleteIfExists(file);
+    }
+
+    @Benchmark
+    public long replay() throws IOException {
+        try (ReservationLog log = new ReservationLog(file, 1)) {
+            Counter counter = new Counter();
+            log.replay(counter);
+            return counter.seen;
+        }
+    }
+}
@@ -0,0 +1,156 @@
+package com.example.reservation.benchmark;
+
+import com.example.reservation.Reservation;
+import com.example.reservation.ReservationPage;
+import com.example.reservation.ReservationService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+//Hot paths of ReservationService on a prefilled store.
+//Prefill uses days 1-350 of the booking window (at most 99 x 350 = 34650 reservations), days 351-366 are
+//kept free for the per-thread add/cancel slots.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ReservationServiceBenchmark {
+
+    public static final int PREFILL_DAYS = 350;
+    public static final int FREE_DAYS = 16;
+
+    //UNIFORM spreads bookings over every room and day, CLUSTERED fills rooms one after another.
+    public enum Distribution { UNIFORM, CLUSTERED }
+
+    @State(Scope.Benchmark)
+    public static class Store {
+        @Param({"1000", "10000", "30000"})
+        public int storeSize;
+
+        @Param({"UNIFORM", "CLUSTERED"})
+        public Distribution distribution;
+
+        public ReservationService service;
+        public Reservation[] booked;
+
+        @Setup
+        public void setUp() {
+            service = new ReservationService();
+            List<Integer> slots = new ArrayList<>();
+            for (int i = 0; i < 99 * PREFILL_DAYS; i++) {
+                slots.add(i);
+            }
+            if (distribution == Distribution.UNIFORM) {
+                Collections.shuffle(slots, new Random(42));
+            }
+
+            LocalDate today = LocalDate.now();
+            booked = new Reservation[storeSize];
+            for (int i = 0; i < storeSize; i++) {
+                int slot = slots.get(i);
+                int room = 101 + slot / PREFILL_DAYS;
+                LocalDate date = today.plusDays(1 + slot % PREFILL_DAYS);
+                String name = "Customer" + (i % 5000);
+                service.addReservation(name, date, room, 2);
+                booked[i] = new Reservation(name, date, room, 2);
+            }
+        }
+    }
+
+    //A slot outside the prefilled days owned by one benchmark thread.
+    @State(Scope.Thread)
+    public static class ThreadSlot {
+        private static final AtomicInteger NEXT = new AtomicInteger();
+
+        public int room;
+        public LocalDate date;
+        public String name;
+
+        @Setup
+        public void setUp() {
+            int id = NEXT.getAndIncrement() % (99 * FREE_DAYS);
+            room = 101 + id % 99;
+            date = LocalDate.now().plusDays(1 + PREFILL_DAYS + id / 99);
+            name = "Thread" + id;
+        }
+    }
+
+    @Benchmark
+    public boolean addAndCancel(Store store, ThreadSlot slot) {
+        store.service.addReservation(slot.name, slot.date, slot.room, 2);
+        return store.service.cancelReservation(slot.name, slot.date, slot.room, 2);
+    }
+
+    @Benchmark
+    public boolean addConflicting(Store store) {
+        Reservation taken = store.booked[ThreadLocalRandom.current().nextInt(store.booked.length)];
+        return store.service.addReservation("Other", taken.getDateTime(), taken.getRoomNumber(), 2);
+    }
+
+    @Benchmark
+    public boolean cancelMissing(Store store) {
+        Reservation taken = store.booked[ThreadLocalRandom.current().nextInt(store.booked.length)];
+        return store.service.cancelReservation("Other", taken.getDateTime(), taken.getRoomNumber(), 2);
+    }
+
+    @Benchmark
+    public Reservation findReservation(Store store) {
+        Reservation taken = store.booked[ThreadLocalRandom.current().nextInt(store.booked.length)];
+        return store.service.findReservation(taken.getCustomerName(), taken.getRoomNumber());
+    }
+
+    @Benchmark
+    public Reservation findReservationMissing(Store store) {
+        return store.service.findReservation("Nobody", 150);
+    }
+
+    @Benchmark
+    public boolean isRoomAvailable(Store store) {
+        Reservation taken = store.booked[ThreadLocalRandom.current().nextInt(store.booked.length)];
+        return store.service.isRoomAvailable(taken.getRoomNumber(), taken.getDateTime());
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public List<Reservation> getAllReservations(Store store) {
+        return store.service.getAllReservations();
+    }
+
+    //Dashboard-style full read in pages of 500: allocation stays proportional to the page, not the store.
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public int pageThroughAll(Store store) {
+        int seen = 0;
+        long cursor = ReservationPage.FIRST;
+        while (cursor != ReservationPage.END) {
+            ReservationPage page = store.service.getReservationsPage(cursor, 500);
+            seen += page.getReservations().size();
+            cursor = page.getNextCursor();
+        }
+        return seen;
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public long streamAll(Store store) {
+        return store.service.streamReservations().count();
+    }
+}
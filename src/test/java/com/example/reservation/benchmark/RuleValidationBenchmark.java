@@ -0,0 +1,77 @@
+package com.example.reservation.benchmark;
+
+import com.example.reservation.RoomValidatorService;
+import com.example.reservation.ValidationRules;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Properties;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+//Room and guest validation of one request: the former hard-coded range checks against the compiled
+//ValidationRules read through the validator's atomic reference, with the default and a per-room-type rule set.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RuleValidationBenchmark {
+
+    private int[] rooms;
+    private int[] guests;
+    private RoomValidatorService defaults;
+    private RoomValidatorService roomTypes;
+
+    @Setup
+    public void setUp() {
+        rooms = new int[1024];
+        guests = new int[1024];
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        for (int i = 0; i < rooms.length; i++) {
+            rooms[i] = 95 + random.nextInt(110);   //Mostly valid, some outside 101-199.
+            guests[i] = random.nextInt(7);
+        }
+        defaults = new RoomValidatorService();
+        Properties config = new Properties();
+        config.setProperty("roomType.standard.rooms", "101-150");
+        config.setProperty("roomType.standard.guests", "1-2");
+        config.setProperty("roomType.family.rooms", "151-199");
+        config.setProperty("roomType.family.guests", "3-6");
+        roomTypes = new RoomValidatorService(ValidationRules.compile(config));
+    }
+
+    private static boolean validate(RoomValidatorService validator, int room, int guestCount) {
+        ValidationRules rules = validator.getRules();
+        return rules.isValidRoom(room) && rules.isValidGuestCount(room, guestCount);
+    }
+
+    @Benchmark
+    public boolean hardCoded() {
+        int i = ThreadLocalRandom.current().nextInt(rooms.length);
+        int room = rooms[i];
+        int guestCount = guests[i];
+        return room >= 101 && room <= 199 && guestCount >= 1 && guestCount <= 4;
+    }
+
+    @Benchmark
+    public boolean compiledDefaults() {
+        int i = ThreadLocalRandom.current().nextInt(rooms.length);
+        return validate(defaults, rooms[i], guests[i]);
+    }
+
+    @Benchmark
+    public boolean compiledRoomTypes() {
+        int i = ThreadLocalRandom.current().nextInt(rooms.length);
+        return validate(roomTypes, rooms[i], guests[i]);
+    }
+}
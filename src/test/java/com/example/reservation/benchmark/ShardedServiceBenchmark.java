@@ -0,0 +1,117 @@
+package com.example.reservation.benchmark;
+
+import com.example.reservation.ReservationService;
+import com.example.reservation.ShardedReservationService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+//Booking throughput of the sharded service by shard count. Run with -Djmh.threads=1,2,4,8 and compare
+//ops/s across thread counts; shards = 0 is the unsharded ReservationService called directly.
+//Each benchmark thread books and cancels slots of its own room, rooms are spread over every shard.
+//The blocking call pays a thread handoff per request; the pipelined one keeps 64 requests in flight per thread.
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(java.util.concurrent.TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ShardedServiceBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class Service {
+        @Param({"0", "1", "2", "4", "8"})
+        public int shards;
+
+        public ReservationService single;
+        public ShardedReservationService sharded;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            if (shards == 0) {
+                single = new ReservationService();
+            } else {
+                sharded = new ShardedReservationService(shards);
+            }
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() throws IOException {
+            if (sharded != null) {sharded.close();}
+        }
+
+        boolean add(String name, LocalDate date, int room) {
+            return single != null ? single.addReservation(name, date, room, 2) : sharded.addReservation(name, date, room, 2);
+        }
+
+        boolean cancel(String name, LocalDate date, int room) {
+            return single != null ? single.cancelReservation(name, date, room, 2) : sharded.cancelReservation(name, date, room, 2);
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class ThreadRoom {
+        private static final AtomicInteger NEXT = new AtomicInteger();
+
+        public int room;
+        public String name;
+        public LocalDate[] dates = new LocalDate[64];
+        public int next;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            int id = NEXT.getAndIncrement();
+            room = 101 + (id * 37) % 99;   //Neighbouring threads land in different shards.
+            name = "Thread" + id;
+            for (int i = 0; i < dates.length; i++) {
+                dates[i] = LocalDate.now().plusDays(1 + i);
+            }
+        }
+    }
+
+    @Benchmark
+    public boolean addAndCancel(Service service, ThreadRoom slot) {
+        LocalDate date = slot.dates[slot.next++ & 63];
+        service.add(slot.name, date, slot.room);
+        return service.cancel(slot.name, date, slot.room);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(64)
+    public int addAndCancelPipelined(Service service, ThreadRoom slot) {
+        if (service.single != null) {
+            int cancelled = 0;
+            for (LocalDate date : slot.dates) {
+                service.add(slot.name, date, slot.room);
+                if (service.cancel(slot.name, date, slot.room)) {cancelled++;}
+            }
+            return cancelled;
+        }
+        @SuppressWarnings({"unchecked", "rawtypes"})   //Generic array creation
+        CompletableFuture<Boolean>[] cancels = new CompletableFuture[slot.dates.length];
+        for (int i = 0; i < slot.dates.length; i++) {
+            service.sharded.addReservationAsync(slot.name, slot.dates[i], slot.room, 2);
+            cancels[i] = service.sharded.cancelReservationAsync(slot.name, slot.dates[i], slot.room, 2);
+        }
+        int cancelled = 0;
+        for (CompletableFuture<Boolean> cancel : cancels) {
+            if (cancel.join()) {cancelled++;}
+        }
+        return cancelled;
+    }
+}
@@ -0,0 +1,95 @@
+package com.example.reservation.benchmark;
+
+import com.example.reservation.ReservationRequest;
+import com.example.reservation.ReservationService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+//Lock-free reads from the published view while a writer books and cancels 20-room batches.
+//"read" runs readers alone, "mixed" runs three readers against one batch writer; the readers' scores should
+//stay close, since a writer never blocks them, it only swaps in new views.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Group)
+public class SnapshotReadBenchmark {
+
+    private ReservationService service;
+    private String[] names;   //By room index, so readers do not build strings.
+    private LocalDate firstDay;
+    private List<ReservationRequest> batch;
+    private LocalDate batchDate;
+
+    @Setup
+    public void setUp() {
+        service = new ReservationService();
+        names = new String[99];
+        for (int i = 0; i < names.length; i++) {
+            names[i] = "Guest" + (101 + i);
+        }
+        firstDay = LocalDate.now().plusDays(1);
+        for (int day = 0; day < 300; day += 2) {
+            for (int room = 101; room <= 199; room++) {
+                service.addReservation(names[room - 101], firstDay.plusDays(day), room, 2);
+            }
+        }
+        batchDate = firstDay.plusDays(301);
+        batch = new ArrayList<>();
+        for (int room = 101; room <= 199; room += 5) {
+            batch.add(new ReservationRequest("Tour", batchDate, room, 2));
+        }
+    }
+
+    private Object readOnce() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int room = 101 + random.nextInt(99);
+        if (random.nextBoolean()) {
+            return service.findReservation(names[room - 101], room);
+        }
+        return service.getView().hasConflict(room, firstDay.plusDays(random.nextInt(300)));
+    }
+
+    @Benchmark
+    @Group("read")
+    @GroupThreads(4)
+    public Object readOnly() {
+        return readOnce();
+    }
+
+    @Benchmark
+    @Group("mixed")
+    @GroupThreads(3)
+    public Object reader() {
+        return readOnce();
+    }
+
+    @Benchmark
+    @Group("mixed")
+    @GroupThreads(1)
+    public boolean batchWriter() {
+        service.addReservations(batch);
+        boolean cancelled = true;
+        for (ReservationRequest item : batch) {
+            cancelled &= service.cancelReservation("Tour", batchDate, item.getRoomNumber(), 2);
+        }
+        return cancelled;
+    }
+}